@@ -1,11 +1,69 @@
 package com.trading;
 
+import com.trading.controller.RecoveryGate;
+import com.trading.model.RecoveryStats;
+import com.trading.service.EngineHealth;
+import com.trading.service.TradingService;
+import com.trading.wire.WireServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
 
 @SpringBootApplication
 public class TradingApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(TradingApiApplication.class, args);
     }
+
+    /**
+     * Recover the engine from the latest snapshot and the journal tail once the web server is up, so
+     * the readiness probe reports the recovery; {@link RecoveryGate} turns API requests away until it
+     * has finished. The binary order entry port, which has no such gate, only opens afterwards.
+     * Startup time runs to the end of recovery.
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> engineRecovery(TradingService tradingService,
+                                                                     WireServer wireServer,
+                                                                     MeterRegistry meterRegistry) {
+        return event -> {
+            long start = System.nanoTime();
+            RecoveryStats stats = tradingService.recover();
+            TimeGauge.builder("trading.engine.recovery.time", stats, TimeUnit.MILLISECONDS,
+                            RecoveryStats::getRecoveryMillis)
+                    .description("Time taken to load the snapshot and replay the journal on startup")
+                    .register(meterRegistry);
+            try {
+                wireServer.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            tradingService.recordStartupTime(event.getTimeTaken().toMillis()
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        };
+    }
+
+    /**
+     * Engine readiness, part of the readiness probe: {@code /actuator/health/readiness}.
+     */
+    @Bean
+    public HealthIndicator engineHealthIndicator(EngineHealth engineHealth) {
+        return engineHealth::readiness;
+    }
+
+    /**
+     * Stage threads making progress, part of the liveness probe: {@code /actuator/health/liveness}.
+     */
+    @Bean
+    public HealthIndicator matcherHealthIndicator(EngineHealth engineHealth) {
+        return engineHealth::liveness;
+    }
 }
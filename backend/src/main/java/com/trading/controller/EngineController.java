@@ -0,0 +1,36 @@
+package com.trading.controller;
+
+import com.trading.model.RecoveryStats;
+import com.trading.model.RiskStats;
+import com.trading.model.ShardStats;
+import com.trading.service.TradingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1")
+public class EngineController {
+
+    @Autowired
+    private TradingService tradingService;
+
+    @GetMapping("/engine/stats")
+    public ResponseEntity<List<ShardStats>> getEngineStats() {
+        return ResponseEntity.ok(tradingService.getEngineStats());
+    }
+
+    @GetMapping("/engine/risk")
+    public ResponseEntity<RiskStats> getRiskStats() {
+        return ResponseEntity.ok(tradingService.getRiskStats());
+    }
+
+    @GetMapping("/engine/recovery")
+    public ResponseEntity<RecoveryStats> getRecoveryStats() {
+        return ResponseEntity.ok(tradingService.getRecoveryStats());
+    }
+}
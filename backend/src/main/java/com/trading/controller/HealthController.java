@@ -1,5 +1,10 @@
 package com.trading.controller;
 
+import com.trading.service.EngineHealth;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,10 +15,36 @@ import java.util.Map;
 @RestController
 public class HealthController {
 
+    @Autowired
+    private EngineHealth engineHealth;
+
+    /**
+     * Liveness and readiness in one answer for load balancers: 200 only while the engine is healthy,
+     * 503 while it is starting, degraded or unhealthy.
+     */
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> healthCheck() {
+        Health health = engineHealth.liveness();
+        if (Status.UP.equals(health.getStatus())) {
+            health = engineHealth.readiness();
+        }
         Map<String, String> response = new HashMap<>();
-        response.put("status", "healthy");
-        return ResponseEntity.ok(response);
+        response.put("status", statusName(health.getStatus()));
+        Object reason = health.getDetails().get("reason");
+        if (reason != null) {
+            response.put("reason", reason.toString());
+        }
+        return ResponseEntity.status(Status.UP.equals(health.getStatus()) ? HttpStatus.OK
+                : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    private static String statusName(Status status) {
+        if (Status.UP.equals(status)) {
+            return "healthy";
+        }
+        if (EngineHealth.DEGRADED.equals(status)) {
+            return "degraded";
+        }
+        return Status.OUT_OF_SERVICE.equals(status) ? "starting" : "unhealthy";
     }
 }
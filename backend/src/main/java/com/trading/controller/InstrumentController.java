@@ -1,12 +1,12 @@
 package com.trading.controller;
 
 import com.trading.model.Instrument;
+import com.trading.model.Quote;
 import com.trading.service.TradingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
@@ -21,4 +21,35 @@ public class InstrumentController {
     public ResponseEntity<List<Instrument>> getInstruments() {
         return ResponseEntity.ok(tradingService.getAllInstruments());
     }
+
+    @GetMapping("/instruments/{symbol}")
+    public ResponseEntity<Instrument> getInstrument(@PathVariable String symbol) {
+        Instrument instrument = tradingService.getInstrumentBySymbol(symbol);
+        if (instrument == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(instrument);
+    }
+
+    /**
+     * Last trade, best bid and ask, and the top levels of both sides of the instrument's book.
+     */
+    @GetMapping("/instruments/{symbol}/quote")
+    public ResponseEntity<Quote> getQuote(@PathVariable String symbol) {
+        Quote quote = tradingService.getQuote(symbol);
+        if (quote == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(quote);
+    }
+
+    @PostMapping("/instruments")
+    public ResponseEntity<Instrument> listInstrument(@RequestBody Instrument instrument) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(tradingService.listInstrument(instrument));
+    }
+
+    @DeleteMapping("/instruments/{symbol}")
+    public ResponseEntity<Instrument> delistInstrument(@PathVariable String symbol) {
+        return ResponseEntity.ok(tradingService.delistInstrument(symbol));
+    }
 }
@@ -1,33 +1,69 @@
 package com.trading.controller;
 
+import com.trading.model.AmendOrderRequest;
+import com.trading.model.BatchOrderResult;
+import com.trading.model.MassCancelResult;
 import com.trading.model.Order;
 import com.trading.model.OrderRequest;
+import com.trading.service.IdPage;
+import com.trading.service.ListingWriter;
 import com.trading.service.TradingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/v1")
 public class OrderController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @Autowired
     private TradingService tradingService;
 
+    @Autowired
+    private ListingWriter listingWriter;
+
     @PostMapping("/orders")
     public ResponseEntity<?> placeOrder(@Valid @RequestBody OrderRequest request) {
         try {
-            Order order = tradingService.placeOrder(request);
+            long orderId = await(tradingService.placeOrder(request));
+            Order order = tradingService.getOrderById(orderId);
             return ResponseEntity.status(HttpStatus.CREATED).body(order);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    /**
+     * Place a basket of orders in one request. Items are validated independently; the response lists
+     * one result per item, in request order, holding either the order or the reason it was rejected.
+     */
+    @PostMapping("/orders/batch")
+    public ResponseEntity<List<BatchOrderResult>> placeOrders(@RequestBody List<OrderRequest> requests) {
+        List<CompletableFuture<Long>> futures = tradingService.placeOrders(requests);
+        List<BatchOrderResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<Long> future : futures) {
+            try {
+                results.add(new BatchOrderResult(tradingService.getOrderById(await(future)), null));
+            } catch (RuntimeException e) {
+                // Any item's failure is reported in its place, so the items already placed are not lost
+                results.add(new BatchOrderResult(null, reason(e)));
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/orders/{orderId}")
     public ResponseEntity<?> getOrderStatus(@PathVariable String orderId) {
         Order order = tradingService.getOrderById(orderId);
@@ -37,21 +73,85 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * One page of orders, newest first. The body stays a plain array; the cursor for the next page is
+     * returned in the {@value #NEXT_CURSOR_HEADER} header, absent on the last page. Rows are streamed
+     * as they are encoded.
+     */
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(tradingService.getAllOrders());
+    public ResponseEntity<StreamingResponseBody> getOrders(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String side,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit) {
+        IdPage page = tradingService.getOrders(symbol, status, side, from, to, before, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(out -> listingWriter.writeOrders(page, out));
     }
 
     @DeleteMapping("/orders/{orderId}")
     public ResponseEntity<?> cancelOrder(@PathVariable String orderId) {
         try {
-            Order order = tradingService.cancelOrder(orderId);
+            Order order = tradingService.getOrderById(await(tradingService.cancelOrder(orderId)));
             return ResponseEntity.ok(order);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    /**
+     * Cancel every resting order matching the filters, all of them when none is given. Each shard
+     * takes the orders off its books in a single pass and the cancelled orders are streamed together.
+     */
+    @DeleteMapping("/orders")
+    public ResponseEntity<?> cancelOrders(@RequestParam(required = false) String symbol,
+                                          @RequestParam(required = false) String side,
+                                          @RequestParam(required = false) String account) {
+        try {
+            return ResponseEntity.ok(new MassCancelResult(await(tradingService.cancelOrders(symbol, side, account))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Change a resting order's price or quantity in the book. Lowering only the quantity keeps the
+     * order's priority; a new price or a larger quantity re-queues it, and a new price that crosses
+     * the book matches first.
+     */
+    @PatchMapping("/orders/{orderId}")
+    public ResponseEntity<?> amendOrder(@PathVariable String orderId, @Valid @RequestBody AmendOrderRequest request) {
+        try {
+            long id = await(tradingService.amendOrder(orderId, request.getPrice(), request.getQuantity()));
+            return ResponseEntity.ok(tradingService.getOrderById(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Wait for the owning shard to process the order, surfacing validation failures as thrown
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String reason(RuntimeException e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
     private static class ErrorResponse {
         private String error;
 
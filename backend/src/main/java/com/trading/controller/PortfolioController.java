@@ -1,11 +1,13 @@
 package com.trading.controller;
 
 import com.trading.model.PortfolioHolding;
+import com.trading.model.PortfolioSummary;
 import com.trading.service.TradingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -18,7 +20,12 @@ public class PortfolioController {
     private TradingService tradingService;
 
     @GetMapping("/portfolio")
-    public ResponseEntity<List<PortfolioHolding>> getPortfolio() {
-        return ResponseEntity.ok(tradingService.getPortfolio());
+    public ResponseEntity<List<PortfolioHolding>> getPortfolio(@RequestParam(required = false) String account) {
+        return ResponseEntity.ok(tradingService.getPortfolio(account));
+    }
+
+    @GetMapping("/portfolio/summary")
+    public ResponseEntity<PortfolioSummary> getPortfolioSummary(@RequestParam(required = false) String account) {
+        return ResponseEntity.ok(tradingService.getPortfolioSummary(account));
     }
 }
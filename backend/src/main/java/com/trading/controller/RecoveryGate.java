@@ -0,0 +1,44 @@
+package com.trading.controller;
+
+import com.trading.service.TradingService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns API requests away with 503 while the engine is recovering. Recovery runs once the web
+ * server is up, so the health probes can report it; orders must not race the replay meanwhile.
+ */
+@Component
+public class RecoveryGate extends OncePerRequestFilter {
+    private final TradingService tradingService;
+
+    public RecoveryGate(TradingService tradingService) {
+        this.tradingService = tradingService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (tradingService.getRecoveryStats() != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Engine is recovering\"}");
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.controller;
+
+import com.trading.service.EventStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1")
+public class StreamController {
+
+    @Autowired
+    private EventStreamService eventStreamService;
+
+    /**
+     * Server-Sent Events stream of {@code order} (current order state) and {@code trade} events, plus
+     * {@code quote} events (latest market data of a symbol) when asked for in {@code types}, with a
+     * {@code dropped} event whenever events had to be dropped because the client fell behind.
+     */
+    @GetMapping("/stream")
+    public SseEmitter stream(@RequestParam(required = false) List<String> symbol,
+                             @RequestParam(required = false) String orderId,
+                             @RequestParam(required = false) List<String> types) {
+        long id = 0;
+        if (orderId != null) {
+            try {
+                id = Long.parseLong(orderId);
+            } catch (NumberFormatException e) {
+                id = -1;
+            }
+            if (id <= 0) {
+                throw new IllegalArgumentException("Order not found");
+            }
+        }
+        boolean orders = types == null;
+        boolean trades = types == null;
+        boolean quotes = false;
+        if (types != null) {
+            for (String type : types) {
+                if ("order".equalsIgnoreCase(type)) {
+                    orders = true;
+                } else if ("trade".equalsIgnoreCase(type)) {
+                    trades = true;
+                } else if ("quote".equalsIgnoreCase(type)) {
+                    quotes = true;
+                } else {
+                    throw new IllegalArgumentException("types must be order, trade and/or quote");
+                }
+            }
+        }
+        Set<String> symbols = symbol == null ? null : new HashSet<>(symbol);
+        return eventStreamService.subscribe(symbols, id, orders, trades, quotes);
+    }
+}
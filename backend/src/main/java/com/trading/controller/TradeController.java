@@ -1,14 +1,19 @@
 package com.trading.controller;
 
-import com.trading.model.Trade;
+import com.trading.service.IdPage;
+import com.trading.service.ListingWriter;
 import com.trading.service.TradingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -17,8 +22,27 @@ public class TradeController {
     @Autowired
     private TradingService tradingService;
 
+    @Autowired
+    private ListingWriter listingWriter;
+
+    /**
+     * One page of trades, newest first, with the next page's cursor in the
+     * {@value OrderController#NEXT_CURSOR_HEADER} header. Rows are streamed as they are encoded.
+     */
     @GetMapping("/trades")
-    public ResponseEntity<List<Trade>> getTrades() {
-        return ResponseEntity.ok(tradingService.getAllTrades());
+    public ResponseEntity<StreamingResponseBody> getTrades(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String orderId,
+            @RequestParam(required = false) String side,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit) {
+        IdPage page = tradingService.getTrades(symbol, orderId, side, from, to, before, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.nextCursor() != null) {
+            response.header(OrderController.NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(out -> listingWriter.writeTrades(page, out));
     }
 }
@@ -0,0 +1,118 @@
+package com.trading.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns account names to dense int ids, so orders, book entries and positions carry an int.
+ * Accounts are opened implicitly by their first order; orders that name no account belong to
+ * {@value #DEFAULT_NAME} (id {@value #DEFAULT_ACCOUNT}). Lookups never block; opening is serialized.
+ * <p>
+ * Each shard journals an account's name before the first order of that account it journals, so
+ * every journal generation can be replayed on its own; snapshots carry the whole registry.
+ */
+public class AccountRegistry {
+    public static final int DEFAULT_ACCOUNT = 0;
+    public static final String DEFAULT_NAME = "default";
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private final Map<String, Integer> byName = new ConcurrentHashMap<>();
+    private volatile String[] byId = new String[64];
+    private volatile int size;
+
+    public AccountRegistry() {
+        restore(DEFAULT_ACCOUNT, DEFAULT_NAME);
+    }
+
+    /**
+     * Id of the account, opening it on first use.
+     * @param name null for the default account
+     */
+    public int intern(String name) {
+        if (name == null) {
+            return DEFAULT_ACCOUNT;
+        }
+        Integer id = byName.get(name);
+        return id != null ? id : open(name);
+    }
+
+    /**
+     * @param name null for the default account
+     * @return the account's id, or -1 if no order was ever placed for it
+     */
+    public int find(String name) {
+        if (name == null) {
+            return DEFAULT_ACCOUNT;
+        }
+        Integer id = byName.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String name(int id) {
+        return byId[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private synchronized int open(String name) {
+        Integer existing = byName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH || !validName(name)) {
+            throw new IllegalArgumentException("account must be 1 to " + MAX_NAME_LENGTH
+                    + " letters, digits, '.', '_' or '-'");
+        }
+        int id = size;
+        restore(id, name);
+        return id;
+    }
+
+    private static boolean validName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '.' || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Put back an account under the id it had before a restart. Used by recovery, and safe to call
+     * for an account already known.
+     */
+    synchronized void restore(int id, String name) {
+        String[] current = byId;
+        if (id >= current.length) {
+            String[] grown = new String[Math.max(current.length << 1, id + 1)];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        current[id] = name;
+        // Publish the name before the id can be looked up
+        byId = current;
+        byName.put(name, id);
+        size = Math.max(size, id + 1);
+    }
+
+    synchronized void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int id = 0; id < size; id++) {
+            out.writeUTF(byId[id]);
+        }
+    }
+
+    void readSnapshot(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int id = 0; id < count; id++) {
+            restore(id, in.readUTF());
+        }
+    }
+}
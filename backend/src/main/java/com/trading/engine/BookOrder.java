@@ -0,0 +1,58 @@
+package com.trading.engine;
+
+/**
+ * Mutable, pooled hot-path representation of an order owned by the match stage.
+ * Resting orders are linked into their {@link PriceLevel} intrusively.
+ */
+public class BookOrder {
+    long orderId;
+    int account;
+    ListedInstrument instrument;
+    Side side;
+    OrderStyle style;
+    long price;
+    long quantity;
+    long filledQuantity;
+
+    PriceLevel level;
+    BookOrder prev;
+    BookOrder next;
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public long getRemainingQuantity() {
+        return quantity - filledQuantity;
+    }
+
+    void reset() {
+        orderId = 0;
+        account = 0;
+        instrument = null;
+        side = null;
+        style = null;
+        price = 0;
+        quantity = 0;
+        filledQuantity = 0;
+        level = null;
+        prev = null;
+        next = null;
+    }
+}
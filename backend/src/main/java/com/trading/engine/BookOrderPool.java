@@ -0,0 +1,34 @@
+package com.trading.engine;
+
+/**
+ * Free list of {@link BookOrder} instances for one match stage thread. Not thread-safe.
+ */
+public class BookOrderPool {
+    private BookOrder[] free;
+    private int size;
+
+    public BookOrderPool(int initialSize) {
+        this.free = new BookOrder[Math.max(16, initialSize)];
+        for (int i = 0; i < initialSize; i++) {
+            free[size++] = new BookOrder();
+        }
+    }
+
+    public BookOrder acquire() {
+        return size > 0 ? free[--size] : new BookOrder();
+    }
+
+    public void release(BookOrder order) {
+        order.reset();
+        if (size == free.length) {
+            BookOrder[] grown = new BookOrder[free.length << 1];
+            System.arraycopy(free, 0, grown, 0, size);
+            free = grown;
+        }
+        free[size++] = order;
+    }
+
+    public int getAvailable() {
+        return size;
+    }
+}
@@ -0,0 +1,14 @@
+package com.trading.engine;
+
+public enum CommandType {
+    PLACE,
+    CANCEL,
+    AMEND,
+    MASS_CANCEL,
+    LIST_INSTRUMENT,
+    DELIST_INSTRUMENT,
+    SNAPSHOT,
+    RESTORE,
+    SYNC_JOURNAL,
+    REPLAY_TRADE
+}
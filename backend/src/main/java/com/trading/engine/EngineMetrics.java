@@ -0,0 +1,77 @@
+package com.trading.engine;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Receives timings of the order lifecycle: validation on the request threads, matching on the
+ * shards' match stages, journaling and position updates on their ledger stages. Only one operation
+ * in {@link #sampleEvery()} per stage is timed; the others skip the clock reads and never call in
+ * here. Called concurrently from all those threads, so implementations must be thread-safe.
+ */
+public interface EngineMetrics {
+    EngineMetrics NONE = new EngineMetrics() {
+        @Override
+        public int sampleEvery() {
+            return 0;
+        }
+
+        @Override
+        public void instrumentListed(ListedInstrument instrument) {
+        }
+
+        @Override
+        public void recordValidation(ListedInstrument instrument, boolean accepted, long nanos) {
+        }
+
+        @Override
+        public void recordMatching(ListedInstrument instrument, OrderStatus outcome, long nanos) {
+        }
+
+        @Override
+        public void recordJournaling(ListedInstrument instrument, long nanos) {
+        }
+
+        @Override
+        public void recordPositions(ListedInstrument instrument, long nanos) {
+        }
+    };
+
+    /**
+     * @return how many operations per timed one; 0 disables timing
+     */
+    int sampleEvery();
+
+    /**
+     * Whether to time this call, for callers on request threads: those would contend on a shared
+     * counter, so each draws its own samples.
+     */
+    default boolean sample() {
+        int sampleEvery = sampleEvery();
+        return sampleEvery > 0 && ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+    }
+
+    /**
+     * An instrument was listed, or restored on startup; before any of its orders is recorded.
+     */
+    void instrumentListed(ListedInstrument instrument);
+
+    /**
+     * @param instrument null if the order named no listed instrument
+     */
+    void recordValidation(ListedInstrument instrument, boolean accepted, long nanos);
+
+    /**
+     * @param outcome the order's status once matched, or null if the shard rejected it
+     */
+    void recordMatching(ListedInstrument instrument, OrderStatus outcome, long nanos);
+
+    /**
+     * Appending an order and its trades to the journal.
+     */
+    void recordJournaling(ListedInstrument instrument, long nanos);
+
+    /**
+     * Applying an order's fills to the positions.
+     */
+    void recordPositions(ListedInstrument instrument, long nanos);
+}
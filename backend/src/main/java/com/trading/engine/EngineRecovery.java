@@ -0,0 +1,249 @@
+package com.trading.engine;
+
+import com.trading.engine.ShardSnapshot.BookSnapshot;
+import com.trading.engine.ShardSnapshot.PositionSnapshot;
+import com.trading.model.RecoveryStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the engine on startup from the latest snapshot plus the journal written after it.
+ * <p>
+ * The snapshot's stores are loaded in place and its books and positions are handed to the shards
+ * that own their instruments now (the shard count may have changed). The journal tail is then
+ * replayed generation by generation; within a generation every source shard's segments are read
+ * by their own thread, and each record is routed to the owning shard's ring, so instruments are
+ * replayed in parallel while each one sees its events in journal order. Matching is re-run to
+ * rebuild books and order state; trades and holdings come from the journaled trades.
+ * <p>
+ * Runs on a started sequencer before any request is accepted.
+ */
+public class EngineRecovery {
+    private final Path snapshotDirectory;
+    private final Path journalDirectory;
+    private final ShardedSequencer sequencer;
+    private final InstrumentRegistry registry;
+    private final AccountRegistry accounts;
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+
+    public EngineRecovery(Path snapshotDirectory, Path journalDirectory, ShardedSequencer sequencer,
+                          InstrumentRegistry registry, AccountRegistry accounts, OrderStore orderStore,
+                          TradeStore tradeStore) {
+        this.snapshotDirectory = snapshotDirectory;
+        this.journalDirectory = journalDirectory;
+        this.sequencer = sequencer;
+        this.registry = registry;
+        this.accounts = accounts;
+        this.orderStore = orderStore;
+        this.tradeStore = tradeStore;
+    }
+
+    public RecoveryStats recover() {
+        long start = System.nanoTime();
+        try {
+            Path snapshot = SnapshotFile.latest(snapshotDirectory);
+            long fromGeneration = 1;
+            Map<Integer, ShardSnapshot> cuts = new HashMap<>();
+            if (snapshot != null) {
+                SnapshotFile.Contents contents = SnapshotFile.read(snapshot, registry, accounts, orderStore,
+                        tradeStore);
+                restoreShards(contents.shards());
+                fromGeneration = contents.generation();
+                contents.shards().forEach(shard -> cuts.put(shard.getShard(), shard));
+            }
+
+            long replayed = replayJournal(fromGeneration, cuts);
+            // Wait until every shard has applied everything replayed
+            sequencer.getShards().stream().map(EngineShard::syncJournal).toList().forEach(CompletableFuture::join);
+            registry.rebuildListedView();
+
+            return new RecoveryStats(snapshot != null ? snapshot.getFileName().toString() : null, replayed,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void restoreShards(List<ShardSnapshot> saved) {
+        Map<EngineShard, ShardSnapshot> byOwner = new HashMap<>();
+        for (ShardSnapshot shard : saved) {
+            for (BookSnapshot book : shard.getBooks()) {
+                ListedInstrument instrument = registry.get(book.instrumentId());
+                registry.markListed(instrument, book.listed());
+                ownerSnapshot(byOwner, instrument).getBooks().add(book);
+            }
+            for (PositionSnapshot position : shard.getPositions()) {
+                ownerSnapshot(byOwner, registry.get(position.instrumentId())).getPositions().add(position);
+            }
+        }
+        byOwner.entrySet().stream()
+                .map(entry -> entry.getKey().restore(entry.getValue()))
+                .toList()
+                .forEach(CompletableFuture::join);
+    }
+
+    private ShardSnapshot ownerSnapshot(Map<EngineShard, ShardSnapshot> byOwner, ListedInstrument instrument) {
+        EngineShard owner = sequencer.shardFor(instrument);
+        return byOwner.computeIfAbsent(owner, shard -> new ShardSnapshot(shard.getIndex()));
+    }
+
+    private long replayJournal(long fromGeneration, Map<Integer, ShardSnapshot> cuts) throws IOException {
+        // generation -> source shard -> segment -> file
+        TreeMap<Long, TreeMap<Integer, TreeMap<Integer, Path>>> segments = new TreeMap<>();
+        if (Files.isDirectory(journalDirectory)) {
+            try (Stream<Path> files = Files.list(journalDirectory)) {
+                for (Path file : files.toList()) {
+                    long[] name = Journal.parseName(file);
+                    if (name != null && name[0] >= fromGeneration && name[0] < sequencer.getGeneration()) {
+                        segments.computeIfAbsent(name[0], g -> new TreeMap<>())
+                                .computeIfAbsent((int) name[1], s -> new TreeMap<>())
+                                .put((int) name[2], file);
+                    }
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            return 0;
+        }
+
+        long replayed = 0;
+        ExecutorService readers = Executors.newFixedThreadPool(Math.min(
+                segments.values().stream().mapToInt(Map::size).max().orElse(1),
+                Runtime.getRuntime().availableProcessors()));
+        try {
+            for (Map.Entry<Long, TreeMap<Integer, TreeMap<Integer, Path>>> generation : segments.entrySet()) {
+                List<Callable<Long>> tasks = new ArrayList<>();
+                generation.getValue().forEach((shard, files) -> {
+                    ShardSnapshot cut = generation.getKey() == fromGeneration ? cuts.get(shard) : null;
+                    tasks.add(() -> replaySegments(files, cut));
+                });
+                // Generations are replayed one after the other
+                for (Future<Long> result : readers.invokeAll(tasks)) {
+                    replayed += result.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Journal replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Journal replay failed", e.getCause());
+        } finally {
+            readers.shutdown();
+        }
+        return replayed;
+    }
+
+    private long replaySegments(TreeMap<Integer, Path> files, ShardSnapshot cut) {
+        long replayed = 0;
+        for (Map.Entry<Integer, Path> segment : files.entrySet()) {
+            int offset = 0;
+            if (cut != null) {
+                if (segment.getKey() < cut.getJournalSegment()) {
+                    continue;
+                }
+                offset = segment.getKey() == cut.getJournalSegment() ? cut.getJournalOffset() : 0;
+            }
+            replayed += JournalReader.read(segment.getValue(), offset, this::replayRecord);
+        }
+        return replayed;
+    }
+
+    private void replayRecord(byte type, ByteBuffer payload) {
+        switch (type) {
+            case Journal.INSTRUMENT_LISTED -> {
+                int id = payload.getInt();
+                long lastPrice = payload.getLong();
+                long tickSize = payload.getLong();
+                long lotSize = payload.getLong();
+                String symbol = JournalReader.getString(payload);
+                String exchange = JournalReader.getString(payload);
+                String instrumentType = JournalReader.getString(payload);
+                ListedInstrument instrument = registry.restore(id, InstrumentRegistry.toInstrument(symbol, exchange,
+                        instrumentType, lastPrice, tickSize, lotSize));
+                registry.markListed(instrument, true);
+                replay(CommandType.LIST_INSTRUMENT, 0, 0, instrument, null, null, 0, 0, 0, 0, 0);
+            }
+            case Journal.INSTRUMENT_DELISTED -> {
+                ListedInstrument instrument = registry.get(payload.getInt());
+                registry.markListed(instrument, false);
+                replay(CommandType.DELIST_INSTRUMENT, 0, 0, instrument, null, null, 0, 0, 0, 0, 0);
+            }
+            case Journal.ORDER_PLACED -> {
+                long orderId = payload.getLong();
+                ListedInstrument instrument = registry.get(payload.getInt());
+                Side side = Side.fromOrdinal(payload.get());
+                OrderStyle style = OrderStyle.fromOrdinal(payload.get());
+                long price = payload.getLong();
+                long quantity = payload.getLong();
+                long timestamp = payload.getLong();
+                // Journaled before accounts existed: the default account
+                int account = payload.remaining() >= 4 ? payload.getInt() : AccountRegistry.DEFAULT_ACCOUNT;
+                orderStore.create(orderId, account, instrument, side, style, price, quantity, timestamp);
+                orderStore.advanceLastId(orderId);
+                replay(CommandType.PLACE, orderId, account, instrument, side, style, price, quantity, timestamp,
+                        0, 0);
+            }
+            case Journal.ORDER_REJECTED -> {
+                long orderId = payload.getLong();
+                ListedInstrument instrument = registry.get(payload.getInt());
+                Side side = Side.fromOrdinal(payload.get());
+                OrderStyle style = OrderStyle.fromOrdinal(payload.get());
+                long price = payload.getLong();
+                long quantity = payload.getLong();
+                long timestamp = payload.getLong();
+                int account = payload.getInt();
+                orderStore.create(orderId, account, instrument, side, style, price, quantity, timestamp);
+                orderStore.update(orderId, OrderStatus.CANCELLED, 0);
+                orderStore.advanceLastId(orderId);
+            }
+            case Journal.ORDER_CANCELLED -> {
+                long orderId = payload.getLong();
+                replay(CommandType.CANCEL, orderId, 0, registry.get(payload.getInt()), null, null, 0, 0, 0, 0, 0);
+            }
+            case Journal.ORDER_AMENDED -> {
+                long orderId = payload.getLong();
+                ListedInstrument instrument = registry.get(payload.getInt());
+                long price = payload.getLong();
+                long quantity = payload.getLong();
+                replay(CommandType.AMEND, orderId, 0, instrument, null, null, price, quantity, 0, 0, 0);
+            }
+            case Journal.TRADE -> {
+                long tradeId = payload.getLong();
+                long orderId = payload.getLong();
+                long contraOrderId = payload.getLong();
+                ListedInstrument instrument = registry.get(payload.getInt());
+                Side side = Side.fromOrdinal(payload.get());
+                long price = payload.getLong();
+                long quantity = payload.getLong();
+                long timestamp = payload.getLong();
+                replay(CommandType.REPLAY_TRADE, orderId, 0, instrument, side, null, price, quantity, timestamp,
+                        tradeId, contraOrderId);
+            }
+            case Journal.ACCOUNT_OPENED -> accounts.restore(payload.getInt(), JournalReader.getString(payload));
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private void replay(CommandType type, long orderId, int account, ListedInstrument instrument, Side side,
+                        OrderStyle style, long price, long quantity, long timestamp, long tradeId, long contraOrderId) {
+        sequencer.shardFor(instrument).replay(type, orderId, account, instrument, side, style, price, quantity,
+                timestamp, tradeId, contraOrderId);
+    }
+}
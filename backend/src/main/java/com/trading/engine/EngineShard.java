@@ -0,0 +1,1043 @@
+package com.trading.engine;
+
+import com.trading.engine.ShardSnapshot.BookSnapshot;
+import com.trading.engine.ShardSnapshot.PositionSnapshot;
+import com.trading.engine.ShardSnapshot.RestingOrder;
+import com.trading.model.PortfolioHolding;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline for the instruments assigned to one shard:
+ * <pre>
+ *   request threads --ingress ring--> match stage --execution ring--> ledger + publish stage
+ * </pre>
+ * The match stage is the only writer of the books and the ledger stage the only writer of the
+ * positions, so neither needs locking. Positions are kept per (account, instrument) in a
+ * {@link PositionBook} that portfolio reads go to directly instead of queueing behind orders.
+ * Fills move positions incrementally: a market fill moves the aggressor's account, a book match
+ * both accounts, and a match between two orders of the same account nets out. The ledger also
+ * keeps positions marked to market: each batch revalues only the positions in the instruments
+ * that traded in it, at their last trade price.
+ * <p>
+ * Both stages drain their ring in batches; the ledger stage completes the callers' futures once
+ * per batch. Orders and fills travel through the rings as primitives and book orders are pooled,
+ * so steady-state matching does not allocate.
+ * <p>
+ * Per-instrument state is kept in arrays indexed by {@code instrumentId / shardCount}; instruments
+ * are listed and delisted through the ingress ring like any other command.
+ * <p>
+ * When journaling is enabled the ledger stage appends every accepted command and every trade to
+ * the shard's {@link Journal} before the batch is acknowledged, in the order the match stage
+ * processed them, and group-commits the journal at the end of each batch. Trades and order-state
+ * changes are handed to the {@link EventFeed} together with the batch's acknowledgements.
+ * <p>
+ * The match stage also keeps each instrument's {@link QuoteBuffer} current: at the end of every batch
+ * it rewrites the quotes of the instruments the batch traded in or changed the book of, so a burst of
+ * orders costs one quote update per instrument, and queues a change notification unless one for that
+ * instrument is still pending.
+ * <p>
+ * A snapshot is a command too: the match stage copies the books and the ledger stage the
+ * positions and journal position, so the captured state is exactly the state at that point of the
+ * command stream. Recovery loads snapshots and replays journaled commands through the same stages.
+ * <p>
+ * Each stage times one new order in {@link EngineMetrics#sampleEvery()}: the match stage its
+ * matching, the ledger stage its journaling and position updates. The other orders take no clock reads.
+ */
+public class EngineShard {
+    /** Account filter of {@link #massCancel} that matches every account. */
+    public static final int ANY_ACCOUNT = -1;
+
+    private static final VarHandle RESTING_ORDERS;
+    private static final VarHandle MATCH_LATENCY;
+    private static final VarHandle MATCHED_AT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            RESTING_ORDERS = lookup.findVarHandle(EngineShard.class, "restingOrders", long.class);
+            MATCH_LATENCY = lookup.findVarHandle(EngineShard.class, "matchLatency", long.class);
+            MATCHED_AT = lookup.findVarHandle(EngineShard.class, "matchedAt", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int index;
+    private final int shardCount;
+    private final int maxBatch;
+    private final RingBuffer<OrderCommand> ingress;
+    private final RingBuffer<ExecutionReport> executions;
+    private final StageRunner<OrderCommand> matchStage;
+    private final StageRunner<ExecutionReport> ledgerStage;
+
+    // Shared stores, safe for concurrent use
+    private final InstrumentRegistry registry;
+    private final AccountRegistry accounts;
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+    private final Journal journal; // null when journaling is disabled
+    private final EventFeed feed; // null when streaming is disabled
+    private final EngineMetrics metrics;
+    private final int sampleEvery;
+
+    // Match stage state
+    private OrderBook[] books = new OrderBook[16];
+    private long[] lastQuantity = new long[16];
+    private boolean[] quoteChanged = new boolean[16];
+    private int[] changedSlots = new int[16];
+    private int changedCount;
+    private final LongLongMap sellableQuantity = new LongLongMap(64); // By PositionBook.key
+    private final PreTradeRisk risk;
+    private final BookOrderPool orderPool;
+    private final FillHandler fillHandler = this::onFill;
+    private final Consumer<BookOrder> massCancelHandler = this::onMassCancelled;
+    private ExecutionReport currentReport;
+    private long placeCount;
+    private long restingOrders; // As of the last quote update
+    private long batchAcceptedAt; // When the batch's first order was accepted, 0 for none
+    private long matchLatency; // From acceptance to the end of the last batch with orders
+    private long matchedAt;
+
+    // Ledger stage state
+    private final PositionBook positions;
+    private boolean[] journaledAccounts = new boolean[64]; // Account name journaled in this generation
+    private long batchStart = -1;
+    private long ledgerCount;
+    private long journalNanos; // Of the order being timed
+    private long positionNanos;
+
+    public EngineShard(int index, int shardCount, int ringSize, int maxBatch, InstrumentRegistry registry,
+                       AccountRegistry accounts, OrderStore orderStore, TradeStore tradeStore, Journal journal,
+                       EventFeed feed, RiskLimits riskLimits, EngineMetrics metrics) {
+        this.index = index;
+        this.shardCount = shardCount;
+        this.positions = new PositionBook(shardCount);
+        this.risk = new PreTradeRisk(riskLimits, sellableQuantity, metrics.sampleEvery());
+        this.maxBatch = maxBatch;
+        this.registry = registry;
+        this.accounts = accounts;
+        this.orderStore = orderStore;
+        this.tradeStore = tradeStore;
+        this.journal = journal;
+        this.feed = feed;
+        this.metrics = metrics;
+        this.sampleEvery = metrics.sampleEvery();
+        this.orderPool = new BookOrderPool(ringSize);
+        this.ingress = new RingBuffer<>(ringSize, OrderCommand::new);
+        this.executions = new RingBuffer<>(ringSize, ExecutionReport::new);
+        this.matchStage = new StageRunner<>("match-" + index, ingress, this::onCommand, maxBatch);
+        this.ledgerStage = new StageRunner<>("ledger-" + index, executions, this::onExecution, maxBatch,
+                journal != null ? journal::syncIfDue : null);
+    }
+
+    public void start() {
+        ledgerStage.start();
+        matchStage.start();
+    }
+
+    public void stop() {
+        matchStage.stop();
+        ledgerStage.stop();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getIngressDepth() {
+        return ingress.getDepth();
+    }
+
+    public long getExecutionDepth() {
+        return executions.getDepth();
+    }
+
+    public int getRingSize() {
+        return ingress.getCapacity();
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public PreTradeRisk getRisk() {
+        return risk;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the match stage last started a batch or idle pass
+     */
+    public long getMatchHeartbeat() {
+        return matchStage.getHeartbeat();
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the ledger stage last started a batch or idle pass
+     */
+    public long getLedgerHeartbeat() {
+        return ledgerStage.getHeartbeat();
+    }
+
+    /**
+     * @return false if either stage's thread has died
+     */
+    public boolean isRunning() {
+        return matchStage.isAlive() && ledgerStage.isAlive();
+    }
+
+    /**
+     * Time the first order of the last batch with orders spent between being accepted and matched,
+     * queueing included. Taken once per batch.
+     */
+    public long getMatchLatencyNanos() {
+        return (long) MATCH_LATENCY.getOpaque(this);
+    }
+
+    /**
+     * When that batch was matched, epoch nanoseconds; 0 before the first order.
+     */
+    public long getMatchedAt() {
+        return (long) MATCHED_AT.getOpaque(this);
+    }
+
+    /**
+     * Orders resting on the shard's books as of the end of the last batch.
+     */
+    public long getRestingOrders() {
+        return (long) RESTING_ORDERS.getOpaque(this);
+    }
+
+    // Ingress: called from request threads
+
+    /**
+     * @return future completed with the order id once the order has been matched and booked
+     */
+    public CompletableFuture<Long> place(long orderId, int account, ListedInstrument instrument, Side side,
+                                         OrderStyle style, long price, long quantity, long timestamp) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = CommandType.PLACE;
+        command.orderId = orderId;
+        command.account = account;
+        command.instrument = instrument;
+        command.side = side;
+        command.style = style;
+        command.price = price;
+        command.quantity = quantity;
+        command.timestamp = timestamp;
+        command.orderFuture = future;
+        ingress.publish(sequence);
+        return future;
+    }
+
+    /**
+     * Enqueue several orders back to back. Each run of up to max-batch orders is claimed on the
+     * ingress ring in one step and published at once, so the match stage handles it as one batch.
+     * @return one future per order, in the order given, completed as by {@link #place}
+     */
+    public List<CompletableFuture<Long>> placeAll(List<NewOrder> orders) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(orders.size());
+        int run = Math.min(maxBatch, ingress.getCapacity());
+        for (int start = 0; start < orders.size(); start += run) {
+            int count = Math.min(run, orders.size() - start);
+            long last = ingress.next(count);
+            long first = last - count + 1;
+            for (int i = 0; i < count; i++) {
+                NewOrder order = orders.get(start + i);
+                CompletableFuture<Long> future = new CompletableFuture<>();
+                OrderCommand command = ingress.get(first + i);
+                command.type = CommandType.PLACE;
+                command.orderId = order.orderId();
+                command.account = order.account();
+                command.instrument = order.instrument();
+                command.side = order.side();
+                command.style = order.style();
+                command.price = order.price();
+                command.quantity = order.quantity();
+                command.timestamp = order.timestamp();
+                command.orderFuture = future;
+                futures.add(future);
+            }
+            ingress.publish(first, last);
+        }
+        return futures;
+    }
+
+    public CompletableFuture<Long> cancel(long orderId, ListedInstrument instrument) {
+        return submit(CommandType.CANCEL, orderId, instrument);
+    }
+
+    /**
+     * Change a resting order's price or total quantity. Lowering only the quantity keeps the order's
+     * place in its level; a new price or a larger quantity sends it to the back of its level, and a
+     * new price may match it first, like an order placed at that price.
+     * @param price new price, or 0 to keep it
+     * @param quantity new total quantity, filled part included, or 0 to keep it
+     * @param timestamp when the amendment was accepted, epoch nanoseconds
+     * @return future completed with the order id once the amendment has been matched and booked
+     */
+    public CompletableFuture<Long> amend(long orderId, ListedInstrument instrument, long price, long quantity,
+                                         long timestamp) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = CommandType.AMEND;
+        command.orderId = orderId;
+        command.instrument = instrument;
+        command.price = price;
+        command.quantity = quantity;
+        command.timestamp = timestamp;
+        command.orderFuture = future;
+        ingress.publish(sequence);
+        return future;
+    }
+
+    /**
+     * Cancel every resting order matching the filters, in a single pass over each book of the shard.
+     * @param instrument only this instrument's orders, or null for every book on the shard
+     * @param side null for both sides
+     * @param account {@link #ANY_ACCOUNT} for every account
+     * @return future completed with the number of orders cancelled once they have been journaled
+     */
+    public CompletableFuture<Long> massCancel(ListedInstrument instrument, Side side, int account) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = CommandType.MASS_CANCEL;
+        command.instrument = instrument;
+        command.side = side;
+        command.account = account;
+        command.orderFuture = future;
+        ingress.publish(sequence);
+        return future;
+    }
+
+    /**
+     * Create the instrument's book on this shard.
+     */
+    public CompletableFuture<Long> listInstrument(ListedInstrument instrument) {
+        return submit(CommandType.LIST_INSTRUMENT, 0, instrument);
+    }
+
+    /**
+     * Drop the instrument's book, cancelling every order still resting in it. Positions are kept.
+     */
+    public CompletableFuture<Long> delistInstrument(ListedInstrument instrument) {
+        return submit(CommandType.DELIST_INSTRUMENT, 0, instrument);
+    }
+
+    /**
+     * Add the account's holdings (quantity > 0) in this shard's instruments, at the values the
+     * ledger keeps marked to the last trade. Reads the positions directly: walks only the
+     * account's positions, takes no lock and does not go through the rings.
+     */
+    public void holdings(int account, List<PortfolioHolding> into) {
+        positions.read(account, (instrumentId, quantity, costBasis, marketValue, realizedPnl) -> {
+            if (quantity <= 0) {
+                return;
+            }
+            PortfolioHolding holding = new PortfolioHolding(registry.get(instrumentId).getSymbol());
+            holding.setQuantity(FixedPoint.toDouble(quantity));
+            holding.setAveragePrice(FixedPoint.toDouble(FixedPoint.divide(costBasis, quantity)));
+            holding.setCurrentValue(FixedPoint.toDouble(marketValue));
+            holding.setUnrealizedPnl(FixedPoint.toDouble(marketValue - costBasis));
+            holding.setRealizedPnl(FixedPoint.toDouble(realizedPnl));
+            into.add(holding);
+        });
+    }
+
+    /**
+     * Add the account's totals in this shard's instruments to {@code totals}: market value, cost
+     * basis and realized PnL, in fixed point. Reads the running totals; does not visit positions.
+     */
+    public void totals(int account, long[] totals) {
+        positions.readTotals(account, totals);
+    }
+
+    /**
+     * Capture the shard's state at this point of its command stream.
+     */
+    public CompletableFuture<ShardSnapshot> snapshot() {
+        CompletableFuture<ShardSnapshot> future = new CompletableFuture<>();
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = CommandType.SNAPSHOT;
+        command.snapshot = new ShardSnapshot(index);
+        command.snapshotFuture = future;
+        ingress.publish(sequence);
+        return future;
+    }
+
+    /**
+     * Load books and positions from a snapshot. Recovery only.
+     */
+    public CompletableFuture<Long> restore(ShardSnapshot snapshot) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = CommandType.RESTORE;
+        command.snapshot = snapshot;
+        command.orderFuture = future;
+        ingress.publish(sequence);
+        return future;
+    }
+
+    /**
+     * @return future completed once everything enqueued before it is journaled and fsynced
+     */
+    public CompletableFuture<Long> syncJournal() {
+        return submit(CommandType.SYNC_JOURNAL, 0, null);
+    }
+
+    /**
+     * Recovery: enqueue a journaled command so it rebuilds books and order state without being
+     * journaled again. Trades are not re-recorded from matching; REPLAY_TRADE restores them.
+     */
+    void replay(CommandType type, long orderId, int account, ListedInstrument instrument, Side side,
+                OrderStyle style, long price, long quantity, long timestamp, long tradeId, long contraOrderId) {
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = type;
+        command.replay = true;
+        command.orderId = orderId;
+        command.account = account;
+        command.instrument = instrument;
+        command.side = side;
+        command.style = style;
+        command.price = price;
+        command.quantity = quantity;
+        command.timestamp = timestamp;
+        command.tradeId = tradeId;
+        command.contraOrderId = contraOrderId;
+        ingress.publish(sequence);
+    }
+
+    private CompletableFuture<Long> submit(CommandType type, long orderId, ListedInstrument instrument) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        long sequence = ingress.next();
+        OrderCommand command = ingress.get(sequence);
+        command.type = type;
+        command.orderId = orderId;
+        command.instrument = instrument;
+        command.orderFuture = future;
+        ingress.publish(sequence);
+        return future;
+    }
+
+    private int slot(ListedInstrument instrument) {
+        return instrument.getId() / shardCount;
+    }
+
+    // Match stage
+
+    private void onCommand(OrderCommand command, long sequence, boolean endOfBatch) {
+        long reportSequence = executions.next();
+        ExecutionReport report = executions.get(reportSequence);
+        report.type = command.type;
+        report.orderId = command.orderId;
+        report.account = command.account;
+        report.instrument = command.instrument;
+        report.side = command.side;
+        report.style = command.style;
+        report.price = command.price;
+        report.quantity = command.quantity;
+        report.timestamp = command.timestamp;
+        report.replay = command.replay;
+        report.tradeId = command.tradeId;
+        report.snapshot = command.snapshot;
+        report.orderFuture = command.orderFuture;
+        report.snapshotFuture = command.snapshotFuture;
+        try {
+            switch (command.type) {
+                case PLACE -> {
+                    if (batchAcceptedAt == 0 && !command.replay) {
+                        batchAcceptedAt = command.timestamp;
+                    }
+                    if (sampleEvery > 0 && !command.replay && ++placeCount % sampleEvery == 0) {
+                        timeOrder(command, report);
+                    } else {
+                        executeOrder(command, report);
+                    }
+                }
+                case CANCEL -> cancelOrder(command);
+                case AMEND -> amendOrder(command, report);
+                case MASS_CANCEL -> massCancel(command, report);
+                case LIST_INSTRUMENT -> {
+                    listBook(command.instrument);
+                    // The ledger marks the instrument's positions at this price
+                    report.price = command.instrument.getLastPrice();
+                }
+                case DELIST_INSTRUMENT -> delistBook(command.instrument);
+                case SNAPSHOT -> captureBooks(command.snapshot);
+                case RESTORE -> restoreBooks(command.snapshot);
+                // The ledger takes both accounts from the order store
+                case REPLAY_TRADE -> report.addFill(command.contraOrderId, 0, command.quantity, command.price);
+                case SYNC_JOURNAL -> {
+                    // Answered by the ledger stage
+                }
+            }
+        } catch (RuntimeException e) {
+            report.error = e;
+        }
+        command.clear();
+        executions.publish(reportSequence);
+        if (endOfBatch) {
+            updateQuotes();
+            if (batchAcceptedAt != 0) {
+                long now = EngineClock.epochNanos();
+                MATCH_LATENCY.setOpaque(this, now - batchAcceptedAt);
+                MATCHED_AT.setOpaque(this, now);
+                batchAcceptedAt = 0;
+            }
+        }
+    }
+
+    private int bookSlot(ListedInstrument instrument) {
+        int slot = slot(instrument);
+        if (slot >= books.length) {
+            int capacity = Math.max(books.length << 1, slot + 1);
+            books = Arrays.copyOf(books, capacity);
+            lastQuantity = Arrays.copyOf(lastQuantity, capacity);
+            quoteChanged = Arrays.copyOf(quoteChanged, capacity);
+            changedSlots = Arrays.copyOf(changedSlots, capacity);
+        }
+        return slot;
+    }
+
+    private void quoteChanged(int slot) {
+        if (!quoteChanged[slot]) {
+            quoteChanged[slot] = true;
+            changedSlots[changedCount++] = slot;
+        }
+    }
+
+    private void updateQuotes() {
+        if (changedCount == 0) {
+            return;
+        }
+        boolean streaming = feed != null && feed.isActive();
+        long timestamp = EngineClock.epochNanos();
+        long resting = restingOrders;
+        for (int i = 0; i < changedCount; i++) {
+            int slot = changedSlots[i];
+            quoteChanged[slot] = false;
+            ListedInstrument instrument = registry.get(slot * shardCount + index);
+            QuoteBuffer quote = instrument.getQuote();
+            resting -= quote.getRestingOrders();
+            quote.update(books[slot], instrument.getLastPrice(), lastQuantity[slot], timestamp);
+            resting += quote.getRestingOrders();
+            if (streaming && quote.markPending()) {
+                feed.publishQuote(instrument);
+            }
+        }
+        changedCount = 0;
+        RESTING_ORDERS.setOpaque(this, resting);
+    }
+
+    private void listBook(ListedInstrument instrument) {
+        int slot = bookSlot(instrument);
+        if (books[slot] == null) {
+            books[slot] = new OrderBook(instrument);
+        }
+        quoteChanged(slot);
+    }
+
+    private void delistBook(ListedInstrument instrument) {
+        int slot = slot(instrument);
+        OrderBook book = slot < books.length ? books[slot] : null;
+        if (book == null) {
+            return;
+        }
+        boolean streaming = feed != null && feed.isActive();
+        book.clear(order -> {
+            orderStore.update(order.orderId, OrderStatus.CANCELLED, order.filledQuantity);
+            risk.resting(order.account, order.instrument.getId(), order.side, -order.getRemainingQuantity());
+            if (streaming) {
+                feed.publishOrder(order.orderId);
+            }
+            orderPool.release(order);
+        });
+        books[slot] = null;
+        quoteChanged(slot);
+    }
+
+    private void captureBooks(ShardSnapshot snapshot) {
+        for (int slot = 0; slot < books.length; slot++) {
+            OrderBook book = books[slot];
+            if (book == null && lastQuantity[slot] == 0) {
+                continue;
+            }
+            List<RestingOrder> orders = new ArrayList<>();
+            if (book != null) {
+                book.forEachResting(order -> orders.add(new RestingOrder(order.orderId, order.account, order.side,
+                        order.style, order.price, order.quantity, order.filledQuantity)));
+            }
+            snapshot.getBooks().add(new BookSnapshot(slot * shardCount + index, book != null,
+                    registry.get(slot * shardCount + index).getLastPrice(), lastQuantity[slot], orders));
+        }
+    }
+
+    private void restoreBooks(ShardSnapshot snapshot) {
+        for (BookSnapshot saved : snapshot.getBooks()) {
+            ListedInstrument instrument = registry.get(saved.instrumentId());
+            int slot = bookSlot(instrument);
+            // The registry's copy of the last price may be newer than the cut; this one is exact
+            instrument.setLastPrice(saved.lastPrice());
+            lastQuantity[slot] = saved.lastQuantity();
+            quoteChanged(slot);
+            if (!saved.listed()) {
+                continue;
+            }
+            listBook(instrument);
+            for (RestingOrder resting : saved.orders()) {
+                BookOrder order = orderPool.acquire();
+                order.orderId = resting.orderId();
+                order.account = resting.account();
+                order.instrument = instrument;
+                order.side = resting.side();
+                order.style = resting.style();
+                order.price = resting.price();
+                order.quantity = resting.quantity();
+                order.filledQuantity = resting.filledQuantity();
+                books[slot].rest(order);
+                risk.resting(order.account, instrument.getId(), order.side, order.getRemainingQuantity());
+                // The stored row may be newer than the cut; the book is exact
+                orderStore.update(order.orderId,
+                        order.filledQuantity > 0 ? OrderStatus.PARTIALLY_FILLED : OrderStatus.PLACED,
+                        order.filledQuantity);
+            }
+        }
+        // Sellable quantities equal the positions at the cut
+        for (PositionSnapshot saved : snapshot.getPositions()) {
+            sellableQuantity.put(PositionBook.key(saved.account(), saved.instrumentId()), saved.quantity());
+        }
+    }
+
+    private OrderBook bookFor(ListedInstrument instrument) {
+        int slot = slot(instrument);
+        return slot < books.length ? books[slot] : null;
+    }
+
+    // Matching as seen by the metrics: a rejection is recorded without an outcome
+    private void timeOrder(OrderCommand command, ExecutionReport report) {
+        long start = System.nanoTime();
+        try {
+            executeOrder(command, report);
+        } catch (RuntimeException e) {
+            metrics.recordMatching(command.instrument, null, System.nanoTime() - start);
+            throw e;
+        }
+        long nanos = System.nanoTime() - start;
+        metrics.recordMatching(command.instrument, orderStore.getStatus(command.orderId), nanos);
+    }
+
+    private void executeOrder(OrderCommand command, ExecutionReport report) {
+        OrderBook book = bookFor(command.instrument);
+        if (book == null) {
+            // Delisted after the order was validated
+            orderStore.update(command.orderId, OrderStatus.CANCELLED, 0);
+            throw new IllegalArgumentException("Instrument " + command.instrument.getSymbol() + " is not listed");
+        }
+        if (!command.replay) {
+            RiskRule rule = risk.check(command.account, command.instrument, command.side, command.style,
+                    command.price, command.quantity, command.timestamp);
+            if (rule != null) {
+                orderStore.update(command.orderId, OrderStatus.CANCELLED, 0);
+                report.riskRejected = true;
+                throw new IllegalArgumentException("Order rejected by risk check " + rule + ": " + risk.reason(rule));
+            }
+        }
+
+        BookOrder order = orderPool.acquire();
+        order.orderId = command.orderId;
+        order.account = command.account;
+        order.instrument = command.instrument;
+        order.side = command.side;
+        order.style = command.style;
+        order.price = command.price;
+        order.quantity = command.quantity;
+
+        currentReport = report;
+        book.match(order, fillHandler);
+        currentReport = null;
+        quoteChanged(slot(order.instrument));
+
+        OrderStatus status;
+        if (order.getRemainingQuantity() == 0) {
+            status = OrderStatus.EXECUTED;
+        } else if (order.style == OrderStyle.LIMIT) {
+            book.rest(order);
+            risk.resting(order.account, order.instrument.getId(), order.side, order.getRemainingQuantity());
+            orderStore.update(order.orderId,
+                    order.filledQuantity > 0 ? OrderStatus.PARTIALLY_FILLED : OrderStatus.PLACED,
+                    order.filledQuantity);
+            return;
+        } else {
+            status = executeAtMarket(order, report);
+        }
+        orderStore.update(order.orderId, status, order.filledQuantity);
+        orderPool.release(order);
+    }
+
+    // MARKET remainder: no resting liquidity left, execute at the current market price
+    private OrderStatus executeAtMarket(BookOrder order, ExecutionReport report) {
+        long quantity = order.getRemainingQuantity();
+        long key = PositionBook.key(order.account, order.instrument.getId());
+        if (order.side == Side.SELL && sellableQuantity.get(key, 0) < quantity) {
+            // Live sells beyond the holdings are rejected up front by the HOLDINGS rule, so this only runs
+            // when replaying orders journaled before that rule existed, which cancelled the shortfall
+            return OrderStatus.CANCELLED;
+        }
+
+        report.addFill(0, 0, quantity, order.instrument.getLastPrice());
+        order.filledQuantity += quantity;
+        moveSellable(order.account, order.instrument, order.side, quantity);
+        lastQuantity[slot(order.instrument)] = quantity;
+        return OrderStatus.EXECUTED;
+    }
+
+    private void onFill(BookOrder aggressor, BookOrder resting, long quantity, long price) {
+        currentReport.addFill(resting.orderId, resting.account, quantity, price);
+        risk.resting(resting.account, resting.instrument.getId(), resting.side, -quantity);
+        if (resting.account != aggressor.account) {
+            moveSellable(aggressor.account, aggressor.instrument, aggressor.side, quantity);
+            moveSellable(resting.account, aggressor.instrument, resting.side, quantity);
+        }
+        aggressor.instrument.setLastPrice(price);
+        lastQuantity[slot(aggressor.instrument)] = quantity;
+        if (resting.getRemainingQuantity() == 0) {
+            orderStore.update(resting.orderId, OrderStatus.EXECUTED, resting.filledQuantity);
+            orderPool.release(resting);
+        } else {
+            orderStore.update(resting.orderId, OrderStatus.PARTIALLY_FILLED, resting.filledQuantity);
+        }
+    }
+
+    // Mirrors how the ledger's positions move, so it equals their quantity once the ledger catches up
+    private void moveSellable(int account, ListedInstrument instrument, Side side, long quantity) {
+        long key = PositionBook.key(account, instrument.getId());
+        long held = sellableQuantity.get(key, 0);
+        sellableQuantity.put(key, side == Side.BUY ? held + quantity : Math.max(0, held - quantity));
+    }
+
+    private void cancelOrder(OrderCommand command) {
+        OrderBook book = bookFor(command.instrument);
+        BookOrder order = book == null ? null : book.cancel(command.orderId);
+        if (order == null) {
+            // Commands are processed in order, so anything not resting has already completed
+            throw new IllegalArgumentException("Cannot cancel order with status "
+                    + orderStore.getStatus(command.orderId));
+        }
+        orderStore.update(order.orderId, OrderStatus.CANCELLED, order.filledQuantity);
+        risk.resting(order.account, order.instrument.getId(), order.side, -order.getRemainingQuantity());
+        orderPool.release(order);
+        quoteChanged(slot(command.instrument));
+    }
+
+    private void massCancel(OrderCommand command, ExecutionReport report) {
+        currentReport = report;
+        if (command.instrument != null) {
+            int slot = slot(command.instrument);
+            if (slot < books.length) {
+                cancelWhere(slot, command.side, command.account);
+            }
+        } else {
+            for (int slot = 0; slot < books.length; slot++) {
+                cancelWhere(slot, command.side, command.account);
+            }
+        }
+        currentReport = null;
+    }
+
+    private void cancelWhere(int slot, Side side, int account) {
+        OrderBook book = books[slot];
+        if (book != null && book.cancelWhere(side, account, massCancelHandler) > 0) {
+            quoteChanged(slot);
+        }
+    }
+
+    private void onMassCancelled(BookOrder order) {
+        orderStore.update(order.orderId, OrderStatus.CANCELLED, order.filledQuantity);
+        risk.resting(order.account, order.instrument.getId(), order.side, -order.getRemainingQuantity());
+        currentReport.addCancelled(order.orderId, order.instrument.getId());
+        orderPool.release(order);
+    }
+
+    private void amendOrder(OrderCommand command, ExecutionReport report) {
+        OrderBook book = bookFor(command.instrument);
+        BookOrder order = book == null ? null : book.getRestingOrder(command.orderId);
+        if (order == null) {
+            throw new IllegalArgumentException("Cannot amend order with status "
+                    + orderStore.getStatus(command.orderId));
+        }
+        long price = command.price != 0 ? command.price : order.price;
+        long quantity = command.quantity != 0 ? command.quantity : order.quantity;
+        if (quantity <= order.filledQuantity) {
+            throw new IllegalArgumentException("quantity must be greater than the filled quantity "
+                    + FixedPoint.toDouble(order.filledQuantity));
+        }
+        // The ledger journals and streams the amendment as the order's new terms
+        report.account = order.account;
+        report.side = order.side;
+        report.style = order.style;
+        report.price = price;
+        report.quantity = quantity;
+        int instrumentId = order.instrument.getId();
+        quoteChanged(slot(order.instrument));
+
+        if (price == order.price && quantity <= order.quantity) {
+            risk.resting(order.account, instrumentId, order.side, quantity - order.quantity);
+            book.reduce(order, quantity);
+            orderStore.amend(order.orderId, price, quantity);
+            return;
+        }
+
+        // Checked as an order for what would rest after the amendment
+        long remaining = order.getRemainingQuantity();
+        risk.resting(order.account, instrumentId, order.side, -remaining);
+        if (!command.replay) {
+            RiskRule rule = risk.check(order.account, order.instrument, order.side, order.style, price,
+                    quantity - order.filledQuantity, command.timestamp);
+            if (rule != null) {
+                risk.resting(order.account, instrumentId, order.side, remaining);
+                throw new IllegalArgumentException("Amendment rejected by risk check " + rule + ": "
+                        + risk.reason(rule));
+            }
+        }
+        book.cancel(order.orderId);
+        order.price = price;
+        order.quantity = quantity;
+        orderStore.amend(order.orderId, price, quantity);
+        currentReport = report;
+        book.match(order, fillHandler);
+        currentReport = null;
+        if (order.getRemainingQuantity() == 0) {
+            orderStore.update(order.orderId, OrderStatus.EXECUTED, order.filledQuantity);
+            orderPool.release(order);
+            return;
+        }
+        book.rest(order);
+        risk.resting(order.account, instrumentId, order.side, order.getRemainingQuantity());
+        orderStore.update(order.orderId,
+                order.filledQuantity > 0 ? OrderStatus.PARTIALLY_FILLED : OrderStatus.PLACED, order.filledQuantity);
+    }
+
+    // Ledger + publish stage
+
+    private void onExecution(ExecutionReport report, long sequence, boolean endOfBatch) {
+        if (batchStart < 0) {
+            batchStart = sequence;
+        }
+        boolean timed = sampleEvery > 0 && report.type == CommandType.PLACE && !report.replay
+                && ++ledgerCount % sampleEvery == 0;
+        if (journal != null && !report.replay) {
+            long start = timed ? System.nanoTime() : 0;
+            journalCommand(report);
+            if (timed) {
+                journalNanos += System.nanoTime() - start;
+            }
+        }
+        if (report.error == null) {
+            switch (report.type) {
+                case SNAPSHOT -> capturePositions(report.snapshot);
+                case RESTORE -> restorePositions(report.snapshot);
+                case LIST_INSTRUMENT -> positions.mark(report.instrument.getId(), report.price);
+                case REPLAY_TRADE -> replayTrade(report);
+                case SYNC_JOURNAL -> {
+                    if (journal != null) {
+                        journal.sync();
+                    }
+                }
+                default -> {
+                    if (report.fillCount > 0 && !report.replay) {
+                        bookFills(report, timed);
+                    }
+                }
+            }
+        }
+        if (timed) {
+            recordTimings(report);
+        }
+
+        if (endOfBatch) {
+            positions.applyTicks();
+            if (journal != null) {
+                journal.syncIfDue();
+            }
+            publish(batchStart, sequence);
+            batchStart = -1;
+        }
+    }
+
+    private void journalCommand(ExecutionReport report) {
+        switch (report.type) {
+            // Rejected placements are journaled too: the order exists in the store and replays to the same outcome
+            case PLACE -> {
+                journalAccount(report.account);
+                if (report.riskRejected) {
+                    // Limits may differ on restart, so the outcome is journaled rather than replayed
+                    journal.appendOrderRejected(report.orderId, report.instrument.getId(), report.side, report.style,
+                            report.price, report.quantity, report.timestamp, report.account);
+                } else {
+                    journal.appendOrderPlaced(report.orderId, report.instrument.getId(), report.side,
+                            report.style, report.price, report.quantity, report.timestamp, report.account);
+                }
+            }
+            case CANCEL -> {
+                if (report.error == null) {
+                    journal.appendOrderCancelled(report.orderId, report.instrument.getId());
+                }
+            }
+            case AMEND -> {
+                if (report.error == null) {
+                    journal.appendOrderAmended(report.orderId, report.instrument.getId(), report.price,
+                            report.quantity);
+                }
+            }
+            // One record per order, so each replays on its instrument's shard whatever the shard count
+            case MASS_CANCEL -> {
+                for (int i = 0; i < report.cancelCount; i++) {
+                    journal.appendOrderCancelled(report.cancelledOrderIds[i], report.cancelledInstrumentIds[i]);
+                }
+            }
+            case LIST_INSTRUMENT -> journal.appendInstrumentListed(report.instrument);
+            case DELIST_INSTRUMENT -> journal.appendInstrumentDelisted(report.instrument.getId());
+            default -> {
+            }
+        }
+    }
+
+    // Each generation names the accounts it uses, so it replays without older generations
+    private void journalAccount(int account) {
+        if (account >= journaledAccounts.length) {
+            journaledAccounts = Arrays.copyOf(journaledAccounts, Math.max(journaledAccounts.length << 1, account + 1));
+        }
+        if (!journaledAccounts[account]) {
+            journal.appendAccountOpened(account, accounts.name(account));
+            journaledAccounts[account] = true;
+        }
+    }
+
+    private void capturePositions(ShardSnapshot snapshot) {
+        positions.capture(snapshot.getPositions());
+        if (journal != null) {
+            // Nothing after this point has been journaled yet: the journal tail starts here
+            snapshot.setJournalPosition(journal.getGeneration(), journal.getSegment(), journal.getPosition());
+        }
+    }
+
+    private void restorePositions(ShardSnapshot snapshot) {
+        for (BookSnapshot saved : snapshot.getBooks()) {
+            positions.mark(saved.instrumentId(), saved.lastPrice());
+        }
+        for (PositionSnapshot saved : snapshot.getPositions()) {
+            positions.restore(saved.account(), saved.instrumentId(), saved.quantity(), saved.costBasis(),
+                    saved.realizedPnl());
+        }
+    }
+
+    private void replayTrade(ExecutionReport report) {
+        long contraOrderId = report.fillContraOrderIds[0];
+        tradeStore.restore(report.tradeId, report.orderId, contraOrderId, report.instrument, report.side,
+                report.fillPrices[0], report.fillQuantities[0], report.timestamp);
+        applyFill(orderStore.getAccount(report.orderId), contraOrderId,
+                contraOrderId != 0 ? orderStore.getAccount(contraOrderId) : 0, report.instrument, report.side,
+                report.fillQuantities[0], report.fillPrices[0]);
+        positions.tick(report.instrument.getId(), report.fillPrices[0]);
+    }
+
+    private void recordTimings(ExecutionReport report) {
+        if (journal != null) {
+            metrics.recordJournaling(report.instrument, journalNanos);
+        }
+        if (report.fillCount > 0 && report.error == null) {
+            metrics.recordPositions(report.instrument, positionNanos);
+        }
+        journalNanos = 0;
+        positionNanos = 0;
+    }
+
+    private void bookFills(ExecutionReport report, boolean timed) {
+        long timestamp = EngineClock.epochNanos();
+        for (int i = 0; i < report.fillCount; i++) {
+            long tradeId = tradeStore.append(report.orderId, report.fillContraOrderIds[i], report.instrument,
+                    report.side, report.fillPrices[i], report.fillQuantities[i], timestamp);
+            report.fillTradeIds[i] = tradeId;
+            long start = timed ? System.nanoTime() : 0;
+            if (journal != null) {
+                journal.appendTrade(tradeId, report.orderId, report.fillContraOrderIds[i], report.instrument.getId(),
+                        report.side, report.fillPrices[i], report.fillQuantities[i], timestamp);
+            }
+            long journaled = timed ? System.nanoTime() : 0;
+            applyFill(report.account, report.fillContraOrderIds[i], report.fillContraAccounts[i], report.instrument,
+                    report.side, report.fillQuantities[i], report.fillPrices[i]);
+            if (timed) {
+                journalNanos += journaled - start;
+                positionNanos += System.nanoTime() - journaled;
+            }
+        }
+        positions.tick(report.instrument.getId(), report.fillPrices[report.fillCount - 1]);
+    }
+
+    private void applyFill(int account, long contraOrderId, int contraAccount, ListedInstrument instrument,
+                           Side side, long quantity, long price) {
+        if (contraOrderId == 0) {
+            positions.apply(account, instrument.getId(), side, quantity, price);
+        } else if (contraAccount != account) {
+            positions.apply(account, instrument.getId(), side, quantity, price);
+            positions.apply(contraAccount, instrument.getId(), side.opposite(), quantity, price);
+        }
+    }
+
+    private void publish(long first, long last) {
+        boolean streaming = feed != null && feed.isActive();
+        for (long sequence = first; sequence <= last; sequence++) {
+            ExecutionReport report = executions.get(sequence);
+            if (streaming && !report.replay) {
+                stream(report);
+            }
+            if (report.type == CommandType.SNAPSHOT) {
+                report.snapshotFuture.complete(report.snapshot);
+            } else if (report.orderFuture == null) {
+                // Replayed commands are not awaited
+            } else if (report.error != null) {
+                report.orderFuture.completeExceptionally(report.error);
+            } else if (report.type == CommandType.MASS_CANCEL) {
+                report.orderFuture.complete((long) report.cancelCount);
+            } else {
+                report.orderFuture.complete(report.orderId);
+            }
+            report.clear();
+        }
+    }
+
+    // Trades first, then the orders they changed
+    private void stream(ExecutionReport report) {
+        if (report.type == CommandType.PLACE || report.type == CommandType.AMEND && report.error == null) {
+            for (int i = 0; i < report.fillCount; i++) {
+                feed.publishTrade(report.fillTradeIds[i]);
+                if (report.fillContraOrderIds[i] != 0) {
+                    feed.publishOrder(report.fillContraOrderIds[i]);
+                }
+            }
+            feed.publishOrder(report.orderId);
+        } else if (report.type == CommandType.CANCEL && report.error == null) {
+            feed.publishOrder(report.orderId);
+        } else if (report.type == CommandType.MASS_CANCEL) {
+            for (int i = 0; i < report.cancelCount; i++) {
+                feed.publishOrder(report.cancelledOrderIds[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.trading.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hand-off of order-state changes, trades and quote changes from the shards to stream subscribers.
+ * <p>
+ * Shards publish only ids; the dispatcher thread reads the current state from the stores, so
+ * several changes to one order that are still queued collapse into its latest state. A quote
+ * change is queued only if none is pending for the instrument yet (see {@link QuoteBuffer}), so
+ * quotes take at most one slot per instrument however fast the book moves. Publishing
+ * never waits: when the dispatcher falls behind, events are dropped and counted instead of
+ * back-pressuring matching, and nothing is published at all while no one is subscribed.
+ */
+public class EventFeed {
+    public static final byte ORDER = 1;
+    public static final byte TRADE = 2;
+    public static final byte QUOTE = 3;
+
+    /**
+     * Dispatcher-side callback.
+     */
+    public interface Listener {
+        void onOrder(long orderId);
+
+        void onTrade(long tradeId);
+
+        void onQuote(ListedInstrument instrument);
+    }
+
+    private final RingBuffer<Event> ring;
+    private final int maxBatch;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean active;
+    private StageRunner<Event> dispatcher;
+
+    public EventFeed(int ringSize, int maxBatch) {
+        this.ring = new RingBuffer<>(ringSize, Event::new);
+        this.maxBatch = maxBatch;
+    }
+
+    public synchronized void start(Listener listener) {
+        dispatcher = new StageRunner<>("feed-dispatcher", ring, (event, sequence, endOfBatch) -> {
+            if (event.type == ORDER) {
+                listener.onOrder(event.id);
+            } else if (event.type == TRADE) {
+                listener.onTrade(event.id);
+            } else {
+                ListedInstrument instrument = event.instrument;
+                event.instrument = null;
+                // Cleared before reading, so a change made while the listener runs queues a new event
+                instrument.getQuote().clearPending();
+                listener.onQuote(instrument);
+            }
+        }, maxBatch);
+        dispatcher.start();
+    }
+
+    public synchronized void stop() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+            dispatcher = null;
+        }
+    }
+
+    /**
+     * Switched on by the subscriber side while anyone is listening.
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Events dropped because the dispatcher was behind.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getDepth() {
+        return ring.getDepth();
+    }
+
+    void publishOrder(long orderId) {
+        publish(ORDER, orderId);
+    }
+
+    void publishTrade(long tradeId) {
+        publish(TRADE, tradeId);
+    }
+
+    void publishQuote(ListedInstrument instrument) {
+        if (!publish(QUOTE, instrument.getId(), instrument)) {
+            // Let the next change try again
+            instrument.getQuote().clearPending();
+        }
+    }
+
+    private void publish(byte type, long id) {
+        publish(type, id, null);
+    }
+
+    private boolean publish(byte type, long id, ListedInstrument instrument) {
+        long sequence = ring.tryNext();
+        if (sequence < 0) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        Event event = ring.get(sequence);
+        event.type = type;
+        event.id = id;
+        event.instrument = instrument;
+        ring.publish(sequence);
+        return true;
+    }
+
+    private static final class Event {
+        byte type;
+        long id;
+        ListedInstrument instrument; // Quote events only
+    }
+}
@@ -0,0 +1,14 @@
+package com.trading.engine;
+
+/**
+ * Consumer callback for entries drained from a {@link RingBuffer}.
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+    /**
+     * @param event preallocated entry, only valid for the duration of the call
+     * @param sequence sequence the entry was published at
+     * @param endOfBatch true for the last entry of the current drained batch
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,86 @@
+package com.trading.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Execution ring entry: the outcome of one command, handed from the matching stage to the
+ * ledger stage. Fills, and the orders a mass cancel removed, are kept in reusable primitive arrays.
+ */
+public class ExecutionReport {
+    CommandType type;
+    long orderId;
+    int account;
+    ListedInstrument instrument;
+    Side side;
+    OrderStyle style;
+    long price;
+    long quantity;
+    long timestamp;
+    boolean replay;
+    long tradeId;
+    ShardSnapshot snapshot;
+    RuntimeException error;
+    boolean riskRejected;
+    CompletableFuture<Long> orderFuture;
+    CompletableFuture<ShardSnapshot> snapshotFuture;
+
+    int fillCount;
+    long[] fillPrices = new long[8];
+    long[] fillQuantities = new long[8];
+    long[] fillContraOrderIds = new long[8]; // 0 for fills at the market price
+    int[] fillContraAccounts = new int[8];
+    long[] fillTradeIds = new long[8]; // assigned by the ledger stage
+
+    int cancelCount;
+    long[] cancelledOrderIds = new long[8];
+    int[] cancelledInstrumentIds = new int[8];
+
+    void addFill(long contraOrderId, int contraAccount, long quantity, long price) {
+        if (fillCount == fillPrices.length) {
+            int capacity = fillCount << 1;
+            fillPrices = Arrays.copyOf(fillPrices, capacity);
+            fillQuantities = Arrays.copyOf(fillQuantities, capacity);
+            fillContraOrderIds = Arrays.copyOf(fillContraOrderIds, capacity);
+            fillContraAccounts = Arrays.copyOf(fillContraAccounts, capacity);
+            fillTradeIds = Arrays.copyOf(fillTradeIds, capacity);
+        }
+        fillPrices[fillCount] = price;
+        fillQuantities[fillCount] = quantity;
+        fillContraOrderIds[fillCount] = contraOrderId;
+        fillContraAccounts[fillCount] = contraAccount;
+        fillCount++;
+    }
+
+    void addCancelled(long orderId, int instrumentId) {
+        if (cancelCount == cancelledOrderIds.length) {
+            int capacity = cancelCount << 1;
+            cancelledOrderIds = Arrays.copyOf(cancelledOrderIds, capacity);
+            cancelledInstrumentIds = Arrays.copyOf(cancelledInstrumentIds, capacity);
+        }
+        cancelledOrderIds[cancelCount] = orderId;
+        cancelledInstrumentIds[cancelCount] = instrumentId;
+        cancelCount++;
+    }
+
+    void clear() {
+        type = null;
+        orderId = 0;
+        account = 0;
+        instrument = null;
+        side = null;
+        style = null;
+        price = 0;
+        quantity = 0;
+        timestamp = 0;
+        replay = false;
+        tradeId = 0;
+        snapshot = null;
+        error = null;
+        riskRejected = false;
+        orderFuture = null;
+        snapshotFuture = null;
+        fillCount = 0;
+        cancelCount = 0;
+    }
+}
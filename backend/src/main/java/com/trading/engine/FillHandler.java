@@ -0,0 +1,11 @@
+package com.trading.engine;
+
+/**
+ * Receives one callback per match produced by an {@link OrderBook}.
+ * A resting order that has been completely filled is already unlinked from the book when the
+ * callback runs, so the handler may recycle it.
+ */
+@FunctionalInterface
+public interface FillHandler {
+    void onFill(BookOrder aggressor, BookOrder resting, long quantity, long price);
+}
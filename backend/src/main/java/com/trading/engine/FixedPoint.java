@@ -0,0 +1,79 @@
+package com.trading.engine;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Prices, quantities and amounts inside the engine are longs scaled by {@link #SCALE}.
+ * Arithmetic here is exact up to a final half-up rounding to the scale, does not allocate on the
+ * common path and throws {@link ArithmeticException} instead of silently overflowing.
+ * Conversion to and from double only happens at the REST edge.
+ */
+public final class FixedPoint {
+    public static final int DECIMALS = 6;
+    public static final long SCALE = 1_000_000L;
+
+    private FixedPoint() {
+    }
+
+    public static long fromDouble(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    public static double toDouble(long value) {
+        return (double) value / SCALE;
+    }
+
+    /**
+     * Product of two scaled values, e.g. price * quantity = notional.
+     */
+    public static long multiply(long a, long b) {
+        // a * b / SCALE split as (a / SCALE) * b + (a % SCALE) * b / SCALE so the intermediate stays in range
+        long whole = Math.multiplyExact(a / SCALE, b);
+        long fraction = Math.multiplyExact(a % SCALE, b);
+        return Math.addExact(whole, roundedDivide(fraction, SCALE));
+    }
+
+    /**
+     * Quotient of two scaled values, e.g. cost / quantity = average price.
+     */
+    public static long divide(long a, long b) {
+        // a * SCALE / b split as (a / b) * SCALE + (a % b) * SCALE / b
+        long whole = Math.multiplyExact(a / b, SCALE);
+        long fraction = Math.multiplyExact(a % b, SCALE);
+        return Math.addExact(whole, roundedDivide(fraction, b));
+    }
+
+    /**
+     * a * b / c with a 128-bit intermediate, e.g. cost * soldQuantity / heldQuantity.
+     */
+    public static long multiplyDivide(long a, long b, long c) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return roundedDivide(low, c);
+        }
+        // Rare path: the product does not fit in 64 bits
+        return new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                .divide(BigDecimal.valueOf(c), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * @return true if value is a whole number of increments (an increment of 0 accepts anything)
+     */
+    public static boolean isMultipleOf(long value, long increment) {
+        return increment <= 0 || value % increment == 0;
+    }
+
+    private static long roundedDivide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // Half-up (away from zero) on the absolute remainder
+        if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
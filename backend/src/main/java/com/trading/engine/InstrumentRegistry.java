@@ -0,0 +1,193 @@
+package com.trading.engine;
+
+import com.trading.model.Instrument;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns instrument symbols to dense int ids.
+ * Lookups by symbol (hash map) and by id (array) are O(1) and never block; listing and delisting
+ * are serialized among themselves and publish a new immutable snapshot of the listed instruments,
+ * so readers never copy or lock. A symbol keeps its id for the life of the process, also across
+ * a delist and re-list, because stored orders and trades refer to it.
+ */
+public class InstrumentRegistry {
+    /** Longest symbol that can be listed; symbols are printable ASCII without spaces. */
+    public static final int MAX_SYMBOL_LENGTH = 32;
+
+    private final Map<String, ListedInstrument> bySymbol = new ConcurrentHashMap<>();
+    private volatile ListedInstrument[] byId = new ListedInstrument[64];
+    private volatile List<Instrument> listedView = Collections.emptyList();
+    private volatile int size;
+
+    /**
+     * @return whether the symbol can be listed: 1 to {@link #MAX_SYMBOL_LENGTH} printable ASCII characters
+     */
+    public static boolean validSymbol(String symbol) {
+        if (symbol == null || symbol.isEmpty() || symbol.length() > MAX_SYMBOL_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            if (c <= ' ' || c > '~') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the listed instrument for the symbol, or null if unknown or delisted
+     */
+    public ListedInstrument get(String symbol) {
+        ListedInstrument instrument = symbol == null ? null : bySymbol.get(symbol);
+        return instrument != null && instrument.isListed() ? instrument : null;
+    }
+
+    /**
+     * @return the instrument for the symbol, listed or not, or null if the symbol was never listed
+     */
+    public ListedInstrument find(String symbol) {
+        return symbol == null ? null : bySymbol.get(symbol);
+    }
+
+    /**
+     * @return the instrument with the id (listed or not), or null if the id was never assigned
+     */
+    public ListedInstrument get(int id) {
+        ListedInstrument[] current = byId;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Immutable snapshot of the listed instruments; shared between callers, not copied.
+     */
+    public List<Instrument> getListedInstruments() {
+        return listedView;
+    }
+
+    /**
+     * Intern the symbol (or reuse its id) and record the instrument's spec. The instrument is not
+     * tradable until {@link #setListed} marks it listed.
+     */
+    public synchronized ListedInstrument register(Instrument instrument) {
+        ListedInstrument existing = bySymbol.get(instrument.getSymbol());
+        if (existing != null) {
+            if (existing.isListed()) {
+                throw new IllegalArgumentException("Instrument " + instrument.getSymbol() + " is already listed");
+            }
+            existing.update(instrument);
+            return existing;
+        }
+
+        ListedInstrument created = new ListedInstrument(size, instrument);
+        ListedInstrument[] current = byId;
+        if (size == current.length) {
+            ListedInstrument[] grown = new ListedInstrument[current.length << 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        current[size++] = created;
+        byId = current;
+        bySymbol.put(created.getSymbol(), created);
+        return created;
+    }
+
+    public synchronized void setListed(ListedInstrument instrument, boolean listed) {
+        instrument.setListed(listed);
+        rebuildListedView();
+    }
+
+    /**
+     * Put back an instrument under the id it had before a restart, replacing its spec if the id is
+     * already known. Used by recovery, which publishes the listed view once at the end.
+     */
+    synchronized ListedInstrument restore(int id, Instrument instrument) {
+        ListedInstrument existing = get(id);
+        if (existing != null) {
+            existing.update(instrument);
+            return existing;
+        }
+
+        ListedInstrument restored = new ListedInstrument(id, instrument);
+        ListedInstrument[] current = byId;
+        if (id >= current.length) {
+            ListedInstrument[] grown = new ListedInstrument[Math.max(current.length << 1, id + 1)];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        current[id] = restored;
+        byId = current;
+        bySymbol.put(restored.getSymbol(), restored);
+        size = Math.max(size, id + 1);
+        return restored;
+    }
+
+    /**
+     * Flip the listed flag without republishing the listed view; see {@link #rebuildListedView()}.
+     */
+    void markListed(ListedInstrument instrument, boolean listed) {
+        instrument.setListed(listed);
+    }
+
+    synchronized void rebuildListedView() {
+        List<Instrument> view = new ArrayList<>(listedView.size() + 1);
+        for (int id = 0; id < size; id++) {
+            if (byId[id] != null && byId[id].isListed()) {
+                view.add(byId[id].getView());
+            }
+        }
+        listedView = Collections.unmodifiableList(view);
+    }
+
+    synchronized void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int id = 0; id < size; id++) {
+            ListedInstrument instrument = byId[id];
+            out.writeBoolean(instrument != null);
+            if (instrument == null) {
+                continue;
+            }
+            Instrument view = instrument.getView();
+            out.writeUTF(instrument.getSymbol());
+            out.writeUTF(view.getExchange());
+            out.writeUTF(view.getInstrumentType());
+            out.writeLong(instrument.getLastPrice());
+            out.writeLong(instrument.getTickSize());
+            out.writeLong(instrument.getLotSize());
+        }
+    }
+
+    /**
+     * Restore every instrument as unlisted; the shard snapshots and the journal decide what is listed.
+     */
+    void readSnapshot(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int id = 0; id < count; id++) {
+            if (in.readBoolean()) {
+                restore(id, toInstrument(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong(), in.readLong(),
+                        in.readLong()));
+            }
+        }
+    }
+
+    static Instrument toInstrument(String symbol, String exchange, String instrumentType, long lastPrice,
+                                   long tickSize, long lotSize) {
+        return new Instrument(symbol, exchange, instrumentType, FixedPoint.toDouble(lastPrice),
+                FixedPoint.toDouble(tickSize), FixedPoint.toDouble(lotSize));
+    }
+
+    /**
+     * Number of ids assigned, listed or not.
+     */
+    public int size() {
+        return size;
+    }
+}
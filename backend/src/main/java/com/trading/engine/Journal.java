@@ -0,0 +1,314 @@
+package com.trading.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead journal of one shard's order and trade events, written to
+ * memory-mapped, preallocated segment files. Single writer: only the shard's ledger stage appends.
+ * <p>
+ * Record layout (little endian): {@code int length | int crc32c | byte type | payload}, where
+ * length and crc cover type + payload. The length is written last, so a reader treats a zero
+ * length (the segment's preallocated tail) or a checksum mismatch as the end of the journal.
+ * <p>
+ * Appending is a copy into the page cache and survives a process crash immediately; fsync is
+ * group-committed once {@code syncEveryEvents} events are pending or {@code syncIntervalMicros}
+ * have passed since the last sync, which bounds what a power loss can take.
+ * <p>
+ * Segments are named {@code <generation>-<shard>-<segment>.journal}. Every start of the engine
+ * writes a new generation, so replay order is generation, then segment, then record.
+ */
+public class Journal implements AutoCloseable {
+    public static final byte INSTRUMENT_LISTED = 1;
+    public static final byte INSTRUMENT_DELISTED = 2;
+    public static final byte ORDER_PLACED = 3;
+    public static final byte ORDER_CANCELLED = 4;
+    public static final byte TRADE = 5;
+    public static final byte ACCOUNT_OPENED = 6;
+    public static final byte ORDER_REJECTED = 7;
+    public static final byte ORDER_AMENDED = 8;
+
+    static final int HEADER_SIZE = 8;
+    static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final long generation;
+    private final int shard;
+    private final int segmentSize;
+    private final int syncEveryEvents;
+    private final long syncIntervalNanos;
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segment = -1;
+    private int recordStart;
+    private int syncedPosition;
+    private int pendingEvents;
+    private long lastSyncNanos = System.nanoTime();
+
+    public Journal(Path directory, long generation, int shard, int segmentSize, int syncEveryEvents,
+                   long syncIntervalMicros) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.generation = generation;
+        this.shard = shard;
+        this.segmentSize = segmentSize;
+        this.syncEveryEvents = Math.max(1, syncEveryEvents);
+        this.syncIntervalNanos = syncIntervalMicros * 1_000L;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        roll();
+    }
+
+    /**
+     * Generation to write on this start: one past the highest generation found in the directory.
+     */
+    public static long nextGeneration(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 1;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Journal::generationOf).max(Long::compare).orElse(0L) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long generationOf(Path file) {
+        long[] parts = parseName(file);
+        return parts == null ? 0 : parts[0];
+    }
+
+    /**
+     * @return {generation, shard, segment} for a journal segment file, or null for any other file
+     */
+    static long[] parseName(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return null;
+        }
+        String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("-");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String segmentName(long generation, int shard, int segment) {
+        return String.format("%012d-%03d-%08d%s", generation, shard, segment, SUFFIX);
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Segment the next record goes to.
+     */
+    public int getSegment() {
+        return segment;
+    }
+
+    /**
+     * Offset within the current segment the next record is written at.
+     */
+    public int getPosition() {
+        return buffer.position();
+    }
+
+    public void appendInstrumentListed(ListedInstrument instrument) {
+        byte[] symbol = instrument.getSymbol().getBytes(StandardCharsets.UTF_8);
+        byte[] exchange = instrument.getView().getExchange().getBytes(StandardCharsets.UTF_8);
+        byte[] type = instrument.getView().getInstrumentType().getBytes(StandardCharsets.UTF_8);
+        begin(INSTRUMENT_LISTED, 4 + 24 + 6 + symbol.length + exchange.length + type.length);
+        buffer.putInt(instrument.getId());
+        buffer.putLong(instrument.getLastPrice());
+        buffer.putLong(instrument.getTickSize());
+        buffer.putLong(instrument.getLotSize());
+        putString(symbol);
+        putString(exchange);
+        putString(type);
+        end();
+    }
+
+    public void appendInstrumentDelisted(int instrumentId) {
+        begin(INSTRUMENT_DELISTED, 4);
+        buffer.putInt(instrumentId);
+        end();
+    }
+
+    public void appendAccountOpened(int account, String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        begin(ACCOUNT_OPENED, 4 + 2 + encoded.length);
+        buffer.putInt(account);
+        putString(encoded);
+        end();
+    }
+
+    /**
+     * The account is the last field, so records journaled before accounts existed read as the
+     * default account.
+     */
+    public void appendOrderPlaced(long orderId, int instrumentId, Side side, OrderStyle style, long price,
+                                  long quantity, long timestamp, int account) {
+        appendOrder(ORDER_PLACED, orderId, instrumentId, side, style, price, quantity, timestamp, account);
+    }
+
+    /**
+     * An order refused by the pre-trade risk checks: recorded like a placement, replayed as cancelled
+     * without reaching the book.
+     */
+    public void appendOrderRejected(long orderId, int instrumentId, Side side, OrderStyle style, long price,
+                                    long quantity, long timestamp, int account) {
+        appendOrder(ORDER_REJECTED, orderId, instrumentId, side, style, price, quantity, timestamp, account);
+    }
+
+    private void appendOrder(byte type, long orderId, int instrumentId, Side side, OrderStyle style, long price,
+                             long quantity, long timestamp, int account) {
+        begin(type, 8 + 4 + 2 + 24 + 4);
+        buffer.putLong(orderId);
+        buffer.putInt(instrumentId);
+        buffer.put((byte) side.ordinal());
+        buffer.put((byte) style.ordinal());
+        buffer.putLong(price);
+        buffer.putLong(quantity);
+        buffer.putLong(timestamp);
+        buffer.putInt(account);
+        end();
+    }
+
+    public void appendOrderCancelled(long orderId, int instrumentId) {
+        begin(ORDER_CANCELLED, 8 + 4);
+        buffer.putLong(orderId);
+        buffer.putInt(instrumentId);
+        end();
+    }
+
+    /**
+     * A resting order's new price and total quantity; the trades it caused follow it.
+     */
+    public void appendOrderAmended(long orderId, int instrumentId, long price, long quantity) {
+        begin(ORDER_AMENDED, 8 + 4 + 16);
+        buffer.putLong(orderId);
+        buffer.putInt(instrumentId);
+        buffer.putLong(price);
+        buffer.putLong(quantity);
+        end();
+    }
+
+    public void appendTrade(long tradeId, long orderId, long contraOrderId, int instrumentId, Side side,
+                            long price, long quantity, long timestamp) {
+        begin(TRADE, 24 + 4 + 1 + 24);
+        buffer.putLong(tradeId);
+        buffer.putLong(orderId);
+        buffer.putLong(contraOrderId);
+        buffer.putInt(instrumentId);
+        buffer.put((byte) side.ordinal());
+        buffer.putLong(price);
+        buffer.putLong(quantity);
+        buffer.putLong(timestamp);
+        end();
+    }
+
+    /**
+     * Group commit: fsync the pending events if enough have accumulated or the sync interval has
+     * passed. Called by the writer at the end of every batch and while idle.
+     */
+    public void syncIfDue() {
+        if (pendingEvents == 0) {
+            return;
+        }
+        if (pendingEvents >= syncEveryEvents || System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+            sync();
+        }
+    }
+
+    public void sync() {
+        int position = buffer.position();
+        if (position > syncedPosition) {
+            buffer.force(syncedPosition, position - syncedPosition);
+            syncedPosition = position;
+        }
+        pendingEvents = 0;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    @Override
+    public void close() {
+        sync();
+        closeSegment();
+    }
+
+    private void begin(byte type, int payloadSize) {
+        if (buffer.position() + HEADER_SIZE + 1 + payloadSize > segmentSize) {
+            roll();
+        }
+        recordStart = buffer.position();
+        buffer.position(recordStart + HEADER_SIZE);
+        buffer.put(type);
+    }
+
+    private void end() {
+        int end = buffer.position();
+        int length = end - recordStart - HEADER_SIZE;
+        crc.reset();
+        buffer.position(recordStart + HEADER_SIZE).limit(end);
+        crc.update(buffer);
+        buffer.limit(segmentSize);
+        buffer.putInt(recordStart + 4, (int) crc.getValue());
+        // Length last: a record with a non-zero length is complete
+        buffer.putInt(recordStart, length);
+        pendingEvents++;
+    }
+
+    private void putString(byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    // Rare path: once per segment
+    private void roll() {
+        if (buffer != null) {
+            sync();
+            closeSegment();
+        }
+        segment++;
+        Path file = directory.resolve(segmentName(generation, shard, segment));
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        syncedPosition = 0;
+    }
+
+    private void closeSegment() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.trading.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Sequential reader of {@link Journal} segment files.
+ */
+public final class JournalReader {
+
+    /**
+     * Callback for one journal record.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * @param payload positioned just after the type byte; only valid for the duration of the call
+         */
+        void onRecord(byte type, ByteBuffer payload);
+    }
+
+    private JournalReader() {
+    }
+
+    /**
+     * Hand every complete record of the segment, starting at the offset, to the handler.
+     * Reading stops at the preallocated tail or at the first torn or corrupt record.
+     * @return number of records read
+     */
+    public static long read(Path segment, int offset, RecordHandler handler) {
+        CRC32C crc = new CRC32C();
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int size = buffer.capacity();
+            int position = offset;
+            while (position + Journal.HEADER_SIZE < size) {
+                int length = buffer.getInt(position);
+                int end = position + Journal.HEADER_SIZE + length;
+                if (length <= 0 || end > size) {
+                    break;
+                }
+                crc.reset();
+                buffer.limit(end).position(position + Journal.HEADER_SIZE);
+                crc.update(buffer);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+
+                buffer.position(position + Journal.HEADER_SIZE);
+                byte type = buffer.get();
+                handler.onRecord(type, buffer);
+                buffer.limit(size);
+                position = end;
+                records++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    /**
+     * Decode a string written by the journal (unsigned short length + UTF-8 bytes).
+     */
+    public static String getString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
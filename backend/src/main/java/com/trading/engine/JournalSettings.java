@@ -0,0 +1,10 @@
+package com.trading.engine;
+
+import java.nio.file.Path;
+
+/**
+ * Where and how the shards journal: segment file size in bytes, and the group-commit thresholds
+ * (fsync after this many pending events or this many microseconds, whichever comes first).
+ */
+public record JournalSettings(Path directory, int segmentSize, int syncEveryEvents, long syncIntervalMicros) {
+}
@@ -0,0 +1,88 @@
+package com.trading.engine;
+
+import com.trading.model.Instrument;
+
+/**
+ * Engine-side handle for an instrument interned by the {@link InstrumentRegistry}.
+ * The dense id indexes per-instrument state in the shards; tick size, lot size and last price are
+ * kept in fixed point so the hot path never converts from the JSON model. The last price moves with
+ * every trade; the match stage of the owning shard is its only writer once the instrument is listed.
+ */
+public final class ListedInstrument {
+    private final int id;
+    private final String symbol;
+    private volatile Instrument view;
+    private volatile long tickSize;
+    private volatile long lotSize;
+    private volatile long lastPrice;
+    private volatile boolean listed;
+    private final QuoteBuffer quote = new QuoteBuffer();
+
+    ListedInstrument(int id, Instrument view) {
+        this.id = id;
+        this.symbol = view.getSymbol();
+        update(view);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * JSON-facing view of the instrument; its last traded price is read live.
+     */
+    public Instrument getView() {
+        return view;
+    }
+
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    public long getLotSize() {
+        return lotSize;
+    }
+
+    public long getLastPrice() {
+        return lastPrice;
+    }
+
+    public boolean isListed() {
+        return listed;
+    }
+
+    public QuoteBuffer getQuote() {
+        return quote;
+    }
+
+    void update(Instrument spec) {
+        this.tickSize = FixedPoint.fromDouble(spec.getTickSize());
+        this.lotSize = FixedPoint.fromDouble(spec.getLotSize());
+        this.lastPrice = FixedPoint.fromDouble(spec.getLastTradedPrice());
+        this.view = new View(spec);
+    }
+
+    void setLastPrice(long lastPrice) {
+        this.lastPrice = lastPrice;
+    }
+
+    void setListed(boolean listed) {
+        this.listed = listed;
+    }
+
+    private final class View extends Instrument {
+        View(Instrument spec) {
+            super(spec.getSymbol(), spec.getExchange(), spec.getInstrumentType(), spec.getLastTradedPrice(),
+                    spec.getTickSize(), spec.getLotSize());
+        }
+
+        @Override
+        public Double getLastTradedPrice() {
+            return FixedPoint.toDouble(lastPrice);
+        }
+    }
+}
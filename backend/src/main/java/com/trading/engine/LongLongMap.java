@@ -0,0 +1,80 @@
+package com.trading.engine;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative long keys to long values, with linear probing and
+ * no boxing. Single-threaded: each instance belongs to one stage.
+ */
+final class LongLongMap {
+    private static final long EMPTY = -1;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int mask;
+
+    LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @return the value, or {@code missing} if the key is absent
+     */
+    long get(long key, long missing) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long candidate = keys[i];
+            if (candidate == key) {
+                return values[i];
+            }
+            if (candidate == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    void put(long key, long value) {
+        int i = index(key);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            if (++size > (mask + 1) >>> 1) {
+                values[i] = value;
+                grow();
+                return;
+            }
+        }
+        values[i] = value;
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = index(oldKeys[i]);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,8 @@
+package com.trading.engine;
+
+/**
+ * A validated order, already recorded in the {@link OrderStore}, on its way to the owning shard.
+ */
+public record NewOrder(long orderId, int account, ListedInstrument instrument, Side side, OrderStyle style, long price,
+                       long quantity, long timestamp) {
+}
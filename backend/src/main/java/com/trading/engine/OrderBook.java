@@ -0,0 +1,258 @@
+package com.trading.engine;
+
+import com.trading.util.LongObjectHashMap;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Price-time priority limit order book for a single instrument.
+ * Each side caches its best level and finds existing levels through a primitive hash index, so
+ * matching and resting at an existing price are O(1); creating or removing a level is
+ * O(log levels). Orders within a level are matched FIFO, and cancels and quantity reductions are O(1).
+ */
+public class OrderBook {
+    private final ListedInstrument instrument;
+    private final BookSide bids = new BookSide(Comparator.reverseOrder());
+    private final BookSide asks = new BookSide(Comparator.naturalOrder());
+    private final LongObjectHashMap<BookOrder> resting = new LongObjectHashMap<>(1024);
+    private final ArrayDeque<PriceLevel> freeLevels = new ArrayDeque<>();
+
+    public OrderBook(ListedInstrument instrument) {
+        this.instrument = instrument;
+    }
+
+    public ListedInstrument getInstrument() {
+        return instrument;
+    }
+
+    /**
+     * Match an incoming order against the opposite side of the book.
+     * Fills are reported to the handler at the resting order's price, one callback per match.
+     * Whatever quantity is left is NOT rested; call {@link #rest(BookOrder)} for that.
+     */
+    public void match(BookOrder incoming, FillHandler handler) {
+        boolean isBuy = incoming.side == Side.BUY;
+        boolean isLimit = incoming.style == OrderStyle.LIMIT;
+        BookSide opposite = isBuy ? asks : bids;
+
+        while (incoming.getRemainingQuantity() > 0 && opposite.best != null) {
+            PriceLevel level = opposite.best;
+            if (isLimit && (isBuy ? level.price > incoming.price : level.price < incoming.price)) {
+                break; // Best opposite level does not cross
+            }
+
+            while (incoming.getRemainingQuantity() > 0 && !level.isEmpty()) {
+                BookOrder contra = level.head;
+                long quantity = Math.min(incoming.getRemainingQuantity(), contra.getRemainingQuantity());
+
+                incoming.filledQuantity += quantity;
+                contra.filledQuantity += quantity;
+                level.totalQuantity -= quantity;
+                if (contra.getRemainingQuantity() == 0) {
+                    level.remove(contra);
+                    resting.remove(contra.orderId);
+                }
+                handler.onFill(incoming, contra, quantity, level.price);
+            }
+
+            if (level.isEmpty()) {
+                removeLevel(opposite, level);
+            }
+        }
+    }
+
+    /**
+     * Add the remaining quantity of a LIMIT order to its side of the book.
+     */
+    public void rest(BookOrder order) {
+        BookSide side = order.side == Side.BUY ? bids : asks;
+        PriceLevel level = side.byPrice.get(order.price);
+        if (level == null) {
+            level = freeLevels.isEmpty() ? new PriceLevel() : freeLevels.pop();
+            level.init(order.price);
+            side.levels.put(level.key, level);
+            side.byPrice.put(order.price, level);
+            if (side.best == null || side.levels.comparator().compare(level.key, side.best.key) < 0) {
+                side.best = level;
+            }
+        }
+        level.add(order);
+        resting.put(order.orderId, order);
+    }
+
+    /**
+     * Remove a resting order from the book.
+     * @return the removed order, or null if it was not resting
+     */
+    public BookOrder cancel(long orderId) {
+        BookOrder order = resting.remove(orderId);
+        if (order == null) {
+            return null;
+        }
+        PriceLevel level = order.level;
+        level.remove(order);
+        if (level.isEmpty()) {
+            removeLevel(order.side == Side.BUY ? bids : asks, level);
+        }
+        return order;
+    }
+
+    /**
+     * Remove, in one pass over the book, every resting order on the side and of the account, handing
+     * each one to the consumer once it is off the book.
+     * @param side null for both sides
+     * @param account negative for every account
+     * @return number of orders removed
+     */
+    public int cancelWhere(Side side, int account, Consumer<BookOrder> removed) {
+        int count = 0;
+        if (side != Side.SELL) {
+            count += cancelWhere(bids, account, removed);
+        }
+        if (side != Side.BUY) {
+            count += cancelWhere(asks, account, removed);
+        }
+        return count;
+    }
+
+    /**
+     * Lower a resting order's quantity in place; it keeps its time priority.
+     * @param quantity new total quantity, above the filled quantity and at most the current quantity
+     */
+    public void reduce(BookOrder order, long quantity) {
+        order.level.totalQuantity -= order.quantity - quantity;
+        order.quantity = quantity;
+    }
+
+    /**
+     * Remove every resting order, handing each one to the consumer once it is off the book.
+     */
+    public void clear(Consumer<BookOrder> removed) {
+        resting.forEachValue(order -> {
+            order.level.remove(order);
+            removed.accept(order);
+        });
+        resting.clear();
+        clearSide(bids);
+        clearSide(asks);
+    }
+
+    /**
+     * Visit every resting order in priority order: bids best price first, then asks best price
+     * first, FIFO within a level. Resting the visited orders into an empty book in this order
+     * reproduces the book.
+     */
+    public void forEachResting(Consumer<BookOrder> visitor) {
+        forEachResting(bids, visitor);
+        forEachResting(asks, visitor);
+    }
+
+    public BookOrder getRestingOrder(long orderId) {
+        return resting.get(orderId);
+    }
+
+    /**
+     * @return best bid price, or 0 if there are no bids
+     */
+    public long getBestBid() {
+        return bids.best == null ? 0 : bids.best.price;
+    }
+
+    /**
+     * @return best ask price, or 0 if there are no asks
+     */
+    public long getBestAsk() {
+        return asks.best == null ? 0 : asks.best.price;
+    }
+
+    /**
+     * Copy the aggregated levels of one side, best price first, into the arrays.
+     * @return number of levels copied, at most the length of the arrays
+     */
+    public int depth(Side side, long[] prices, long[] quantities, int[] orderCounts) {
+        int count = 0;
+        for (PriceLevel level : (side == Side.BUY ? bids : asks).levels.values()) {
+            if (count == prices.length) {
+                break;
+            }
+            prices[count] = level.price;
+            quantities[count] = level.totalQuantity;
+            orderCounts[count] = level.orderCount;
+            count++;
+        }
+        return count;
+    }
+
+    public int getRestingOrderCount() {
+        return resting.size();
+    }
+
+    private void removeLevel(BookSide side, PriceLevel level) {
+        side.levels.remove(level.key);
+        side.byPrice.remove(level.price);
+        if (side.best == level) {
+            side.best = side.levels.isEmpty() ? null : side.byPrice.get(side.levels.firstKey());
+        }
+        level.reset();
+        freeLevels.push(level);
+    }
+
+    private int cancelWhere(BookSide side, int account, Consumer<BookOrder> removed) {
+        int count = 0;
+        Iterator<PriceLevel> levels = side.levels.values().iterator();
+        while (levels.hasNext()) {
+            PriceLevel level = levels.next();
+            BookOrder order = level.head;
+            while (order != null) {
+                BookOrder next = order.next; // The consumer may recycle the order
+                if (account < 0 || order.account == account) {
+                    level.remove(order);
+                    resting.remove(order.orderId);
+                    removed.accept(order);
+                    count++;
+                }
+                order = next;
+            }
+            if (level.isEmpty()) {
+                levels.remove();
+                side.byPrice.remove(level.price);
+                level.reset();
+                freeLevels.push(level);
+            }
+        }
+        side.best = side.levels.isEmpty() ? null : side.levels.firstEntry().getValue();
+        return count;
+    }
+
+    private static void forEachResting(BookSide side, Consumer<BookOrder> visitor) {
+        for (PriceLevel level : side.levels.values()) {
+            for (BookOrder order = level.head; order != null; order = order.next) {
+                visitor.accept(order);
+            }
+        }
+    }
+
+    private void clearSide(BookSide side) {
+        side.levels.values().forEach(level -> {
+            level.reset();
+            freeLevels.push(level);
+        });
+        side.levels.clear();
+        side.byPrice.clear();
+        side.best = null;
+    }
+
+    private static final class BookSide {
+        final TreeMap<Long, PriceLevel> levels; // Best price first
+        final LongObjectHashMap<PriceLevel> byPrice = new LongObjectHashMap<>(256);
+        PriceLevel best;
+
+        BookSide(Comparator<Long> order) {
+            this.levels = new TreeMap<>(order);
+        }
+    }
+}
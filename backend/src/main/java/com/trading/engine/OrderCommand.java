@@ -0,0 +1,43 @@
+package com.trading.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ingress ring entry: one validated command for the matching stage, in primitive form.
+ * Entries are preallocated and overwritten in place.
+ */
+public class OrderCommand {
+    CommandType type;
+    long orderId;
+    int account;
+    ListedInstrument instrument;
+    Side side;
+    OrderStyle style;
+    long price;
+    long quantity;
+    long timestamp;
+    boolean replay; // Recovery: rebuild state only, do not journal or record trades
+    long tradeId;
+    long contraOrderId;
+    ShardSnapshot snapshot;
+    CompletableFuture<Long> orderFuture;
+    CompletableFuture<ShardSnapshot> snapshotFuture;
+
+    void clear() {
+        type = null;
+        orderId = 0;
+        account = 0;
+        instrument = null;
+        side = null;
+        style = null;
+        price = 0;
+        quantity = 0;
+        timestamp = 0;
+        replay = false;
+        tradeId = 0;
+        contraOrderId = 0;
+        snapshot = null;
+        orderFuture = null;
+        snapshotFuture = null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.trading.engine;
+
+public enum OrderStatus {
+    NEW,
+    PLACED,
+    PARTIALLY_FILLED,
+    EXECUTED,
+    CANCELLED;
+
+    private static final OrderStatus[] VALUES = values();
+
+    public static OrderStatus fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Case-insensitive parse of a request value without allocating.
+     * @return the status, or null if the value is not a status name
+     */
+    public static OrderStatus parse(String value) {
+        for (OrderStatus status : VALUES) {
+            if (status.name().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    public boolean isTerminal() {
+        return this == EXECUTED || this == CANCELLED;
+    }
+}
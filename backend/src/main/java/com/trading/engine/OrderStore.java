@@ -0,0 +1,358 @@
+package com.trading.engine;
+
+import com.trading.model.Order;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Columnar, append-only store of order state indexed by the dense order sequence id.
+ * Rows live in primitive arrays allocated a chunk at a time, so recording an order allocates
+ * nothing per order; {@link Order} objects are only built when a row is read at the REST edge.
+ * <p>
+ * A row is created by the request thread that sequenced the order and afterwards only updated by
+ * the match stage that owns its instrument. Readers on other threads may observe slightly stale
+ * status or fill quantity, never a half-created row.
+ * <p>
+ * Every block of {@value #BLOCK_SIZE} consecutive ids keeps a summary of its rows (a bitmask of
+ * instrument ids, the sides and statuses seen and the timestamp range) so filtered listings skip
+ * whole blocks that cannot match instead of reading every row. Summaries only ever widen, so a
+ * block is never skipped wrongly.
+ */
+public class OrderStore {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int BLOCK_BITS = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCKS_PER_CHUNK = CHUNK_SIZE >>> BLOCK_BITS;
+    private static final VarHandle INSTRUMENTS = MethodHandles.arrayElementVarHandle(ListedInstrument[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final AccountRegistry accounts;
+    private final AtomicLong lastId = new AtomicLong();
+    private volatile Chunk[] chunks = new Chunk[64];
+
+    public OrderStore(AccountRegistry accounts) {
+        this.accounts = accounts;
+    }
+
+    /**
+     * Claim the next order id.
+     */
+    public long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Highest order id handed out so far.
+     */
+    public long getLastId() {
+        return lastId.get();
+    }
+
+    public void create(long orderId, int account, ListedInstrument instrument, Side side, OrderStyle style,
+                       long price, long quantity, long timestamp) {
+        Chunk chunk = chunkForWrite(orderId);
+        int row = (int) (orderId & CHUNK_MASK);
+        chunk.account[row] = account;
+        chunk.side[row] = (byte) side.ordinal();
+        chunk.style[row] = (byte) style.ordinal();
+        chunk.status[row] = (byte) OrderStatus.NEW.ordinal();
+        chunk.price[row] = price;
+        chunk.quantity[row] = quantity;
+        chunk.filled[row] = 0;
+        chunk.timestamp[row] = timestamp;
+        int block = row >>> BLOCK_BITS;
+        setBits(chunk.instrumentBits, block, 1L << (instrument.getId() & 63));
+        setBits(chunk.flagBits, block, sideFlag(side) | statusFlag(OrderStatus.NEW));
+        minimize(chunk.minTimestamp, block, timestamp);
+        maximize(chunk.maxTimestamp, block, timestamp);
+        // The instrument reference doubles as the row's "created" flag
+        INSTRUMENTS.setRelease(chunk.instrument, row, instrument);
+    }
+
+    /**
+     * Raise the id counter past an order restored from a snapshot or the journal.
+     */
+    void advanceLastId(long orderId) {
+        lastId.accumulateAndGet(orderId, Math::max);
+    }
+
+    public void update(long orderId, OrderStatus status, long filledQuantity) {
+        Chunk chunk = chunks[(int) (orderId >>> CHUNK_BITS)];
+        int row = (int) (orderId & CHUNK_MASK);
+        chunk.filled[row] = filledQuantity;
+        chunk.status[row] = (byte) status.ordinal();
+        setBits(chunk.flagBits, row >>> BLOCK_BITS, statusFlag(status));
+    }
+
+    /**
+     * Record an amended price and total quantity.
+     */
+    public void amend(long orderId, long price, long quantity) {
+        Chunk chunk = chunks[(int) (orderId >>> CHUNK_BITS)];
+        int row = (int) (orderId & CHUNK_MASK);
+        chunk.price[row] = price;
+        chunk.quantity[row] = quantity;
+    }
+
+    public boolean exists(long orderId) {
+        return getInstrument(orderId) != null;
+    }
+
+    /**
+     * @return the order's instrument, or null if there is no such order
+     */
+    public ListedInstrument getInstrument(long orderId) {
+        Chunk chunk = chunkForRead(orderId);
+        return chunk == null
+                ? null
+                : (ListedInstrument) INSTRUMENTS.getAcquire(chunk.instrument, (int) (orderId & CHUNK_MASK));
+    }
+
+    public OrderStatus getStatus(long orderId) {
+        return OrderStatus.fromOrdinal(chunkForRead(orderId).status[(int) (orderId & CHUNK_MASK)]);
+    }
+
+    // Primitive column reads, for callers that encode orders without building an Order
+
+    public int getAccount(long orderId) {
+        return chunkForRead(orderId).account[(int) (orderId & CHUNK_MASK)];
+    }
+
+    public String getAccountName(long orderId) {
+        return accounts.name(getAccount(orderId));
+    }
+
+    public Side getSide(long orderId) {
+        return Side.fromOrdinal(chunkForRead(orderId).side[(int) (orderId & CHUNK_MASK)]);
+    }
+
+    public OrderStyle getStyle(long orderId) {
+        return OrderStyle.fromOrdinal(chunkForRead(orderId).style[(int) (orderId & CHUNK_MASK)]);
+    }
+
+    public long getPrice(long orderId) {
+        return chunkForRead(orderId).price[(int) (orderId & CHUNK_MASK)];
+    }
+
+    public long getQuantity(long orderId) {
+        return chunkForRead(orderId).quantity[(int) (orderId & CHUNK_MASK)];
+    }
+
+    public long getFilledQuantity(long orderId) {
+        return chunkForRead(orderId).filled[(int) (orderId & CHUNK_MASK)];
+    }
+
+    public long getTimestamp(long orderId) {
+        return chunkForRead(orderId).timestamp[(int) (orderId & CHUNK_MASK)];
+    }
+
+    /**
+     * Build the JSON-facing view of an order.
+     * @return the order, or null if there is no such order
+     */
+    public Order toOrder(long orderId) {
+        ListedInstrument instrument = getInstrument(orderId);
+        if (instrument == null) {
+            return null;
+        }
+        Chunk chunk = chunkForRead(orderId);
+        int row = (int) (orderId & CHUNK_MASK);
+        OrderStyle style = OrderStyle.fromOrdinal(chunk.style[row]);
+
+        Order order = new Order();
+        order.setOrderId(Long.toString(orderId));
+        order.setAccount(accounts.name(chunk.account[row]));
+        order.setSymbol(instrument.getSymbol());
+        order.setOrderType(Side.fromOrdinal(chunk.side[row]).name());
+        order.setOrderStyle(style.name());
+        order.setQuantity(FixedPoint.toDouble(chunk.quantity[row]));
+        order.setPrice(style == OrderStyle.LIMIT ? FixedPoint.toDouble(chunk.price[row]) : null);
+        order.setFilledQuantity(FixedPoint.toDouble(chunk.filled[row]));
+        order.setStatus(OrderStatus.fromOrdinal(chunk.status[row]).name());
+        order.setTimestamp(EngineClock.toLocalDateTime(chunk.timestamp[row]));
+        return order;
+    }
+
+    /**
+     * Ids of the orders matching every given filter, newest first, for keyset pagination.
+     * @param instrument null for any instrument
+     * @param status null for any status
+     * @param side null for either side
+     * @param from inclusive lower bound in epoch nanos
+     * @param to exclusive upper bound in epoch nanos
+     * @param before only orders with a lower id; the last id of the previous page
+     * @param ids filled from the start, up to its length
+     * @return number of ids found
+     */
+    public int findIds(ListedInstrument instrument, OrderStatus status, Side side, long from, long to, long before,
+                       long[] ids) {
+        long instrumentBit = instrument != null ? 1L << (instrument.getId() & 63) : -1L;
+        int count = 0;
+        long orderId = Math.min(before - 1, lastId.get());
+        while (orderId > 0 && count < ids.length) {
+            long blockStart = Math.max(1, orderId & -BLOCK_SIZE);
+            Chunk chunk = chunkForRead(orderId);
+            if (chunk == null || !blockMayMatch(chunk, (int) (orderId & CHUNK_MASK) >>> BLOCK_BITS, instrumentBit,
+                    side, status, from, to)) {
+                orderId = blockStart - 1;
+                continue;
+            }
+            for (; orderId >= blockStart && count < ids.length; orderId--) {
+                int row = (int) (orderId & CHUNK_MASK);
+                ListedInstrument rowInstrument = (ListedInstrument) INSTRUMENTS.getAcquire(chunk.instrument, row);
+                if (rowInstrument != null
+                        && (instrument == null || rowInstrument.getId() == instrument.getId())
+                        && (side == null || chunk.side[row] == side.ordinal())
+                        && (status == null || chunk.status[row] == status.ordinal())
+                        && chunk.timestamp[row] >= from && chunk.timestamp[row] < to) {
+                    ids[count++] = orderId;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write every row its shard has accepted (status past NEW). Rows are read while the shards keep
+     * updating them; recovery corrects rows that are still open from the snapshot's books and the
+     * journal tail.
+     */
+    void writeSnapshot(DataOutputStream out) throws IOException {
+        long last = lastId.get();
+        out.writeLong(last);
+        for (long orderId = 1; orderId <= last; orderId++) {
+            ListedInstrument instrument = getInstrument(orderId);
+            Chunk chunk = chunkForRead(orderId);
+            int row = (int) (orderId & CHUNK_MASK);
+            if (instrument == null || chunk.status[row] == OrderStatus.NEW.ordinal()) {
+                continue;
+            }
+            out.writeLong(orderId);
+            out.writeInt(chunk.account[row]);
+            out.writeInt(instrument.getId());
+            out.writeByte(chunk.side[row]);
+            out.writeByte(chunk.style[row]);
+            out.writeByte(chunk.status[row]);
+            out.writeLong(chunk.price[row]);
+            out.writeLong(chunk.quantity[row]);
+            out.writeLong(chunk.filled[row]);
+            out.writeLong(chunk.timestamp[row]);
+        }
+        out.writeLong(0);
+    }
+
+    void readSnapshot(DataInputStream in, InstrumentRegistry registry) throws IOException {
+        advanceLastId(in.readLong());
+        for (long orderId = in.readLong(); orderId != 0; orderId = in.readLong()) {
+            int account = in.readInt();
+            ListedInstrument instrument = registry.get(in.readInt());
+            Side side = Side.fromOrdinal(in.readByte());
+            OrderStyle style = OrderStyle.fromOrdinal(in.readByte());
+            OrderStatus status = OrderStatus.fromOrdinal(in.readByte());
+            long price = in.readLong();
+            long quantity = in.readLong();
+            long filled = in.readLong();
+            create(orderId, account, instrument, side, style, price, quantity, in.readLong());
+            update(orderId, status, filled);
+        }
+    }
+
+    private static boolean blockMayMatch(Chunk chunk, int block, long instrumentBit, Side side, OrderStatus status,
+                                         long from, long to) {
+        long flags = (long) LONGS.getAcquire(chunk.flagBits, block);
+        return ((long) LONGS.getAcquire(chunk.instrumentBits, block) & instrumentBit) != 0
+                && (side == null || (flags & sideFlag(side)) != 0)
+                && (status == null || (flags & statusFlag(status)) != 0)
+                && (long) LONGS.getAcquire(chunk.maxTimestamp, block) >= from
+                && (long) LONGS.getAcquire(chunk.minTimestamp, block) < to;
+    }
+
+    private static long sideFlag(Side side) {
+        return 1L << side.ordinal();
+    }
+
+    private static long statusFlag(OrderStatus status) {
+        return 1L << (8 + status.ordinal());
+    }
+
+    // Summaries are shared by the rows of all shards, so they are only widened with CAS
+    private static void setBits(long[] summary, int block, long bits) {
+        long current;
+        while (((current = (long) LONGS.getAcquire(summary, block)) & bits) != bits
+                && !LONGS.compareAndSet(summary, block, current, current | bits)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void minimize(long[] summary, int block, long value) {
+        long current;
+        while ((current = (long) LONGS.getAcquire(summary, block)) > value
+                && !LONGS.compareAndSet(summary, block, current, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void maximize(long[] summary, int block, long value) {
+        long current;
+        while ((current = (long) LONGS.getAcquire(summary, block)) < value
+                && !LONGS.compareAndSet(summary, block, current, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private Chunk chunkForRead(long orderId) {
+        Chunk[] current = chunks;
+        int index = (int) (orderId >>> CHUNK_BITS);
+        return orderId <= 0 || index >= current.length ? null : current[index];
+    }
+
+    private Chunk chunkForWrite(long orderId) {
+        Chunk chunk = chunkForRead(orderId);
+        return chunk != null ? chunk : allocateChunk((int) (orderId >>> CHUNK_BITS));
+    }
+
+    // Rare path: once per CHUNK_SIZE orders
+    private synchronized Chunk allocateChunk(int index) {
+        Chunk[] current = chunks;
+        if (index >= current.length) {
+            Chunk[] grown = new Chunk[Math.max(current.length << 1, index + 1)];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        if (current[index] == null) {
+            current[index] = new Chunk();
+        }
+        chunks = current;
+        return current[index];
+    }
+
+    private static final class Chunk {
+        final ListedInstrument[] instrument = new ListedInstrument[CHUNK_SIZE];
+        final int[] account = new int[CHUNK_SIZE];
+        final byte[] side = new byte[CHUNK_SIZE];
+        final byte[] style = new byte[CHUNK_SIZE];
+        final byte[] status = new byte[CHUNK_SIZE];
+        final long[] price = new long[CHUNK_SIZE];
+        final long[] quantity = new long[CHUNK_SIZE];
+        final long[] filled = new long[CHUNK_SIZE];
+        final long[] timestamp = new long[CHUNK_SIZE];
+        // Per-block summaries
+        final long[] instrumentBits = new long[BLOCKS_PER_CHUNK];
+        final long[] flagBits = new long[BLOCKS_PER_CHUNK];
+        final long[] minTimestamp = new long[BLOCKS_PER_CHUNK];
+        final long[] maxTimestamp = new long[BLOCKS_PER_CHUNK];
+
+        Chunk() {
+            Arrays.fill(minTimestamp, Long.MAX_VALUE);
+            Arrays.fill(maxTimestamp, Long.MIN_VALUE);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.trading.engine;
+
+public enum OrderStyle {
+    MARKET,
+    LIMIT;
+
+    private static final OrderStyle[] VALUES = values();
+
+    public static OrderStyle fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Case-insensitive parse of a request value without allocating.
+     * @return the style, or null if the value is not MARKET or LIMIT
+     */
+    public static OrderStyle parse(String value) {
+        if ("MARKET".equalsIgnoreCase(value)) {
+            return MARKET;
+        }
+        if ("LIMIT".equalsIgnoreCase(value)) {
+            return LIMIT;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.trading.engine;
+
+/**
+ * Ledger-side holding of one instrument in fixed point. The cost basis is kept as an exact
+ * scaled amount rather than an average price, so average price is derived on read and repeated
+ * fills do not accumulate rounding error.
+ */
+public class Position {
+    private long quantity;
+    private long costBasis;
+
+    public Position() {
+    }
+
+    public Position(long quantity, long costBasis) {
+        this.quantity = quantity;
+        this.costBasis = costBasis;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getCostBasis() {
+        return costBasis;
+    }
+
+    /**
+     * @return average price per unit, or 0 for a flat position
+     */
+    public long getAveragePrice() {
+        return quantity == 0 ? 0 : FixedPoint.divide(costBasis, quantity);
+    }
+
+    void set(long quantity, long costBasis) {
+        this.quantity = quantity;
+        this.costBasis = costBasis;
+    }
+
+    /**
+     * @return PnL realized by the fill: for a sell, the proceeds of the quantity held less the
+     * cost released; 0 for a buy
+     */
+    public long apply(Side side, long fillQuantity, long fillPrice) {
+        if (side == Side.BUY) {
+            costBasis = Math.addExact(costBasis, FixedPoint.multiply(fillQuantity, fillPrice));
+            quantity = Math.addExact(quantity, fillQuantity);
+            return 0;
+        }
+        long sold = Math.min(fillQuantity, quantity);
+        long released;
+        if (fillQuantity >= quantity) {
+            released = costBasis;
+            quantity = 0;
+            costBasis = 0;
+        } else {
+            // Average cost: release the sold share of the cost basis
+            released = FixedPoint.multiplyDivide(costBasis, fillQuantity, quantity);
+            costBasis -= released;
+            quantity -= fillQuantity;
+        }
+        return FixedPoint.multiply(sold, fillPrice) - released;
+    }
+}
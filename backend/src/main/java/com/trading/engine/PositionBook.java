@@ -0,0 +1,325 @@
+package com.trading.engine;
+
+import com.trading.engine.ShardSnapshot.PositionSnapshot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Positions in one shard's instruments per (account, instrument), kept in primitive columns and
+ * marked to market incrementally. Written only by the shard's ledger stage, one fill or price tick
+ * at a time; read by any thread without locking and without going through the shard's rings.
+ * <p>
+ * A position's slot is found through a primitive hash map keyed by account and instrument id. Each
+ * account's slots are chained, so reading an account's portfolio walks only that account's
+ * positions; each instrument's slots are chained too, so a price tick revalues only the positions
+ * in that instrument. Ticks are conflated: the ledger records the latest price per instrument and
+ * revalues once at the end of its batch. Every slot keeps its market value and realized PnL, and
+ * every account the totals of its slots, adjusted by each change, so reads do no arithmetic over
+ * the positions.
+ * <p>
+ * A slot and an account's totals are each guarded by a sequence lock as in {@link QuoteBuffer}: a
+ * reader retries only if what it is copying is being rewritten, and never holds up a fill. Columns
+ * grow by copying into a new set that is then published; a reader still holding the old set sees
+ * the positions as they were when it started.
+ */
+final class PositionBook {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Receives one position as read. Amounts are fixed point.
+     */
+    @FunctionalInterface
+    interface PositionVisitor {
+        void visit(int instrumentId, long quantity, long costBasis, long marketValue, long realizedPnl);
+    }
+
+    private static final class Columns {
+        // Per slot
+        final long[] versions;
+        final long[] quantities;
+        final long[] costBases;
+        final long[] marketValues;
+        final long[] realizedPnls;
+        final int[] instrumentIds;
+        final int[] accounts;
+        final int[] next; // Next slot of the same account, plus one; 0 ends the chain
+        // Per account
+        final int[] heads; // First slot, plus one; 0 for none
+        final long[] accountVersions;
+        final long[] accountTotals; // TOTALS entries per account
+
+        Columns(int capacity, int accountCapacity) {
+            versions = new long[capacity];
+            quantities = new long[capacity];
+            costBases = new long[capacity];
+            marketValues = new long[capacity];
+            realizedPnls = new long[capacity];
+            instrumentIds = new int[capacity];
+            accounts = new int[capacity];
+            next = new int[capacity];
+            heads = new int[accountCapacity];
+            accountVersions = new long[accountCapacity];
+            accountTotals = new long[accountCapacity * TOTALS];
+        }
+
+        Columns(Columns from, int capacity, int accountCapacity) {
+            versions = Arrays.copyOf(from.versions, capacity);
+            quantities = Arrays.copyOf(from.quantities, capacity);
+            costBases = Arrays.copyOf(from.costBases, capacity);
+            marketValues = Arrays.copyOf(from.marketValues, capacity);
+            realizedPnls = Arrays.copyOf(from.realizedPnls, capacity);
+            instrumentIds = Arrays.copyOf(from.instrumentIds, capacity);
+            accounts = Arrays.copyOf(from.accounts, capacity);
+            next = Arrays.copyOf(from.next, capacity);
+            heads = Arrays.copyOf(from.heads, accountCapacity);
+            accountVersions = Arrays.copyOf(from.accountVersions, accountCapacity);
+            accountTotals = Arrays.copyOf(from.accountTotals, accountCapacity * TOTALS);
+        }
+    }
+
+    /**
+     * Layout of an account's totals, as filled in by {@link #readTotals}.
+     */
+    static final int MARKET_VALUE = 0;
+    static final int COST_BASIS = 1;
+    static final int REALIZED_PNL = 2;
+    static final int TOTALS = 3;
+
+    // Ledger stage only
+    private final int shardCount;
+    private final LongLongMap slots = new LongLongMap(64);
+    private final Position scratch = new Position();
+    private int size;
+    private int[] nextInInstrument = new int[64]; // Next slot of the same instrument, plus one
+    // By instrumentId / shardCount
+    private int[] instrumentHeads = new int[16];
+    private long[] marks = new long[16];
+    private long[] pendingMarks = new long[16]; // 0 for no pending tick
+    private int[] pendingInstruments = new int[16];
+    private int pendingCount;
+
+    private volatile Columns columns = new Columns(64, 64);
+
+    PositionBook(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    static long key(int account, int instrumentId) {
+        return (long) account << 32 | instrumentId;
+    }
+
+    /**
+     * Book a fill against the account's position at the instrument's current mark. Ledger stage only.
+     */
+    void apply(int account, int instrumentId, Side side, long quantity, long price) {
+        int slot = slotFor(account, instrumentId);
+        Columns current = columns;
+        scratch.set(current.quantities[slot], current.costBases[slot]);
+        long realized = scratch.apply(side, quantity, price);
+        long mark = marks[instrumentSlot(instrumentId)];
+        write(current, slot, scratch.getQuantity(), scratch.getCostBasis(),
+                FixedPoint.multiply(scratch.getQuantity(), mark != 0 ? mark : price),
+                Math.addExact(current.realizedPnls[slot], realized));
+    }
+
+    /**
+     * Record a trade price; positions in the instrument are revalued by {@link #applyTicks}, once
+     * for all the ticks recorded since. Ledger stage only.
+     */
+    void tick(int instrumentId, long price) {
+        int index = instrumentSlot(instrumentId);
+        if (pendingMarks[index] == 0) {
+            if (pendingCount == pendingInstruments.length) {
+                pendingInstruments = Arrays.copyOf(pendingInstruments, pendingCount << 1);
+            }
+            pendingInstruments[pendingCount++] = instrumentId;
+        }
+        pendingMarks[index] = price;
+    }
+
+    /**
+     * Revalue the positions of every instrument ticked since the last call. Ledger stage only.
+     */
+    void applyTicks() {
+        for (int i = 0; i < pendingCount; i++) {
+            int index = instrumentSlot(pendingInstruments[i]);
+            long price = pendingMarks[index];
+            pendingMarks[index] = 0;
+            revalue(index, price);
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Set the instrument's mark and revalue its positions at once. Ledger stage only.
+     */
+    void mark(int instrumentId, long price) {
+        revalue(instrumentSlot(instrumentId), price);
+    }
+
+    /**
+     * Load a position from a snapshot, valued at the instrument's mark. Ledger stage only.
+     */
+    void restore(int account, int instrumentId, long quantity, long costBasis, long realizedPnl) {
+        int slot = slotFor(account, instrumentId);
+        write(columns, slot, quantity, costBasis,
+                FixedPoint.multiply(quantity, marks[instrumentSlot(instrumentId)]), realizedPnl);
+    }
+
+    /**
+     * Copy every position with a holding or realized PnL. Ledger stage only, so the copy is exact.
+     */
+    void capture(List<PositionSnapshot> into) {
+        Columns current = columns;
+        for (int slot = 0; slot < size; slot++) {
+            if (current.quantities[slot] != 0 || current.costBases[slot] != 0 || current.realizedPnls[slot] != 0) {
+                into.add(new PositionSnapshot(current.accounts[slot], current.instrumentIds[slot],
+                        current.quantities[slot], current.costBases[slot], current.realizedPnls[slot]));
+            }
+        }
+    }
+
+    /**
+     * Visit a consistent copy of each of the account's positions in this shard. Any thread.
+     */
+    void read(int account, PositionVisitor visitor) {
+        Columns current = columns;
+        if (account >= current.heads.length) {
+            return;
+        }
+        for (int slot = (int) INTS.getAcquire(current.heads, account) - 1; slot >= 0;
+             slot = current.next[slot] - 1) {
+            long quantity;
+            long costBasis;
+            long marketValue;
+            long realizedPnl;
+            while (true) {
+                long seen = (long) LONGS.getAcquire(current.versions, slot);
+                if ((seen & 1) == 0) {
+                    quantity = current.quantities[slot];
+                    costBasis = current.costBases[slot];
+                    marketValue = current.marketValues[slot];
+                    realizedPnl = current.realizedPnls[slot];
+                    VarHandle.loadLoadFence();
+                    if ((long) LONGS.getOpaque(current.versions, slot) == seen) {
+                        break;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+            visitor.visit(current.instrumentIds[slot], quantity, costBasis, marketValue, realizedPnl);
+        }
+    }
+
+    /**
+     * Add a consistent copy of the account's totals in this shard to {@code totals}, laid out as
+     * {@link #MARKET_VALUE}, {@link #COST_BASIS}, {@link #REALIZED_PNL}. Any thread.
+     */
+    void readTotals(int account, long[] totals) {
+        Columns current = columns;
+        if (account >= current.heads.length) {
+            return;
+        }
+        int base = account * TOTALS;
+        while (true) {
+            long seen = (long) LONGS.getAcquire(current.accountVersions, account);
+            if ((seen & 1) == 0) {
+                long marketValue = current.accountTotals[base + MARKET_VALUE];
+                long costBasis = current.accountTotals[base + COST_BASIS];
+                long realizedPnl = current.accountTotals[base + REALIZED_PNL];
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.getOpaque(current.accountVersions, account) == seen) {
+                    totals[MARKET_VALUE] += marketValue;
+                    totals[COST_BASIS] += costBasis;
+                    totals[REALIZED_PNL] += realizedPnl;
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void revalue(int index, long price) {
+        marks[index] = price;
+        Columns current = columns;
+        for (int slot = instrumentHeads[index] - 1; slot >= 0; slot = nextInInstrument[slot] - 1) {
+            long quantity = current.quantities[slot];
+            long marketValue = FixedPoint.multiply(quantity, price);
+            if (marketValue != current.marketValues[slot]) {
+                write(current, slot, quantity, current.costBases[slot], marketValue, current.realizedPnls[slot]);
+            }
+        }
+    }
+
+    private int instrumentSlot(int instrumentId) {
+        int index = instrumentId / shardCount;
+        if (index >= marks.length) {
+            int capacity = Math.max(marks.length << 1, index + 1);
+            instrumentHeads = Arrays.copyOf(instrumentHeads, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+            pendingMarks = Arrays.copyOf(pendingMarks, capacity);
+        }
+        return index;
+    }
+
+    private int slotFor(int account, int instrumentId) {
+        long key = key(account, instrumentId);
+        long slot = slots.get(key, -1);
+        if (slot >= 0) {
+            return (int) slot;
+        }
+
+        Columns current = columns;
+        if (size == current.versions.length || account >= current.heads.length) {
+            current = new Columns(current, size == current.versions.length ? size << 1 : current.versions.length,
+                    Math.max(current.heads.length, Integer.highestOneBit(account) << 1));
+            columns = current;
+        }
+        int created = size++;
+        current.instrumentIds[created] = instrumentId;
+        current.accounts[created] = account;
+        current.next[created] = current.heads[account];
+        // Readers reach the slot only through the head, after everything above
+        INTS.setRelease(current.heads, account, created + 1);
+        slots.put(key, created);
+
+        if (created == nextInInstrument.length) {
+            nextInInstrument = Arrays.copyOf(nextInInstrument, created << 1);
+        }
+        int index = instrumentSlot(instrumentId);
+        nextInInstrument[created] = instrumentHeads[index];
+        instrumentHeads[index] = created + 1;
+        return created;
+    }
+
+    // Rewrites the slot and moves its account's totals by the difference
+    private static void write(Columns current, int slot, long quantity, long costBasis, long marketValue,
+                              long realizedPnl) {
+        long marketValueChange = marketValue - current.marketValues[slot];
+        long costBasisChange = costBasis - current.costBases[slot];
+        long realizedPnlChange = realizedPnl - current.realizedPnls[slot];
+
+        long version = current.versions[slot]; // Single writer
+        LONGS.setOpaque(current.versions, slot, version + 1);
+        VarHandle.storeStoreFence();
+        current.quantities[slot] = quantity;
+        current.costBases[slot] = costBasis;
+        current.marketValues[slot] = marketValue;
+        current.realizedPnls[slot] = realizedPnl;
+        LONGS.setRelease(current.versions, slot, version + 2);
+
+        int account = current.accounts[slot];
+        int base = account * TOTALS;
+        long accountVersion = current.accountVersions[account];
+        LONGS.setOpaque(current.accountVersions, account, accountVersion + 1);
+        VarHandle.storeStoreFence();
+        current.accountTotals[base + MARKET_VALUE] += marketValueChange;
+        current.accountTotals[base + COST_BASIS] += costBasisChange;
+        current.accountTotals[base + REALIZED_PNL] += realizedPnlChange;
+        LONGS.setRelease(current.accountVersions, account, accountVersion + 2);
+    }
+}
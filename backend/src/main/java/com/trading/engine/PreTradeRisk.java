@@ -0,0 +1,195 @@
+package com.trading.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Pre-trade risk checks of one shard, run by its match stage before a new order reaches the book.
+ * Everything an order is checked against is kept up to date by the match stage as it goes: the
+ * positions (its sellable quantities), the quantity resting per account, instrument and side, and
+ * a token bucket per account. Positions are long only: a sell may not exceed the holdings that
+ * resting sells of the same account have not already offered, so every fill moves shares that
+ * exist. A check is a few array and primitive map reads; it takes no lock and does not allocate.
+ * Replayed orders are not checked: they already passed when they were placed.
+ * <p>
+ * Rejections are counted per rule. Check latency is timed on one check in
+ * {@link EngineMetrics#sampleEvery()}, which keeps the clock reads out of the other checks.
+ * Counters are written by the match stage only and may be read from any thread.
+ */
+public final class PreTradeRisk {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int CHECKS = 0;
+    private static final int SAMPLES = 1;
+    private static final int SAMPLE_NANOS = 2;
+    private static final RiskRule[] RULES = RiskRule.values();
+
+    private final RiskLimits limits;
+    private final int sampleEvery; // 0 for no timing
+    private final LongLongMap positions; // By PositionBook.key
+    private final LongLongMap restingBuys = new LongLongMap(64);
+    private final LongLongMap restingSells = new LongLongMap(64);
+    private final long burst; // A second's worth of orders, in order-nanoseconds
+    // Token bucket by account: credit in order-nanoseconds and when it was last refilled (0 for never)
+    private long[] credits = new long[64];
+    private long[] refilledAt = new long[64];
+
+    private final long[] counters = new long[3];
+    private final long[] rejections = new long[RULES.length];
+
+    PreTradeRisk(RiskLimits limits, LongLongMap positions, int sampleEvery) {
+        this.limits = limits;
+        this.sampleEvery = sampleEvery;
+        this.positions = positions;
+        this.burst = Math.multiplyExact(limits.maxOrdersPerSecond(), NANOS_PER_SECOND);
+    }
+
+    /**
+     * @param timestamp when the order was accepted, epoch nanoseconds; paces the account's order rate
+     * @return the first rule the order breaks, or null if it may proceed
+     */
+    RiskRule check(int account, ListedInstrument instrument, Side side, OrderStyle style, long price, long quantity,
+                   long timestamp) {
+        long checks = counters[CHECKS] + 1;
+        boolean sampled = sampleEvery > 0 && checks % sampleEvery == 0;
+        long start = sampled ? System.nanoTime() : 0;
+        RiskRule rule = evaluate(account, instrument, side, style, price, quantity, timestamp);
+        if (sampled) {
+            increment(counters, SAMPLE_NANOS, System.nanoTime() - start);
+            increment(counters, SAMPLES, 1);
+        }
+        LONGS.setOpaque(counters, CHECKS, checks);
+        if (rule != null) {
+            increment(rejections, rule.ordinal(), 1);
+        }
+        return rule;
+    }
+
+    /**
+     * Why an order was rejected by the rule, for the caller.
+     */
+    String reason(RiskRule rule) {
+        return switch (rule) {
+            case ORDER_QUANTITY -> "quantity exceeds the maximum order quantity "
+                    + FixedPoint.toDouble(limits.maxOrderQuantity());
+            case ORDER_NOTIONAL -> "notional exceeds the maximum order notional "
+                    + FixedPoint.toDouble(limits.maxOrderNotional());
+            case PRICE_COLLAR -> "price is more than " + limits.priceCollarBps() + " bps away from the last price";
+            case HOLDINGS -> "quantity exceeds the holdings not already offered by resting sells";
+            case POSITION -> "order would take the long exposure beyond " + FixedPoint.toDouble(limits.maxPosition());
+            case ORDER_RATE -> "account exceeds " + limits.maxOrdersPerSecond() + " orders per second";
+        };
+    }
+
+    /**
+     * Track quantity added to (positive) or leaving (negative) the book: sells for the holdings check,
+     * buys for the position limit.
+     */
+    void resting(int account, int instrumentId, Side side, long change) {
+        if (side == Side.BUY && limits.maxPosition() == 0) {
+            return;
+        }
+        long key = PositionBook.key(account, instrumentId);
+        LongLongMap resting = side == Side.BUY ? restingBuys : restingSells;
+        resting.put(key, resting.get(key, 0) + change);
+    }
+
+    public RiskLimits getLimits() {
+        return limits;
+    }
+
+    public long getChecks() {
+        return (long) LONGS.getOpaque(counters, CHECKS);
+    }
+
+    public long getRejections(RiskRule rule) {
+        return (long) LONGS.getOpaque(rejections, rule.ordinal());
+    }
+
+    /**
+     * Number of timed checks, one in {@link EngineMetrics#sampleEvery()}
+     */
+    public long getSampledChecks() {
+        return (long) LONGS.getOpaque(counters, SAMPLES);
+    }
+
+    public long getSampledNanos() {
+        return (long) LONGS.getOpaque(counters, SAMPLE_NANOS);
+    }
+
+    private RiskRule evaluate(int account, ListedInstrument instrument, Side side, OrderStyle style, long price,
+                              long quantity, long timestamp) {
+        if (limits.maxOrderQuantity() > 0 && quantity > limits.maxOrderQuantity()) {
+            return RiskRule.ORDER_QUANTITY;
+        }
+        long lastPrice = instrument.getLastPrice();
+        if (limits.maxOrderNotional() > 0
+                && exceedsNotional(quantity, style == OrderStyle.LIMIT ? price : lastPrice)) {
+            return RiskRule.ORDER_NOTIONAL;
+        }
+        if (limits.priceCollarBps() > 0 && style == OrderStyle.LIMIT && lastPrice > 0 && Math.abs(price - lastPrice)
+                > FixedPoint.multiplyDivide(lastPrice, limits.priceCollarBps(), 10_000)) {
+            return RiskRule.PRICE_COLLAR;
+        }
+        if (side == Side.SELL && exceedsHoldings(account, instrument.getId(), quantity)) {
+            return RiskRule.HOLDINGS;
+        }
+        if (side == Side.BUY && limits.maxPosition() > 0 && exceedsPosition(account, instrument.getId(), quantity)) {
+            return RiskRule.POSITION;
+        }
+        if (limits.maxOrdersPerSecond() > 0 && !takeCredit(account, timestamp)) {
+            return RiskRule.ORDER_RATE;
+        }
+        return null;
+    }
+
+    private boolean exceedsNotional(long quantity, long price) {
+        try {
+            return FixedPoint.multiply(quantity, price) > limits.maxOrderNotional();
+        } catch (ArithmeticException e) {
+            return true; // Beyond any limit
+        }
+    }
+
+    private boolean exceedsHoldings(int account, int instrumentId, long quantity) {
+        long key = PositionBook.key(account, instrumentId);
+        return restingSells.get(key, 0) + quantity > positions.get(key, 0);
+    }
+
+    // Positions are long only, so only buys add exposure: the position plus resting buys
+    private boolean exceedsPosition(int account, int instrumentId, long quantity) {
+        long key = PositionBook.key(account, instrumentId);
+        return positions.get(key, 0) + restingBuys.get(key, 0) + quantity > limits.maxPosition();
+    }
+
+    private boolean takeCredit(int account, long timestamp) {
+        if (account >= credits.length) {
+            int capacity = Math.max(credits.length << 1, account + 1);
+            credits = Arrays.copyOf(credits, capacity);
+            refilledAt = Arrays.copyOf(refilledAt, capacity);
+        }
+        long last = refilledAt[account];
+        long elapsed = timestamp - last;
+        long credit;
+        if (last == 0 || elapsed >= NANOS_PER_SECOND) {
+            credit = burst;
+        } else if (elapsed > 0) {
+            credit = Math.min(burst, credits[account] + elapsed * limits.maxOrdersPerSecond());
+        } else {
+            credit = credits[account]; // Accepted out of order by another request thread
+        }
+        refilledAt[account] = Math.max(last, timestamp);
+        if (credit < NANOS_PER_SECOND) {
+            credits[account] = credit;
+            return false;
+        }
+        credits[account] = credit - NANOS_PER_SECOND;
+        return true;
+    }
+
+    // Single writer: a plain read and an opaque write are enough for readers to see a whole value
+    private static void increment(long[] counters, int index, long amount) {
+        LONGS.setOpaque(counters, index, counters[index] + amount);
+    }
+}
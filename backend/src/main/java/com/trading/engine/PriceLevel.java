@@ -0,0 +1,76 @@
+package com.trading.engine;
+
+/**
+ * All resting orders at a single price, kept in arrival (time priority) order as an intrusive
+ * doubly linked list so any order can be unlinked in O(1).
+ */
+public class PriceLevel {
+    long price;
+    Long key; // Boxed once per level for the sorted level index
+    BookOrder head;
+    BookOrder tail;
+    int orderCount;
+    long totalQuantity;
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public boolean isEmpty() {
+        return head == null;
+    }
+
+    void init(long price) {
+        this.price = price;
+        this.key = price;
+    }
+
+    void add(BookOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        orderCount++;
+        totalQuantity += order.getRemainingQuantity();
+    }
+
+    void remove(BookOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalQuantity -= order.getRemainingQuantity();
+        orderCount--;
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+
+    void reset() {
+        price = 0;
+        key = null;
+        head = null;
+        tail = null;
+        orderCount = 0;
+        totalQuantity = 0;
+    }
+}
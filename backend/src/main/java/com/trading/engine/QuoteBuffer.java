@@ -0,0 +1,163 @@
+package com.trading.engine;
+
+import com.trading.model.Quote;
+import com.trading.model.QuoteLevel;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latest market data of one instrument: last trade, and the top {@value #DEPTH} levels of each side
+ * of its book. Written only by the match stage of the shard owning the instrument, read by any thread.
+ * <p>
+ * The fields are guarded by a sequence lock: the writer makes the version odd, overwrites the fields
+ * in place and makes it even again, so publishing neither allocates nor waits for readers. Readers
+ * copy the fields and retry if the version moved while they were copying.
+ * <p>
+ * The pending flag is set while a change notification for the instrument is queued on the
+ * {@link EventFeed}; later changes ride on that notification, which reads whatever is latest.
+ */
+public final class QuoteBuffer {
+    public static final int DEPTH = 10;
+
+    private static final VarHandle VERSION;
+    private static final VarHandle PENDING;
+    private static final VarHandle RESTING_ORDERS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VERSION = lookup.findVarHandle(QuoteBuffer.class, "version", long.class);
+            PENDING = lookup.findVarHandle(QuoteBuffer.class, "pending", int.class);
+            RESTING_ORDERS = lookup.findVarHandle(QuoteBuffer.class, "restingOrders", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private long version;
+    private int pending;
+    private int restingOrders;
+
+    private long lastPrice;
+    private long lastQuantity;
+    private long timestamp;
+    private int bidLevels;
+    private int askLevels;
+    private final long[] bidPrices = new long[DEPTH];
+    private final long[] bidQuantities = new long[DEPTH];
+    private final int[] bidOrders = new int[DEPTH];
+    private final long[] askPrices = new long[DEPTH];
+    private final long[] askQuantities = new long[DEPTH];
+    private final int[] askOrders = new int[DEPTH];
+
+    /**
+     * Match stage only.
+     * @param book null while the instrument is delisted
+     */
+    void update(OrderBook book, long lastPrice, long lastQuantity, long timestamp) {
+        long next = version + 1; // Single writer
+        VERSION.setOpaque(this, next);
+        VarHandle.storeStoreFence();
+        this.lastPrice = lastPrice;
+        this.lastQuantity = lastQuantity;
+        this.timestamp = timestamp;
+        bidLevels = book == null ? 0 : book.depth(Side.BUY, bidPrices, bidQuantities, bidOrders);
+        askLevels = book == null ? 0 : book.depth(Side.SELL, askPrices, askQuantities, askOrders);
+        RESTING_ORDERS.setOpaque(this, book == null ? 0 : book.getRestingOrderCount());
+        VERSION.setRelease(this, next + 1);
+    }
+
+    /**
+     * Orders resting on the whole book, not only the top levels. A single field, read without the
+     * sequence lock.
+     */
+    public int getRestingOrders() {
+        return (int) RESTING_ORDERS.getOpaque(this);
+    }
+
+    /**
+     * Flag that a notification is about to be queued.
+     * @return false if one is queued already
+     */
+    boolean markPending() {
+        // An unconditional write, so the dispatcher clearing the flag sees this update
+        return (int) PENDING.getAndSet(this, 1) == 0;
+    }
+
+    void clearPending() {
+        PENDING.getAndSet(this, 0);
+    }
+
+    /**
+     * Consistent copy of the current quote.
+     */
+    public Quote read(String symbol) {
+        long[] copyBidPrices = new long[DEPTH];
+        long[] copyBidQuantities = new long[DEPTH];
+        int[] copyBidOrders = new int[DEPTH];
+        long[] copyAskPrices = new long[DEPTH];
+        long[] copyAskQuantities = new long[DEPTH];
+        int[] copyAskOrders = new int[DEPTH];
+        long copyLastPrice;
+        long copyLastQuantity;
+        long copyTimestamp;
+        int copyBidLevels;
+        int copyAskLevels;
+        long seen;
+        while (true) {
+            seen = (long) VERSION.getAcquire(this);
+            if ((seen & 1) == 0) {
+                copyLastPrice = lastPrice;
+                copyLastQuantity = lastQuantity;
+                copyTimestamp = timestamp;
+                copyBidLevels = bidLevels;
+                copyAskLevels = askLevels;
+                System.arraycopy(bidPrices, 0, copyBidPrices, 0, copyBidLevels);
+                System.arraycopy(bidQuantities, 0, copyBidQuantities, 0, copyBidLevels);
+                System.arraycopy(bidOrders, 0, copyBidOrders, 0, copyBidLevels);
+                System.arraycopy(askPrices, 0, copyAskPrices, 0, copyAskLevels);
+                System.arraycopy(askQuantities, 0, copyAskQuantities, 0, copyAskLevels);
+                System.arraycopy(askOrders, 0, copyAskOrders, 0, copyAskLevels);
+                VarHandle.loadLoadFence();
+                if ((long) VERSION.getOpaque(this) == seen) {
+                    break;
+                }
+            }
+            Thread.onSpinWait();
+        }
+
+        Quote quote = new Quote();
+        quote.setSymbol(symbol);
+        quote.setSequence(seen >>> 1);
+        if (seen == 0) {
+            return quote; // Listing has not reached the shard yet
+        }
+        quote.setLastPrice(FixedPoint.toDouble(copyLastPrice));
+        if (copyLastQuantity > 0) {
+            quote.setLastQuantity(FixedPoint.toDouble(copyLastQuantity));
+        }
+        quote.setBids(levels(copyBidLevels, copyBidPrices, copyBidQuantities, copyBidOrders));
+        quote.setAsks(levels(copyAskLevels, copyAskPrices, copyAskQuantities, copyAskOrders));
+        if (copyBidLevels > 0) {
+            quote.setBidPrice(FixedPoint.toDouble(copyBidPrices[0]));
+            quote.setBidQuantity(FixedPoint.toDouble(copyBidQuantities[0]));
+        }
+        if (copyAskLevels > 0) {
+            quote.setAskPrice(FixedPoint.toDouble(copyAskPrices[0]));
+            quote.setAskQuantity(FixedPoint.toDouble(copyAskQuantities[0]));
+        }
+        quote.setTimestamp(EngineClock.toLocalDateTime(copyTimestamp));
+        return quote;
+    }
+
+    private static List<QuoteLevel> levels(int count, long[] prices, long[] quantities, int[] orders) {
+        List<QuoteLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            levels.add(new QuoteLevel(FixedPoint.toDouble(prices[i]), FixedPoint.toDouble(quantities[i]), orders[i]));
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,175 @@
+package com.trading.engine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated entries.
+ * Producers claim a sequence, fill the entry in place and publish it; the consumer drains
+ * every contiguous published entry in one batch. Producers wait (spin/park) while the ring
+ * is full, which is the pipeline's back-pressure.
+ */
+public class RingBuffer<E> {
+    private static final int SPIN_LIMIT = 1_000;
+    private static final long PARK_NANOS = 100_000;
+
+    private final Object[] entries;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final AtomicBoolean consumerParked = new AtomicBoolean();
+    private volatile Thread consumerThread;
+    private int idleSpins;
+
+    public RingBuffer(int capacity, Supplier<E> factory) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of 2");
+        }
+        this.entries = new Object[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+            published.set(i, -1);
+        }
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Number of entries claimed by producers and not yet consumed.
+     */
+    public long getDepth() {
+        return Math.max(0, claimed.get() - consumed.get());
+    }
+
+    /**
+     * Claim the next sequence, waiting while the ring is full.
+     */
+    public long next() {
+        return next(1);
+    }
+
+    /**
+     * Claim count consecutive sequences (at most the capacity) at once, waiting while the ring is full.
+     * @return the last claimed sequence; the claim starts at {@code last - count + 1}
+     */
+    public long next(int count) {
+        long last = claimed.addAndGet(count);
+        long wrapPoint = last - entries.length;
+        while (wrapPoint > consumed.get()) {
+            wakeConsumer();
+            LockSupport.parkNanos(1_000);
+        }
+        return last;
+    }
+
+    /**
+     * Claim the next sequence without waiting, for producers that would rather drop than stall.
+     * @return the claimed sequence, or -1 if the ring is full
+     */
+    public long tryNext() {
+        while (true) {
+            long current = claimed.get();
+            if (current + 1 - entries.length > consumed.get()) {
+                return -1;
+            }
+            if (claimed.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) (sequence & mask)];
+    }
+
+    /**
+     * Make a claimed entry visible to the consumer.
+     */
+    public void publish(long sequence) {
+        published.set((int) (sequence & mask), sequence);
+        if (consumerParked.get()) {
+            wakeConsumer();
+        }
+    }
+
+    /**
+     * Make a claimed range visible to the consumer all at once: the first entry is published last,
+     * and the consumer only drains contiguous entries.
+     */
+    public void publish(long first, long last) {
+        for (long sequence = last; sequence >= first; sequence--) {
+            published.set((int) (sequence & mask), sequence);
+        }
+        if (consumerParked.get()) {
+            wakeConsumer();
+        }
+    }
+
+    /**
+     * Consumer side: hand every contiguous published entry (up to maxBatch) to the handler.
+     * Entries are released back to producers only after the whole batch has been handled.
+     * @return number of entries handled
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(EventHandler<E> handler, int maxBatch) {
+        long first = consumed.get() + 1;
+        long available = first;
+        while (available - first < maxBatch && published.get((int) (available & mask)) == available) {
+            available++;
+        }
+        if (available == first) {
+            return 0;
+        }
+
+        long last = available - 1;
+        for (long sequence = first; sequence <= last; sequence++) {
+            handler.onEvent((E) entries[(int) (sequence & mask)], sequence, sequence == last);
+        }
+        consumed.set(last);
+        return (int) (available - first);
+    }
+
+    /**
+     * Consumer side: back off after an empty drain, spinning first and then parking until
+     * a producer publishes.
+     */
+    public void idle() {
+        if (idleSpins < SPIN_LIMIT) {
+            idleSpins++;
+            Thread.onSpinWait();
+            return;
+        }
+        if (consumerThread == null) {
+            consumerThread = Thread.currentThread();
+        }
+        // Re-check after advertising the park so a concurrent publish cannot be missed
+        consumerParked.set(true);
+        if (published.get((int) ((consumed.get() + 1) & mask)) != consumed.get() + 1) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        consumerParked.set(false);
+    }
+
+    /**
+     * Consumer side: reset the back-off after useful work.
+     */
+    public void busy() {
+        idleSpins = 0;
+    }
+
+    private void wakeConsumer() {
+        Thread consumer = consumerThread;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.trading.engine;
+
+/**
+ * Pre-trade limits applied to every new order, in fixed point where they are amounts; 0 disables a
+ * limit. The position limit bounds an account's long exposure (position plus resting buys) per
+ * instrument; sells are covered by the {@link RiskRule#HOLDINGS} rule, which keeps them within the
+ * position. The price collar bounds a limit price's distance from the last price, in basis points;
+ * the order rate is per account and shard.
+ */
+public record RiskLimits(long maxOrderQuantity, long maxOrderNotional, long maxPosition, long priceCollarBps,
+                         long maxOrdersPerSecond) {
+
+    public static final RiskLimits NONE = new RiskLimits(0, 0, 0, 0, 0);
+}
@@ -0,0 +1,13 @@
+package com.trading.engine;
+
+/**
+ * Pre-trade check an order can be rejected by, in the order they are evaluated.
+ */
+public enum RiskRule {
+    ORDER_QUANTITY,
+    ORDER_NOTIONAL,
+    PRICE_COLLAR,
+    HOLDINGS,
+    POSITION,
+    ORDER_RATE
+}
@@ -0,0 +1,131 @@
+package com.trading.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exact state of one shard at a snapshot cut: its books and last trades (captured by the match
+ * stage), its positions per account and the journal position the cut corresponds to (captured by
+ * the ledger stage). Replaying the shard's journal from that position on top of this state
+ * reproduces the shard; the match stage's sellable quantities are rebuilt from the positions.
+ */
+public class ShardSnapshot {
+    private final int shard;
+    private long journalGeneration;
+    private int journalSegment;
+    private int journalOffset;
+    private final List<BookSnapshot> books = new ArrayList<>();
+    private final List<PositionSnapshot> positions = new ArrayList<>();
+
+    /**
+     * One resting order, in book priority order.
+     */
+    public record RestingOrder(long orderId, int account, Side side, OrderStyle style, long price, long quantity,
+                               long filledQuantity) {
+    }
+
+    /**
+     * Match-stage state of one instrument; {@code listed} is false for an instrument that was
+     * delisted but has traded.
+     */
+    public record BookSnapshot(int instrumentId, boolean listed, long lastPrice, long lastQuantity,
+                               List<RestingOrder> orders) {
+    }
+
+    public record PositionSnapshot(int account, int instrumentId, long quantity, long costBasis, long realizedPnl) {
+    }
+
+    public ShardSnapshot(int shard) {
+        this.shard = shard;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public long getJournalGeneration() {
+        return journalGeneration;
+    }
+
+    public int getJournalSegment() {
+        return journalSegment;
+    }
+
+    public int getJournalOffset() {
+        return journalOffset;
+    }
+
+    public List<BookSnapshot> getBooks() {
+        return books;
+    }
+
+    public List<PositionSnapshot> getPositions() {
+        return positions;
+    }
+
+    void setJournalPosition(long generation, int segment, int offset) {
+        this.journalGeneration = generation;
+        this.journalSegment = segment;
+        this.journalOffset = offset;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(shard);
+        out.writeLong(journalGeneration);
+        out.writeInt(journalSegment);
+        out.writeInt(journalOffset);
+        out.writeInt(books.size());
+        for (BookSnapshot book : books) {
+            out.writeInt(book.instrumentId());
+            out.writeBoolean(book.listed());
+            out.writeLong(book.lastPrice());
+            out.writeLong(book.lastQuantity());
+            out.writeInt(book.orders().size());
+            for (RestingOrder order : book.orders()) {
+                out.writeLong(order.orderId());
+                out.writeInt(order.account());
+                out.writeByte(order.side().ordinal());
+                out.writeByte(order.style().ordinal());
+                out.writeLong(order.price());
+                out.writeLong(order.quantity());
+                out.writeLong(order.filledQuantity());
+            }
+        }
+        out.writeInt(positions.size());
+        for (PositionSnapshot position : positions) {
+            out.writeInt(position.account());
+            out.writeInt(position.instrumentId());
+            out.writeLong(position.quantity());
+            out.writeLong(position.costBasis());
+            out.writeLong(position.realizedPnl());
+        }
+    }
+
+    static ShardSnapshot readFrom(DataInputStream in) throws IOException {
+        ShardSnapshot snapshot = new ShardSnapshot(in.readInt());
+        snapshot.setJournalPosition(in.readLong(), in.readInt(), in.readInt());
+        int bookCount = in.readInt();
+        for (int i = 0; i < bookCount; i++) {
+            int instrumentId = in.readInt();
+            boolean listed = in.readBoolean();
+            long lastPrice = in.readLong();
+            long lastQuantity = in.readLong();
+            int orderCount = in.readInt();
+            List<RestingOrder> orders = new ArrayList<>(orderCount);
+            for (int j = 0; j < orderCount; j++) {
+                orders.add(new RestingOrder(in.readLong(), in.readInt(), Side.fromOrdinal(in.readByte()),
+                        OrderStyle.fromOrdinal(in.readByte()), in.readLong(), in.readLong(), in.readLong()));
+            }
+            snapshot.books.add(new BookSnapshot(instrumentId, listed, lastPrice, lastQuantity, orders));
+        }
+        int positionCount = in.readInt();
+        for (int i = 0; i < positionCount; i++) {
+            snapshot.positions.add(new PositionSnapshot(in.readInt(), in.readInt(), in.readLong(), in.readLong(),
+                    in.readLong()));
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,64 @@
+package com.trading.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Routes commands for an instrument to the single {@link EngineShard} that owns it.
+ * Instruments are partitioned over a fixed number of shards by their dense registry id.
+ */
+public class ShardedSequencer {
+    private final EngineShard[] shards;
+    private final long generation;
+
+    /**
+     * @param journal per-shard journal settings, or null to run without a journal
+     * @param feed feed the shards publish trades and order-state changes to, or null
+     */
+    public ShardedSequencer(int shardCount, int ringSize, int maxBatch, InstrumentRegistry registry,
+                            AccountRegistry accounts, OrderStore orderStore, TradeStore tradeStore,
+                            JournalSettings journal, EventFeed feed, RiskLimits riskLimits, EngineMetrics metrics) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be greater than 0");
+        }
+        this.shards = new EngineShard[shardCount];
+        this.generation = journal != null ? Journal.nextGeneration(journal.directory()) : 0;
+        for (int i = 0; i < shardCount; i++) {
+            Journal shardJournal = journal == null ? null : new Journal(journal.directory(), generation, i,
+                    journal.segmentSize(), journal.syncEveryEvents(), journal.syncIntervalMicros());
+            shards[i] = new EngineShard(i, shardCount, ringSize, maxBatch, registry, accounts, orderStore,
+                    tradeStore, shardJournal, feed, riskLimits, metrics);
+        }
+    }
+
+    public void start() {
+        for (EngineShard shard : shards) {
+            shard.start();
+        }
+    }
+
+    public void stop() {
+        for (EngineShard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    /**
+     * Journal generation written by this run, 0 without a journal.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public List<EngineShard> getShards() {
+        return Arrays.asList(shards);
+    }
+
+    public EngineShard shardFor(ListedInstrument instrument) {
+        return shards[instrument.getId() % shards.length];
+    }
+}
@@ -0,0 +1,30 @@
+package com.trading.engine;
+
+public enum Side {
+    BUY,
+    SELL;
+
+    private static final Side[] VALUES = values();
+
+    public static Side fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public Side opposite() {
+        return this == BUY ? SELL : BUY;
+    }
+
+    /**
+     * Case-insensitive parse of a request value without allocating.
+     * @return the side, or null if the value is not BUY or SELL
+     */
+    public static Side parse(String value) {
+        if ("BUY".equalsIgnoreCase(value)) {
+            return BUY;
+        }
+        if ("SELL".equalsIgnoreCase(value)) {
+            return SELL;
+        }
+        return null;
+    }
+}
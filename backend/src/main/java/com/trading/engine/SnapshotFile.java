@@ -0,0 +1,125 @@
+package com.trading.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Binary snapshot file: header, the shard snapshots (books, positions and the journal position
+ * of each shard's cut), then the instrument and account registries, the order store and the trade store's indexes
+ * (trade rows themselves live in the trade archive).
+ * <p>
+ * Files are named {@code snapshot-<generation>-<epochMillis>.snap}, written to a temporary file
+ * and only renamed into place once complete and fsynced, so the latest snapshot file in the
+ * directory is always a whole one.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x54534E50;
+    private static final int VERSION = 5;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /**
+     * What a snapshot holds besides the stores, which are loaded in place.
+     */
+    public record Contents(long generation, List<ShardSnapshot> shards) {
+    }
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Write the snapshot to a temporary file in the directory; see {@link #commit(Path)}.
+     */
+    static Path writeTemporary(Path directory, long generation, List<ShardSnapshot> shards,
+                               InstrumentRegistry registry, AccountRegistry accounts, OrderStore orderStore,
+                               TradeStore tradeStore) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(String.format("%s%012d-%013d%s%s", PREFIX, generation,
+                System.currentTimeMillis(), SUFFIX, TEMPORARY_SUFFIX));
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeInt(shards.size());
+            for (ShardSnapshot shard : shards) {
+                shard.writeTo(out);
+            }
+            registry.writeSnapshot(out);
+            accounts.writeSnapshot(out);
+            orderStore.writeSnapshot(out);
+            tradeStore.writeSnapshot(out);
+            out.flush();
+            file.getChannel().force(true);
+        }
+        return temporary;
+    }
+
+    /**
+     * Atomically publish a temporary snapshot file.
+     * @return the final snapshot path
+     */
+    static Path commit(Path temporary) throws IOException {
+        String name = temporary.getFileName().toString();
+        Path file = temporary.resolveSibling(name.substring(0, name.length() - TEMPORARY_SUFFIX.length()));
+        return Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the newest complete snapshot in the directory, or null if there is none
+     */
+    static Path latest(Path directory) throws IOException {
+        return list(directory).stream().reduce((first, second) -> second).orElse(null);
+    }
+
+    /**
+     * Complete snapshot files in the directory, oldest first.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Load the instruments, accounts, orders and trade indexes of a snapshot into the (empty) stores.
+     */
+    static Contents read(Path file, InstrumentRegistry registry, AccountRegistry accounts, OrderStore orderStore,
+                         TradeStore tradeStore) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported snapshot file " + file);
+            }
+            long generation = in.readLong();
+            int shardCount = in.readInt();
+            List<ShardSnapshot> shards = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                shards.add(ShardSnapshot.readFrom(in));
+            }
+            registry.readSnapshot(in);
+            accounts.readSnapshot(in);
+            orderStore.readSnapshot(in, registry);
+            tradeStore.readSnapshot(in);
+            return new Contents(generation, shards);
+        }
+    }
+}
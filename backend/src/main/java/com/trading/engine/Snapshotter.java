@@ -0,0 +1,83 @@
+package com.trading.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Takes snapshots while the engine keeps running.
+ * <p>
+ * The only work on the shard threads is the cut itself: a SNAPSHOT command copies each shard's
+ * books and positions at an exact point of its command stream. The order store, trade indexes and
+ * registry are then copied and written from the calling thread without stopping matching, so those
+ * rows may be ahead of the cut; before the file is published every shard fsyncs its journal and the
+ * trade archive is forced, which guarantees replaying the tail from the cut reaches at least the
+ * state the copied rows reflect and that every trade the indexes point to is on disk.
+ * <p>
+ * Once a snapshot is published, older snapshots and journal generations before it are deleted.
+ */
+public class Snapshotter {
+    private final Path directory;
+    private final Path journalDirectory;
+    private final ShardedSequencer sequencer;
+    private final InstrumentRegistry registry;
+    private final AccountRegistry accounts;
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+
+    public Snapshotter(Path directory, Path journalDirectory, ShardedSequencer sequencer, InstrumentRegistry registry,
+                       AccountRegistry accounts, OrderStore orderStore, TradeStore tradeStore) {
+        this.directory = directory;
+        this.journalDirectory = journalDirectory;
+        this.sequencer = sequencer;
+        this.registry = registry;
+        this.accounts = accounts;
+        this.orderStore = orderStore;
+        this.tradeStore = tradeStore;
+    }
+
+    /**
+     * @return the published snapshot file
+     */
+    public synchronized Path takeSnapshot() {
+        List<ShardSnapshot> cuts = joinAll(sequencer.getShards().stream().map(EngineShard::snapshot).toList());
+        try {
+            Path temporary = SnapshotFile.writeTemporary(directory, sequencer.getGeneration(), cuts, registry,
+                    accounts, orderStore, tradeStore);
+            joinAll(sequencer.getShards().stream().map(EngineShard::syncJournal).toList());
+            tradeStore.force();
+            Path file = SnapshotFile.commit(temporary);
+            prune(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void prune(Path latest) throws IOException {
+        for (Path snapshot : SnapshotFile.list(directory)) {
+            if (!snapshot.equals(latest)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            for (Path file : files.toList()) {
+                long generation = Journal.generationOf(file);
+                if (generation > 0 && generation < sequencer.getGeneration()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+}
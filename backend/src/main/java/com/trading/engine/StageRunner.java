@@ -0,0 +1,92 @@
+package com.trading.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Dedicated thread that drains one {@link RingBuffer} into one {@link EventHandler}.
+ * An optional idle task runs on the same thread after every empty drain.
+ * <p>
+ * The thread stamps a heartbeat on every pass of its loop, busy or idle; an idle pass parks for at
+ * most a fraction of a millisecond. An old heartbeat therefore means the thread is stuck inside one
+ * batch or idle task, whatever the state of its ring.
+ */
+public class StageRunner<E> implements Runnable {
+    private static final VarHandle HEARTBEAT;
+
+    static {
+        try {
+            HEARTBEAT = MethodHandles.lookup().findVarHandle(StageRunner.class, "heartbeat", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final RingBuffer<E> ring;
+    private final EventHandler<E> handler;
+    private final int maxBatch;
+    private final Runnable idleTask;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long heartbeat; // System.nanoTime() at the start of the last pass
+
+    public StageRunner(String name, RingBuffer<E> ring, EventHandler<E> handler, int maxBatch) {
+        this(name, ring, handler, maxBatch, null);
+    }
+
+    public StageRunner(String name, RingBuffer<E> ring, EventHandler<E> handler, int maxBatch, Runnable idleTask) {
+        this.ring = ring;
+        this.handler = handler;
+        this.maxBatch = maxBatch;
+        this.idleTask = idleTask;
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        HEARTBEAT.setOpaque(this, System.nanoTime());
+        thread.start();
+    }
+
+    /**
+     * Stop the thread and wait for it to finish the batch in progress.
+     */
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return {@link System#nanoTime()} when the thread last started a pass of its loop
+     */
+    public long getHeartbeat() {
+        return (long) HEARTBEAT.getOpaque(this);
+    }
+
+    /**
+     * False once the thread has stopped, including after a handler threw.
+     */
+    public boolean isAlive() {
+        return thread.isAlive();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            HEARTBEAT.setOpaque(this, System.nanoTime());
+            if (ring.drain(handler, maxBatch) > 0) {
+                ring.busy();
+            } else {
+                if (idleTask != null) {
+                    idleTask.run();
+                }
+                ring.idle();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.trading.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Disk tier of the {@link TradeStore}: every trade as a fixed-size record in memory-mapped
+ * segment files, so a trade id maps straight to a file offset and reading an old trade costs at
+ * most a page fault rather than heap. Records are written once; the trade id field is written
+ * last with release semantics and doubles as the record's "written" flag.
+ */
+class TradeArchive {
+    static final int RECORD_SIZE = 80;
+    private static final int RECORDS_PER_SEGMENT = 1 << 20;
+    private static final int SEGMENT_SIZE = RECORDS_PER_SEGMENT * RECORD_SIZE;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // Record layout
+    private static final int TRADE_ID = 0;
+    private static final int ORDER_ID = 8;
+    private static final int CONTRA_ORDER_ID = 16;
+    private static final int PRICE = 24;
+    private static final int QUANTITY = 32;
+    private static final int TIMESTAMP = 40;
+    private static final int PREV_BY_INSTRUMENT = 48;
+    private static final int PREV_BY_ORDER = 56;
+    private static final int PREV_BY_CONTRA = 64;
+    private static final int INSTRUMENT_ID = 72;
+    private static final int SIDE = 76;
+
+    private final Path directory;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[16];
+
+    TradeArchive(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void write(long tradeId, TradeRecord record) {
+        MappedByteBuffer segment = segment(tradeId, true);
+        int offset = offset(tradeId);
+        segment.putLong(offset + ORDER_ID, record.orderId);
+        segment.putLong(offset + CONTRA_ORDER_ID, record.contraOrderId);
+        segment.putLong(offset + PRICE, record.price);
+        segment.putLong(offset + QUANTITY, record.quantity);
+        segment.putLong(offset + TIMESTAMP, record.timestamp);
+        segment.putLong(offset + PREV_BY_INSTRUMENT, record.prevByInstrument);
+        segment.putLong(offset + PREV_BY_ORDER, record.prevByOrder);
+        segment.putLong(offset + PREV_BY_CONTRA, record.prevByContra);
+        segment.putInt(offset + INSTRUMENT_ID, record.instrumentId);
+        segment.put(offset + SIDE, record.side);
+        LONGS.setRelease(segment, offset + TRADE_ID, tradeId);
+    }
+
+    boolean contains(long tradeId) {
+        MappedByteBuffer segment = segment(tradeId, false);
+        return segment != null && (long) LONGS.getAcquire(segment, offset(tradeId) + TRADE_ID) == tradeId;
+    }
+
+    /**
+     * @return false if the trade has not been archived
+     */
+    boolean read(long tradeId, TradeRecord record) {
+        MappedByteBuffer segment = segment(tradeId, false);
+        int offset = offset(tradeId);
+        if (segment == null || (long) LONGS.getAcquire(segment, offset + TRADE_ID) != tradeId) {
+            return false;
+        }
+        record.tradeId = tradeId;
+        record.orderId = segment.getLong(offset + ORDER_ID);
+        record.contraOrderId = segment.getLong(offset + CONTRA_ORDER_ID);
+        record.price = segment.getLong(offset + PRICE);
+        record.quantity = segment.getLong(offset + QUANTITY);
+        record.timestamp = segment.getLong(offset + TIMESTAMP);
+        record.prevByInstrument = segment.getLong(offset + PREV_BY_INSTRUMENT);
+        record.prevByOrder = segment.getLong(offset + PREV_BY_ORDER);
+        record.prevByContra = segment.getLong(offset + PREV_BY_CONTRA);
+        record.instrumentId = segment.getInt(offset + INSTRUMENT_ID);
+        record.side = segment.get(offset + SIDE);
+        return true;
+    }
+
+    /**
+     * fsync every mapped segment.
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    private static int offset(long tradeId) {
+        return (int) ((tradeId - 1) % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    private MappedByteBuffer segment(long tradeId, boolean create) {
+        int index = (int) ((tradeId - 1) / RECORDS_PER_SEGMENT);
+        MappedByteBuffer[] current = segments;
+        MappedByteBuffer segment = index < current.length ? current[index] : null;
+        return segment != null ? segment : mapSegment(index, create);
+    }
+
+    // Rare path: once per segment
+    private synchronized MappedByteBuffer mapSegment(int index, boolean create) {
+        MappedByteBuffer[] current = segments;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        Path file = directory.resolve(String.format("trades-%08d.archive", index));
+        if (!create && !Files.exists(file)) {
+            return null;
+        }
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        if (index >= current.length) {
+            MappedByteBuffer[] grown = new MappedByteBuffer[Math.max(current.length << 1, index + 1)];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            current = grown;
+        }
+        current[index] = segment;
+        segments = current;
+        return segment;
+    }
+}
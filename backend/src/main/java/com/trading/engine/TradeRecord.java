@@ -0,0 +1,26 @@
+package com.trading.engine;
+
+/**
+ * Reusable holder for one trade row as stored by the {@link TradeStore}, including the links to
+ * the previous trade of the same instrument, of the order and of the contra order.
+ */
+class TradeRecord {
+    long tradeId;
+    long orderId;
+    long contraOrderId;
+    int instrumentId;
+    byte side;
+    long price;
+    long quantity;
+    long timestamp;
+    long prevByInstrument;
+    long prevByOrder;
+    long prevByContra;
+
+    /**
+     * @return the previous trade in the chain of the given order, which is either side of this trade
+     */
+    long prevForOrder(long orderId) {
+        return orderId == this.orderId ? prevByOrder : prevByContra;
+    }
+}
@@ -0,0 +1,450 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trade history indexed by the dense trade id, in two tiers:
+ * <ul>
+ *   <li>a hot ring of the most recent trades in primitive columns, so heap use is bounded by the
+ *       ring capacity however long the history grows;</li>
+ *   <li>the {@link TradeArchive} on disk, which every trade is written through to and which serves
+ *       whatever has left the ring.</li>
+ * </ul>
+ * Every trade links to the previous trade of its instrument and of each of its orders, so the
+ * secondary indexes by symbol and by order id are just the newest trade id per instrument and per
+ * order; a zone map of min/max timestamp per block of trade ids narrows time-range queries.
+ * Queries walk these chains instead of scanning the history, and {@link Trade} objects are only
+ * built for matching rows at the REST edge.
+ * <p>
+ * Ledger stages of all shards append concurrently. All trades of an instrument, and so of its
+ * orders, come from the ledger stage owning it, so every chain has a single writer.
+ */
+public class TradeStore {
+    private static final int BLOCK_BITS = 12;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final InstrumentRegistry registry;
+    private final OrderStore orderStore;
+    private final TradeArchive archive;
+    private final AtomicLong lastId = new AtomicLong();
+    private final ThreadLocal<TradeRecord> scratch = ThreadLocal.withInitial(TradeRecord::new);
+
+    // Hot ring, slot = tradeId & hotMask; the trade id column is the slot's sequence lock
+    private final int hotMask;
+    private final long[] hotTradeId;
+    private final long[] hotOrderId;
+    private final long[] hotContraOrderId;
+    private final int[] hotInstrumentId;
+    private final byte[] hotSide;
+    private final long[] hotPrice;
+    private final long[] hotQuantity;
+    private final long[] hotTimestamp;
+    private final long[] hotPrevByInstrument;
+    private final long[] hotPrevByOrder;
+    private final long[] hotPrevByContra;
+
+    // Indexes
+    private final LongChunks instrumentHeads = new LongChunks(10, 0);
+    private final LongChunks orderHeads = new LongChunks(14, 0);
+    private final LongChunks blockMinTimestamp = new LongChunks(12, Long.MAX_VALUE);
+    private final LongChunks blockMaxTimestamp = new LongChunks(12, Long.MIN_VALUE);
+
+    /**
+     * @param orderStore where the accounts of a trade's orders are read from
+     */
+    public TradeStore(InstrumentRegistry registry, OrderStore orderStore, Path directory, int hotCapacity) {
+        if (hotCapacity < 1024 || Integer.bitCount(hotCapacity) != 1) {
+            throw new IllegalArgumentException("hotCapacity must be a power of 2 of at least 1024");
+        }
+        this.registry = registry;
+        this.orderStore = orderStore;
+        this.archive = new TradeArchive(directory);
+        this.hotMask = hotCapacity - 1;
+        this.hotTradeId = new long[hotCapacity];
+        this.hotOrderId = new long[hotCapacity];
+        this.hotContraOrderId = new long[hotCapacity];
+        this.hotInstrumentId = new int[hotCapacity];
+        this.hotSide = new byte[hotCapacity];
+        this.hotPrice = new long[hotCapacity];
+        this.hotQuantity = new long[hotCapacity];
+        this.hotTimestamp = new long[hotCapacity];
+        this.hotPrevByInstrument = new long[hotCapacity];
+        this.hotPrevByOrder = new long[hotCapacity];
+        this.hotPrevByContra = new long[hotCapacity];
+    }
+
+    /**
+     * @param contraOrderId resting order matched against, 0 for fills at the market price
+     * @return the new trade id
+     */
+    public long append(long orderId, long contraOrderId, ListedInstrument instrument, Side side, long price,
+                       long quantity, long timestamp) {
+        long tradeId = lastId.incrementAndGet();
+        write(tradeId, orderId, contraOrderId, instrument.getId(), side, price, quantity, timestamp);
+        return tradeId;
+    }
+
+    /**
+     * Put back a journaled trade under its original id. A trade that already made it to the archive
+     * before the restart keeps its record and links; only the in-memory indexes catch up.
+     */
+    void restore(long tradeId, long orderId, long contraOrderId, ListedInstrument instrument, Side side, long price,
+                 long quantity, long timestamp) {
+        lastId.accumulateAndGet(tradeId, Math::max);
+        if (!archive.contains(tradeId)) {
+            write(tradeId, orderId, contraOrderId, instrument.getId(), side, price, quantity, timestamp);
+            return;
+        }
+        instrumentHeads.max(instrument.getId(), tradeId);
+        orderHeads.max(orderId, tradeId);
+        if (contraOrderId != 0) {
+            orderHeads.max(contraOrderId, tradeId);
+        }
+        blockMinTimestamp.min(tradeId >>> BLOCK_BITS, timestamp);
+        blockMaxTimestamp.max(tradeId >>> BLOCK_BITS, timestamp);
+    }
+
+    /**
+     * Highest trade id handed out so far.
+     */
+    public long getLastId() {
+        return lastId.get();
+    }
+
+    /**
+     * Build the JSON-facing view of a trade.
+     * @return the trade, or null if there is no such trade (or it is still being written)
+     */
+    public Trade toTrade(long tradeId) {
+        TradeRecord record = new TradeRecord();
+        return read(tradeId, record) ? toTrade(record) : null;
+    }
+
+    /**
+     * Receives the columns of one trade row.
+     */
+    @FunctionalInterface
+    public interface RowVisitor {
+        /**
+         * @param contraOrderId 0 for fills at the market price
+         */
+        void visit(long tradeId, long orderId, long contraOrderId, ListedInstrument instrument, Side side, long price,
+                   long quantity, long timestamp) throws IOException;
+    }
+
+    /**
+     * Pass a trade's columns to the visitor without building a {@link Trade}.
+     * @return false if there is no such trade (or it is still being written)
+     */
+    public boolean visit(long tradeId, RowVisitor visitor) throws IOException {
+        TradeRecord record = scratch.get();
+        if (!read(tradeId, record)) {
+            return false;
+        }
+        visitor.visit(record.tradeId, record.orderId, record.contraOrderId, registry.get(record.instrumentId),
+                Side.fromOrdinal(record.side), record.price, record.quantity, record.timestamp);
+        return true;
+    }
+
+    /**
+     * Ids of the trades matching every given filter, newest first, for keyset pagination. The query is driven
+     * by the most selective index available: the order's chain, else the instrument's chain, else
+     * the timestamp zone map. On a chain, a page resumes from the link of the previous page's last
+     * trade instead of walking down from the head again.
+     * @param instrument null for any instrument
+     * @param orderId 0 for any order; matches either side of a trade
+     * @param side null for either aggressor side
+     * @param from inclusive lower bound in epoch nanos
+     * @param to exclusive upper bound in epoch nanos
+     * @param before only trades with a lower id; the last id of the previous page
+     * @param ids filled from the start, up to its length
+     * @return number of ids found
+     */
+    public int findIds(ListedInstrument instrument, long orderId, Side side, long from, long to, long before,
+                       long[] ids) {
+        int count = 0;
+        TradeRecord record = new TradeRecord();
+        if (orderId > 0 || instrument != null) {
+            for (long id = chainStart(instrument, orderId, before, record); count < ids.length && read(id, record);
+                 id = previous(id, chainLink(record, orderId))) {
+                // Chains run newest to oldest with non-increasing timestamps
+                if (record.timestamp < from) {
+                    break;
+                }
+                if (matches(record, instrument, side, from, to)) {
+                    ids[count++] = id;
+                }
+            }
+        } else {
+            long id = Math.min(before - 1, lastId.get());
+            while (id > 0 && count < ids.length) {
+                long block = id >>> BLOCK_BITS;
+                long first = Math.max(1, block << BLOCK_BITS);
+                if (blockMaxTimestamp.get(block) < from || blockMinTimestamp.get(block) >= to) {
+                    id = first - 1;
+                    continue;
+                }
+                for (; id >= first && count < ids.length; id--) {
+                    if (read(id, record) && matches(record, null, side, from, to)) {
+                        ids[count++] = id;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * fsync the disk tier.
+     */
+    void force() {
+        archive.force();
+    }
+
+    /**
+     * Trade rows live in the archive; a snapshot only needs the id counter and the indexes. Heads
+     * copied while trades are appended may be ahead of the shards' cuts, which is harmless as long
+     * as the archive is forced before the snapshot is published.
+     */
+    void writeSnapshot(DataOutputStream out) throws IOException {
+        out.writeLong(lastId.get());
+        instrumentHeads.writeTo(out);
+        orderHeads.writeTo(out);
+        blockMinTimestamp.writeTo(out);
+        blockMaxTimestamp.writeTo(out);
+    }
+
+    void readSnapshot(DataInputStream in) throws IOException {
+        lastId.accumulateAndGet(in.readLong(), Math::max);
+        instrumentHeads.readFrom(in);
+        orderHeads.readFrom(in);
+        blockMinTimestamp.readFrom(in);
+        blockMaxTimestamp.readFrom(in);
+    }
+
+    private void write(long tradeId, long orderId, long contraOrderId, int instrumentId, Side side, long price,
+                       long quantity, long timestamp) {
+        TradeRecord record = scratch.get();
+        record.tradeId = tradeId;
+        record.orderId = orderId;
+        record.contraOrderId = contraOrderId;
+        record.instrumentId = instrumentId;
+        record.side = (byte) side.ordinal();
+        record.price = price;
+        record.quantity = quantity;
+        record.timestamp = timestamp;
+        record.prevByInstrument = instrumentHeads.get(instrumentId);
+        record.prevByOrder = orderHeads.get(orderId);
+        record.prevByContra = contraOrderId != 0 ? orderHeads.get(contraOrderId) : 0;
+
+        // Disk first, so a trade overwritten in the ring is always readable from the archive
+        archive.write(tradeId, record);
+        writeHot(record);
+
+        instrumentHeads.set(instrumentId, tradeId);
+        orderHeads.set(orderId, tradeId);
+        if (contraOrderId != 0) {
+            orderHeads.set(contraOrderId, tradeId);
+        }
+        blockMinTimestamp.min(tradeId >>> BLOCK_BITS, timestamp);
+        blockMaxTimestamp.max(tradeId >>> BLOCK_BITS, timestamp);
+    }
+
+    private void writeHot(TradeRecord record) {
+        int slot = (int) (record.tradeId & hotMask);
+        LONGS.setOpaque(hotTradeId, slot, 0L);
+        VarHandle.storeStoreFence();
+        hotOrderId[slot] = record.orderId;
+        hotContraOrderId[slot] = record.contraOrderId;
+        hotInstrumentId[slot] = record.instrumentId;
+        hotSide[slot] = record.side;
+        hotPrice[slot] = record.price;
+        hotQuantity[slot] = record.quantity;
+        hotTimestamp[slot] = record.timestamp;
+        hotPrevByInstrument[slot] = record.prevByInstrument;
+        hotPrevByOrder[slot] = record.prevByOrder;
+        hotPrevByContra[slot] = record.prevByContra;
+        LONGS.setRelease(hotTradeId, slot, record.tradeId);
+    }
+
+    private boolean read(long tradeId, TradeRecord record) {
+        if (tradeId <= 0 || tradeId > lastId.get()) {
+            return false;
+        }
+        int slot = (int) (tradeId & hotMask);
+        if ((long) LONGS.getAcquire(hotTradeId, slot) == tradeId) {
+            record.tradeId = tradeId;
+            record.orderId = hotOrderId[slot];
+            record.contraOrderId = hotContraOrderId[slot];
+            record.instrumentId = hotInstrumentId[slot];
+            record.side = hotSide[slot];
+            record.price = hotPrice[slot];
+            record.quantity = hotQuantity[slot];
+            record.timestamp = hotTimestamp[slot];
+            record.prevByInstrument = hotPrevByInstrument[slot];
+            record.prevByOrder = hotPrevByOrder[slot];
+            record.prevByContra = hotPrevByContra[slot];
+            // Valid only if the slot was not reused while it was being read
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getOpaque(hotTradeId, slot) == tradeId) {
+                return true;
+            }
+        }
+        return archive.read(tradeId, record);
+    }
+
+    // Where a chain query starts: the head, or below the previous page's last trade
+    private long chainStart(ListedInstrument instrument, long orderId, long before, TradeRecord record) {
+        long head = orderId > 0 ? orderHeads.get(orderId) : instrumentHeads.get(instrument.getId());
+        if (before > head) {
+            return head;
+        }
+        if (read(before, record) && (orderId > 0
+                ? record.orderId == orderId || record.contraOrderId == orderId
+                : record.instrumentId == instrument.getId())) {
+            return previous(before, chainLink(record, orderId));
+        }
+        // The cursor is not on this chain; walk down to it
+        long id = head;
+        while (id >= before && read(id, record)) {
+            id = previous(id, chainLink(record, orderId));
+        }
+        return id;
+    }
+
+    private static long chainLink(TradeRecord record, long orderId) {
+        return orderId > 0 ? record.prevForOrder(orderId) : record.prevByInstrument;
+    }
+
+    // Links always point to older trades; anything else ends the chain
+    private static long previous(long tradeId, long link) {
+        return link < tradeId ? link : 0;
+    }
+
+    private static boolean matches(TradeRecord record, ListedInstrument instrument, Side side, long from, long to) {
+        return (instrument == null || record.instrumentId == instrument.getId())
+                && (side == null || record.side == side.ordinal())
+                && record.timestamp >= from && record.timestamp < to;
+    }
+
+    private Trade toTrade(TradeRecord record) {
+        Trade trade = new Trade();
+        trade.setTradeId(Long.toString(record.tradeId));
+        trade.setOrderId(Long.toString(record.orderId));
+        trade.setAccount(orderStore.getAccountName(record.orderId));
+        if (record.contraOrderId != 0) {
+            trade.setContraOrderId(Long.toString(record.contraOrderId));
+            trade.setContraAccount(orderStore.getAccountName(record.contraOrderId));
+        }
+        trade.setSymbol(registry.get(record.instrumentId).getSymbol());
+        trade.setQuantity(FixedPoint.toDouble(record.quantity));
+        trade.setPrice(FixedPoint.toDouble(record.price));
+        trade.setSide(Side.fromOrdinal(record.side).name());
+        trade.setTimestamp(EngineClock.toLocalDateTime(record.timestamp));
+        return trade;
+    }
+
+    /**
+     * Sparse long array indexed by a non-negative long, allocated a chunk at a time. Chunks are
+     * never copied once allocated, so concurrent writers to different indexes never lose updates.
+     */
+    private static final class LongChunks {
+        private final int chunkBits;
+        private final long initial;
+        private volatile long[][] chunks = new long[16][];
+
+        LongChunks(int chunkBits, long initial) {
+            this.chunkBits = chunkBits;
+            this.initial = initial;
+        }
+
+        long get(long index) {
+            long[] chunk = chunk(index, false);
+            return chunk == null ? initial : (long) LONGS.getAcquire(chunk, row(index));
+        }
+
+        void set(long index, long value) {
+            LONGS.setRelease(chunk(index, true), row(index), value);
+        }
+
+        void max(long index, long value) {
+            long[] chunk = chunk(index, true);
+            long current;
+            while ((current = (long) LONGS.getAcquire(chunk, row(index))) < value
+                    && !LONGS.compareAndSet(chunk, row(index), current, value)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        void min(long index, long value) {
+            long[] chunk = chunk(index, true);
+            long current;
+            while ((current = (long) LONGS.getAcquire(chunk, row(index))) > value
+                    && !LONGS.compareAndSet(chunk, row(index), current, value)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            long[][] current = chunks;
+            out.writeInt(current.length);
+            for (long[] chunk : current) {
+                out.writeBoolean(chunk != null);
+                if (chunk != null) {
+                    for (int i = 0; i < chunk.length; i++) {
+                        out.writeLong((long) LONGS.getAcquire(chunk, i));
+                    }
+                }
+            }
+        }
+
+        void readFrom(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            for (int index = 0; index < count; index++) {
+                if (in.readBoolean()) {
+                    long[] chunk = chunk((long) index << chunkBits, true);
+                    for (int i = 0; i < chunk.length; i++) {
+                        chunk[i] = in.readLong();
+                    }
+                }
+            }
+        }
+
+        private int row(long index) {
+            return (int) (index & ((1 << chunkBits) - 1));
+        }
+
+        private long[] chunk(long index, boolean create) {
+            long[][] current = chunks;
+            int chunkIndex = (int) (index >>> chunkBits);
+            long[] chunk = chunkIndex < current.length ? current[chunkIndex] : null;
+            return chunk != null || !create ? chunk : allocate(chunkIndex);
+        }
+
+        // Rare path: once per chunk
+        private synchronized long[] allocate(int chunkIndex) {
+            long[][] current = chunks;
+            if (chunkIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(current.length << 1, chunkIndex + 1));
+            }
+            if (current[chunkIndex] == null) {
+                long[] chunk = new long[1 << chunkBits];
+                if (initial != 0) {
+                    Arrays.fill(chunk, initial);
+                }
+                current[chunkIndex] = chunk;
+            }
+            chunks = current;
+            return current[chunkIndex];
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.trading.model;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * New terms for a resting order; fields left out keep their current value.
+ */
+public class AmendOrderRequest {
+    @Positive(message = "price must be greater than 0")
+    private Double price;
+
+    @Positive(message = "quantity must be greater than 0")
+    private Double quantity; // Total quantity, filled part included
+
+    public AmendOrderRequest() {
+    }
+
+    public AmendOrderRequest(Double price, Double quantity) {
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+}
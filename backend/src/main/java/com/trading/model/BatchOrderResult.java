@@ -0,0 +1,36 @@
+package com.trading.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one order in a batch: the placed order, or the reason it was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOrderResult {
+    private Order order;
+    private String error;
+
+    public BatchOrderResult() {
+    }
+
+    public BatchOrderResult(Order order, String error) {
+        this.order = order;
+        this.error = error;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
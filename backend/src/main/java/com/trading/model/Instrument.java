@@ -8,15 +8,20 @@ public class Instrument {
     private String exchange;
     private String instrumentType;
     private Double lastTradedPrice;
+    private Double tickSize; // Minimum price increment
+    private Double lotSize; // Minimum quantity increment
 
     public Instrument() {
     }
 
-    public Instrument(String symbol, String exchange, String instrumentType, Double lastTradedPrice) {
+    public Instrument(String symbol, String exchange, String instrumentType, Double lastTradedPrice,
+                      Double tickSize, Double lotSize) {
         this.symbol = symbol;
         this.exchange = exchange;
         this.instrumentType = instrumentType;
         this.lastTradedPrice = lastTradedPrice;
+        this.tickSize = tickSize;
+        this.lotSize = lotSize;
     }
 
     public String getSymbol() {
@@ -50,4 +55,20 @@ public class Instrument {
     public void setLastTradedPrice(Double lastTradedPrice) {
         this.lastTradedPrice = lastTradedPrice;
     }
+
+    public Double getTickSize() {
+        return tickSize;
+    }
+
+    public void setTickSize(Double tickSize) {
+        this.tickSize = tickSize;
+    }
+
+    public Double getLotSize() {
+        return lotSize;
+    }
+
+    public void setLotSize(Double lotSize) {
+        this.lotSize = lotSize;
+    }
 }
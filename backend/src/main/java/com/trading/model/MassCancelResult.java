@@ -0,0 +1,23 @@
+package com.trading.model;
+
+/**
+ * Number of resting orders a mass cancel took off the books.
+ */
+public class MassCancelResult {
+    private long cancelled;
+
+    public MassCancelResult() {
+    }
+
+    public MassCancelResult(long cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+}
@@ -2,23 +2,21 @@ package com.trading.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Order {
     private String orderId;
+    private String account;
     private String symbol;
     private String orderType; // BUY or SELL
     private String orderStyle; // MARKET or LIMIT
     private Double quantity;
     private Double price;
-    private String status; // NEW, PLACED, EXECUTED, CANCELLED
+    private Double filledQuantity;
+    private String status; // NEW, PLACED, PARTIALLY_FILLED, EXECUTED, CANCELLED
     private LocalDateTime timestamp;
 
     public Order() {
-        this.orderId = UUID.randomUUID().toString();
-        this.timestamp = LocalDateTime.now();
-        this.status = "NEW";
     }
 
     public String getOrderId() {
@@ -29,6 +27,14 @@ public class Order {
         this.orderId = orderId;
     }
 
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -69,6 +75,14 @@ public class Order {
         this.price = price;
     }
 
+    public Double getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public void setFilledQuantity(Double filledQuantity) {
+        this.filledQuantity = filledQuantity;
+    }
+
     public String getStatus() {
         return status;
     }
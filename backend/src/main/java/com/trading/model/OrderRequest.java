@@ -19,6 +19,8 @@ public class OrderRequest {
 
     private Double price; // Required for LIMIT orders
 
+    private String account; // Optional, the default account if absent
+
     public OrderRequest() {
     }
 
@@ -61,4 +63,12 @@ public class OrderRequest {
     public void setPrice(Double price) {
         this.price = price;
     }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
 }
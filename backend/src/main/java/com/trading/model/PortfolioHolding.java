@@ -8,6 +8,8 @@ public class PortfolioHolding {
     private Double quantity;
     private Double averagePrice;
     private Double currentValue;
+    private Double unrealizedPnl;
+    private Double realizedPnl;
 
     public PortfolioHolding() {
     }
@@ -17,6 +19,8 @@ public class PortfolioHolding {
         this.quantity = 0.0;
         this.averagePrice = 0.0;
         this.currentValue = 0.0;
+        this.unrealizedPnl = 0.0;
+        this.realizedPnl = 0.0;
     }
 
     public String getSymbol() {
@@ -50,4 +54,20 @@ public class PortfolioHolding {
     public void setCurrentValue(Double currentValue) {
         this.currentValue = currentValue;
     }
+
+    public Double getUnrealizedPnl() {
+        return unrealizedPnl;
+    }
+
+    public void setUnrealizedPnl(Double unrealizedPnl) {
+        this.unrealizedPnl = unrealizedPnl;
+    }
+
+    public Double getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(Double realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
 }
@@ -0,0 +1,66 @@
+package com.trading.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Totals of one account's positions across all instruments.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PortfolioSummary {
+    private String account;
+    private Double marketValue;
+    private Double costBasis;
+    private Double unrealizedPnl;
+    private Double realizedPnl;
+
+    public PortfolioSummary() {
+    }
+
+    public PortfolioSummary(String account) {
+        this.account = account;
+        this.marketValue = 0.0;
+        this.costBasis = 0.0;
+        this.unrealizedPnl = 0.0;
+        this.realizedPnl = 0.0;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public Double getMarketValue() {
+        return marketValue;
+    }
+
+    public void setMarketValue(Double marketValue) {
+        this.marketValue = marketValue;
+    }
+
+    public Double getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(Double costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public Double getUnrealizedPnl() {
+        return unrealizedPnl;
+    }
+
+    public void setUnrealizedPnl(Double unrealizedPnl) {
+        this.unrealizedPnl = unrealizedPnl;
+    }
+
+    public Double getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(Double realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+}
@@ -0,0 +1,115 @@
+package com.trading.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Market data for one instrument: last trade, best bid and ask, and the top levels of each side of
+ * the book, best price first. Bid and ask fields are absent while that side of the book is empty.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Quote {
+    private String symbol;
+    private Double lastPrice;
+    private Double lastQuantity; // Absent until the instrument trades
+    private Double bidPrice;
+    private Double bidQuantity;
+    private Double askPrice;
+    private Double askQuantity;
+    private List<QuoteLevel> bids;
+    private List<QuoteLevel> asks;
+    private Long sequence; // Increases with every update of the instrument's quote
+    private LocalDateTime timestamp;
+
+    public Quote() {
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Double getLastPrice() {
+        return lastPrice;
+    }
+
+    public void setLastPrice(Double lastPrice) {
+        this.lastPrice = lastPrice;
+    }
+
+    public Double getLastQuantity() {
+        return lastQuantity;
+    }
+
+    public void setLastQuantity(Double lastQuantity) {
+        this.lastQuantity = lastQuantity;
+    }
+
+    public Double getBidPrice() {
+        return bidPrice;
+    }
+
+    public void setBidPrice(Double bidPrice) {
+        this.bidPrice = bidPrice;
+    }
+
+    public Double getBidQuantity() {
+        return bidQuantity;
+    }
+
+    public void setBidQuantity(Double bidQuantity) {
+        this.bidQuantity = bidQuantity;
+    }
+
+    public Double getAskPrice() {
+        return askPrice;
+    }
+
+    public void setAskPrice(Double askPrice) {
+        this.askPrice = askPrice;
+    }
+
+    public Double getAskQuantity() {
+        return askQuantity;
+    }
+
+    public void setAskQuantity(Double askQuantity) {
+        this.askQuantity = askQuantity;
+    }
+
+    public List<QuoteLevel> getBids() {
+        return bids;
+    }
+
+    public void setBids(List<QuoteLevel> bids) {
+        this.bids = bids;
+    }
+
+    public List<QuoteLevel> getAsks() {
+        return asks;
+    }
+
+    public void setAsks(List<QuoteLevel> asks) {
+        this.asks = asks;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
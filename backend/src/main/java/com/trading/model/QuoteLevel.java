@@ -0,0 +1,43 @@
+package com.trading.model;
+
+/**
+ * Aggregated resting quantity at one price.
+ */
+public class QuoteLevel {
+    private Double price;
+    private Double quantity;
+    private Integer orders;
+
+    public QuoteLevel() {
+    }
+
+    public QuoteLevel(Double price, Double quantity, Integer orders) {
+        this.price = price;
+        this.quantity = quantity;
+        this.orders = orders;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getOrders() {
+        return orders;
+    }
+
+    public void setOrders(Integer orders) {
+        this.orders = orders;
+    }
+}
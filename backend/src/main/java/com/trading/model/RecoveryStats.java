@@ -0,0 +1,49 @@
+package com.trading.model;
+
+public class RecoveryStats {
+    private String snapshot;
+    private long journalEventsReplayed;
+    private long recoveryMillis;
+    private Long startupMillis;
+
+    public RecoveryStats() {
+    }
+
+    public RecoveryStats(String snapshot, long journalEventsReplayed, long recoveryMillis) {
+        this.snapshot = snapshot;
+        this.journalEventsReplayed = journalEventsReplayed;
+        this.recoveryMillis = recoveryMillis;
+    }
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(String snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public long getJournalEventsReplayed() {
+        return journalEventsReplayed;
+    }
+
+    public void setJournalEventsReplayed(long journalEventsReplayed) {
+        this.journalEventsReplayed = journalEventsReplayed;
+    }
+
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public void setRecoveryMillis(long recoveryMillis) {
+        this.recoveryMillis = recoveryMillis;
+    }
+
+    public Long getStartupMillis() {
+        return startupMillis;
+    }
+
+    public void setStartupMillis(Long startupMillis) {
+        this.startupMillis = startupMillis;
+    }
+}
@@ -0,0 +1,45 @@
+package com.trading.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RiskStats {
+    private long checks;
+    private Map<String, Long> rejections; // By rule
+    private Double meanCheckNanos; // Over the sampled checks; null before the first sample
+
+    public RiskStats() {
+    }
+
+    public RiskStats(long checks, Map<String, Long> rejections, Double meanCheckNanos) {
+        this.checks = checks;
+        this.rejections = rejections;
+        this.meanCheckNanos = meanCheckNanos;
+    }
+
+    public long getChecks() {
+        return checks;
+    }
+
+    public void setChecks(long checks) {
+        this.checks = checks;
+    }
+
+    public Map<String, Long> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(Map<String, Long> rejections) {
+        this.rejections = rejections;
+    }
+
+    public Double getMeanCheckNanos() {
+        return meanCheckNanos;
+    }
+
+    public void setMeanCheckNanos(Double meanCheckNanos) {
+        this.meanCheckNanos = meanCheckNanos;
+    }
+}
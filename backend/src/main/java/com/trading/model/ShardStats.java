@@ -0,0 +1,60 @@
+package com.trading.model;
+
+public class ShardStats {
+    private int shard;
+    private long ingressQueueDepth;
+    private long executionQueueDepth;
+    private int ringSize;
+    private int maxBatch;
+
+    public ShardStats() {
+    }
+
+    public ShardStats(int shard, long ingressQueueDepth, long executionQueueDepth, int ringSize, int maxBatch) {
+        this.shard = shard;
+        this.ingressQueueDepth = ingressQueueDepth;
+        this.executionQueueDepth = executionQueueDepth;
+        this.ringSize = ringSize;
+        this.maxBatch = maxBatch;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public void setShard(int shard) {
+        this.shard = shard;
+    }
+
+    public long getIngressQueueDepth() {
+        return ingressQueueDepth;
+    }
+
+    public void setIngressQueueDepth(long ingressQueueDepth) {
+        this.ingressQueueDepth = ingressQueueDepth;
+    }
+
+    public long getExecutionQueueDepth() {
+        return executionQueueDepth;
+    }
+
+    public void setExecutionQueueDepth(long executionQueueDepth) {
+        this.executionQueueDepth = executionQueueDepth;
+    }
+
+    public int getRingSize() {
+        return ringSize;
+    }
+
+    public void setRingSize(int ringSize) {
+        this.ringSize = ringSize;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+}
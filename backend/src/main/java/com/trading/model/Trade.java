@@ -2,12 +2,14 @@ package com.trading.model;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Trade {
     private String tradeId;
     private String orderId;
+    private String account; // Account of the aggressing order
+    private String contraOrderId; // Resting order matched against, null for fills at the market price
+    private String contraAccount; // Account of the resting order, null for fills at the market price
     private String symbol;
     private Double quantity;
     private Double price;
@@ -15,17 +17,6 @@ public class Trade {
     private LocalDateTime timestamp;
 
     public Trade() {
-        this.tradeId = UUID.randomUUID().toString();
-        this.timestamp = LocalDateTime.now();
-    }
-
-    public Trade(String orderId, String symbol, Double quantity, Double price, String side) {
-        this();
-        this.orderId = orderId;
-        this.symbol = symbol;
-        this.quantity = quantity;
-        this.price = price;
-        this.side = side;
     }
 
     public String getTradeId() {
@@ -44,6 +35,30 @@ public class Trade {
         this.orderId = orderId;
     }
 
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public String getContraOrderId() {
+        return contraOrderId;
+    }
+
+    public void setContraOrderId(String contraOrderId) {
+        this.contraOrderId = contraOrderId;
+    }
+
+    public String getContraAccount() {
+        return contraAccount;
+    }
+
+    public void setContraAccount(String contraAccount) {
+        this.contraAccount = contraAccount;
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -0,0 +1,97 @@
+package com.trading.service;
+
+import com.trading.engine.EngineClock;
+import com.trading.engine.EngineShard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Engine state for the health probes, read from counters the shards keep anyway, so polling it every
+ * 100 ms costs a few reads per shard.
+ * <p>
+ * Readiness is out of service until recovery, which runs once the web server is up, has finished, and
+ * degraded while a shard's ingress ring is fuller than {@code trading.health.max-ingress-percent} or its
+ * orders took longer than {@code trading.health.max-match-latency-millis} from acceptance to matching in
+ * the last second.
+ * Liveness is down once a stage thread has died, or has not started a new pass of its loop for
+ * {@code trading.health.stall-millis}: stages stamp a heartbeat on every pass, idle ones included,
+ * so only a thread stuck inside one batch lets it age.
+ */
+@Component
+public class EngineHealth {
+    public static final Status DEGRADED = new Status("DEGRADED", "Orders are queueing up in the engine");
+    private static final long RECENT_NANOS = 1_000_000_000L;
+
+    private final TradingService tradingService;
+    private final int maxIngressPercent;
+    private final long maxMatchLatencyNanos;
+    private final long stallNanos;
+
+    public EngineHealth(TradingService tradingService,
+                        @Value("${trading.health.max-ingress-percent:75}") int maxIngressPercent,
+                        @Value("${trading.health.max-match-latency-millis:100}") long maxMatchLatencyMillis,
+                        @Value("${trading.health.stall-millis:5000}") long stallMillis) {
+        if (maxIngressPercent <= 0 || maxIngressPercent > 100) {
+            throw new IllegalArgumentException("trading.health.max-ingress-percent must be between 1 and 100");
+        }
+        if (maxMatchLatencyMillis <= 0 || stallMillis <= 0) {
+            throw new IllegalArgumentException("trading.health thresholds must be greater than 0");
+        }
+        this.tradingService = tradingService;
+        this.maxIngressPercent = maxIngressPercent;
+        this.maxMatchLatencyNanos = maxMatchLatencyMillis * 1_000_000L;
+        this.stallNanos = stallMillis * 1_000_000L;
+    }
+
+    public Health readiness() {
+        if (tradingService.getRecoveryStats() == null) {
+            return Health.outOfService().withDetail("reason", "Recovering engine state").build();
+        }
+        long now = EngineClock.epochNanos();
+        long ingressDepth = 0;
+        long matchLatency = 0;
+        String reason = null;
+        for (EngineShard shard : tradingService.getShards()) {
+            long depth = shard.getIngressDepth();
+            ingressDepth = Math.max(ingressDepth, depth);
+            if (reason == null && depth * 100 > (long) shard.getRingSize() * maxIngressPercent) {
+                reason = "Ingress ring of shard " + shard.getIndex() + " is more than " + maxIngressPercent
+                        + "% full";
+            }
+            if (now - shard.getMatchedAt() < RECENT_NANOS) {
+                long latency = shard.getMatchLatencyNanos();
+                matchLatency = Math.max(matchLatency, latency);
+                if (reason == null && latency > maxMatchLatencyNanos) {
+                    reason = "Orders on shard " + shard.getIndex() + " take longer than "
+                            + maxMatchLatencyNanos / 1_000_000 + " ms to match";
+                }
+            }
+        }
+        Health.Builder health = reason == null ? Health.up() : Health.status(DEGRADED).withDetail("reason", reason);
+        return health.withDetail("ingressDepth", ingressDepth)
+                .withDetail("matchLatencyMicros", matchLatency / 1_000)
+                .build();
+    }
+
+    public Health liveness() {
+        long now = System.nanoTime();
+        for (EngineShard shard : tradingService.getShards()) {
+            if (!shard.isRunning()) {
+                return Health.down().withDetail("reason", "A stage thread of shard " + shard.getIndex()
+                        + " has stopped").build();
+            }
+            // A stuck ledger also stops the match stage once the execution ring fills; blame the older one
+            long matchAge = now - shard.getMatchHeartbeat();
+            long ledgerAge = now - shard.getLedgerHeartbeat();
+            if (Math.max(matchAge, ledgerAge) >= stallNanos) {
+                return Health.down().withDetail("reason", (ledgerAge >= matchAge ? "Ledger" : "Match")
+                        + " stage of shard " + shard.getIndex() + " has been stuck for "
+                        + Math.max(matchAge, ledgerAge) / 1_000_000 + " ms").build();
+            }
+        }
+        return Health.up().build();
+    }
+}
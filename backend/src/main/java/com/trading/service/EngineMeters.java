@@ -0,0 +1,85 @@
+package com.trading.service;
+
+import com.trading.engine.EngineShard;
+import com.trading.engine.PreTradeRisk;
+import com.trading.engine.RiskRule;
+import com.trading.engine.TradeStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges and counters read from the engine's live state when metrics are published: ring depths and
+ * resting orders per shard, trade throughput and pre-trade risk outcomes. Nothing is recorded on the
+ * order path.
+ */
+@Component
+public class EngineMeters implements MeterBinder {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TradingService tradingService;
+    // Trade rate over the interval between reads
+    private long rateAt;
+    private long rateTrades;
+    private double tradesPerSecond;
+
+    public EngineMeters(TradingService tradingService) {
+        this.tradingService = tradingService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (EngineShard shard : tradingService.getShards()) {
+            String index = String.valueOf(shard.getIndex());
+            Gauge.builder("trading.engine.queue.depth", shard, EngineShard::getIngressDepth)
+                    .description("Commands waiting on the shard's ingress ring")
+                    .tags("shard", index, "ring", "ingress")
+                    .register(registry);
+            Gauge.builder("trading.engine.queue.depth", shard, EngineShard::getExecutionDepth)
+                    .description("Execution reports waiting on the shard's execution ring")
+                    .tags("shard", index, "ring", "execution")
+                    .register(registry);
+            Gauge.builder("trading.engine.orders.resting", shard, EngineShard::getRestingOrders)
+                    .description("Orders resting on the shard's books")
+                    .tag("shard", index)
+                    .register(registry);
+
+            PreTradeRisk risk = shard.getRisk();
+            FunctionCounter.builder("trading.risk.checks", risk, PreTradeRisk::getChecks)
+                    .description("Orders checked by the pre-trade risk stage")
+                    .tag("shard", index)
+                    .register(registry);
+            for (RiskRule rule : RiskRule.values()) {
+                FunctionCounter.builder("trading.risk.rejections", risk, checked -> checked.getRejections(rule))
+                        .description("Orders rejected by the pre-trade risk stage")
+                        .tags("shard", index, "rule", rule.name())
+                        .register(registry);
+            }
+        }
+
+        TradeStore tradeStore = tradingService.getTradeStore();
+        FunctionCounter.builder("trading.trades", tradeStore, TradeStore::getLastId)
+                .description("Trades executed")
+                .register(registry);
+        Gauge.builder("trading.trades.rate", this, meters -> meters.tradesPerSecond(tradeStore))
+                .description("Trades per second since the previous read, at least a second earlier")
+                .baseUnit("trades/s")
+                .register(registry);
+    }
+
+    private synchronized double tradesPerSecond(TradeStore tradeStore) {
+        long now = System.nanoTime();
+        long trades = tradeStore.getLastId();
+        if (rateAt == 0) {
+            rateAt = now;
+            rateTrades = trades;
+        } else if (now - rateAt >= NANOS_PER_SECOND) {
+            tradesPerSecond = (double) (trades - rateTrades) * NANOS_PER_SECOND / (now - rateAt);
+            rateAt = now;
+            rateTrades = trades;
+        }
+        return tradesPerSecond;
+    }
+}
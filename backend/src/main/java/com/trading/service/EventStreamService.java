@@ -0,0 +1,355 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.engine.EventFeed;
+import com.trading.engine.ListedInstrument;
+import com.trading.model.Order;
+import com.trading.model.Trade;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams trades, order-state changes and quotes to Server-Sent Events subscribers.
+ * <p>
+ * The feed's dispatcher thread turns each event into JSON once and offers it to every subscriber
+ * whose filter matches. Each subscriber has a bounded buffer drained by a small pool of sender
+ * threads, so a slow client only ever delays itself: pending updates of the same order, and pending
+ * quotes of the same symbol, are conflated to the latest one, and when the buffer is still full the
+ * oldest event is dropped and the client is told how many it missed.
+ */
+@Service
+public class EventStreamService implements EventFeed.Listener {
+    private static final Logger log = LoggerFactory.getLogger(EventStreamService.class);
+
+    private final TradingService tradingService;
+    private final EventFeed feed;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long heartbeatSeconds;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedBySubscribers = new AtomicLong();
+    private long lastFeedDropped; // dispatcher thread only
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EventStreamService(TradingService tradingService, ObjectMapper objectMapper,
+                              @Value("${trading.stream.buffer-size:1024}") int bufferSize,
+                              @Value("${trading.stream.sender-threads:4}") int senderThreads,
+                              @Value("${trading.stream.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.tradingService = tradingService;
+        this.feed = tradingService.getEventFeed();
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.heartbeatSeconds = heartbeatSeconds;
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stream-sender-" + senderIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        feed.start(this);
+        if (heartbeatSeconds > 0) {
+            // Comments keep idle connections open through proxies and reveal disconnected clients
+            heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+                    heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        feed.setActive(false);
+        feed.stop();
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Open a stream. Every filter is optional: symbols null or empty for all symbols, orderId 0 for
+     * all orders (matching either side of a trade; quotes are not filtered by order).
+     */
+    public SseEmitter subscribe(Set<String> symbols, long orderId, boolean orders, boolean trades, boolean quotes) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, symbols == null || symbols.isEmpty() ? null : symbols,
+                orderId, orders, trades, quotes);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        synchronized (subscribers) {
+            subscribers.add(subscriber);
+            feed.setActive(true);
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Events dropped for slow subscribers plus events the feed dropped before dispatching.
+     */
+    public long getDroppedEvents() {
+        return droppedBySubscribers.get() + feed.getDropped();
+    }
+
+    // Dispatcher thread
+
+    @Override
+    public void onOrder(long orderId) {
+        Order order = tradingService.getOrderById(orderId);
+        if (order != null) {
+            dispatch(new StreamEvent(EventFeed.ORDER, "order", order.getSymbol(), orderId, 0, orderId, order));
+        }
+    }
+
+    @Override
+    public void onTrade(long tradeId) {
+        Trade trade = tradingService.getTradeById(tradeId);
+        if (trade != null) {
+            long contraOrderId = trade.getContraOrderId() != null ? Long.parseLong(trade.getContraOrderId()) : 0;
+            dispatch(new StreamEvent(EventFeed.TRADE, "trade", trade.getSymbol(), Long.parseLong(trade.getOrderId()),
+                    contraOrderId, 0, trade));
+        }
+    }
+
+    @Override
+    public void onQuote(ListedInstrument instrument) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.quotes) {
+                // Conflation keys below zero are instruments, so they never collide with order ids
+                dispatch(new StreamEvent(EventFeed.QUOTE, "quote", instrument.getSymbol(), 0, 0,
+                        -1L - instrument.getId(), instrument.getQuote().read(instrument.getSymbol())));
+                return;
+            }
+        }
+    }
+
+    private void dispatch(StreamEvent event) {
+        // Events the feed had to drop could have been for anyone
+        long feedDropped = feed.getDropped();
+        if (feedDropped != lastFeedDropped) {
+            subscribers.forEach(subscriber -> subscriber.missed(feedDropped - lastFeedDropped));
+            lastFeedDropped = feedDropped;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        synchronized (subscribers) {
+            subscribers.remove(subscriber);
+            feed.setActive(!subscribers.isEmpty());
+        }
+    }
+
+    /**
+     * One event as sent to every matching subscriber; serialized on first use.
+     */
+    private final class StreamEvent {
+        final byte type; // EventFeed.ORDER, TRADE or QUOTE
+        final String name;
+        final String symbol;
+        final long orderId;
+        final long contraOrderId;
+        final long conflationKey; // 0 for events that are never conflated
+        final Object payload;
+        private String json;
+
+        StreamEvent(byte type, String name, String symbol, long orderId, long contraOrderId, long conflationKey,
+                    Object payload) {
+            this.type = type;
+            this.name = name;
+            this.symbol = symbol;
+            this.orderId = orderId;
+            this.contraOrderId = contraOrderId;
+            this.conflationKey = conflationKey;
+            this.payload = payload;
+        }
+
+        // Only ever called on the dispatcher thread
+        String json() throws JsonProcessingException {
+            if (json == null) {
+                json = objectMapper.writeValueAsString(payload);
+            }
+            return json;
+        }
+    }
+
+    private static final class Pending {
+        final String name;
+        final long conflationKey;
+        String json;
+
+        Pending(String name, long conflationKey, String json) {
+            this.name = name;
+            this.conflationKey = conflationKey;
+            this.json = json;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> symbols; // null for all
+        final long orderId; // 0 for all
+        final boolean orders;
+        final boolean trades;
+        final boolean quotes;
+
+        // Guarded by this
+        private final ArrayDeque<Pending> buffer = new ArrayDeque<>();
+        private final Map<Long, Pending> conflated = new HashMap<>();
+        private long dropped;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+
+        Subscriber(SseEmitter emitter, Set<String> symbols, long orderId, boolean orders, boolean trades,
+                   boolean quotes) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+            this.orderId = orderId;
+            this.orders = orders;
+            this.trades = trades;
+            this.quotes = quotes;
+        }
+
+        boolean matches(StreamEvent event) {
+            boolean wanted = switch (event.type) {
+                case EventFeed.ORDER -> orders;
+                case EventFeed.TRADE -> trades;
+                default -> quotes;
+            };
+            return wanted
+                    && (symbols == null || symbols.contains(event.symbol))
+                    && (orderId == 0 || event.type == EventFeed.QUOTE
+                        || event.orderId == orderId || event.contraOrderId == orderId);
+        }
+
+        void offer(StreamEvent event) {
+            String json;
+            try {
+                json = event.json();
+            } catch (JsonProcessingException e) {
+                log.warn("Cannot serialize {} event", event.name, e);
+                return;
+            }
+            synchronized (this) {
+                Pending pending = event.conflationKey != 0 ? conflated.get(event.conflationKey) : null;
+                if (pending != null) {
+                    // Latest state wins
+                    pending.json = json;
+                    return;
+                }
+                if (buffer.size() == bufferSize) {
+                    Pending oldest = buffer.poll();
+                    conflated.remove(oldest.conflationKey);
+                    dropped++;
+                    droppedBySubscribers.incrementAndGet();
+                }
+                pending = new Pending(event.name, event.conflationKey, json);
+                buffer.add(pending);
+                if (event.conflationKey != 0) {
+                    conflated.put(event.conflationKey, pending);
+                }
+            }
+            schedule();
+        }
+
+        synchronized void missed(long count) {
+            dropped += count;
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            schedule();
+        }
+
+        // Events buffered while a drain is queued or running go out with it
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        // Sender thread; at most one drain per subscriber runs at a time
+        private void drain() {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            while (true) {
+                events.clear();
+                synchronized (this) {
+                    if (dropped > 0) {
+                        events.add(SseEmitter.event().name("dropped").data("{\"dropped\":" + dropped + "}",
+                                MediaType.APPLICATION_JSON));
+                        dropped = 0;
+                    }
+                    if (heartbeatDue) {
+                        events.add(SseEmitter.event().comment("heartbeat"));
+                        heartbeatDue = false;
+                    }
+                    for (Pending pending; events.size() < 256 && (pending = buffer.poll()) != null; ) {
+                        conflated.remove(pending.conflationKey);
+                        events.add(SseEmitter.event().name(pending.name).data(pending.json, MediaType.APPLICATION_JSON));
+                    }
+                    if (events.isEmpty()) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    for (SseEmitter.SseEventBuilder event : events) {
+                        emitter.send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away
+                    remove(this);
+                    synchronized (this) {
+                        buffer.clear();
+                        conflated.clear();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
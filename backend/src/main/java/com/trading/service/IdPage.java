@@ -0,0 +1,14 @@
+package com.trading.service;
+
+/**
+ * One page of a keyset-paginated listing as row ids, newest first; the rows themselves are only
+ * read as the page is written out. {@code nextCursor} is the id to pass as {@code before} for the
+ * next page, or null if this is the last page.
+ */
+public record IdPage(long[] ids, int count, Long nextCursor) {
+    static final IdPage EMPTY = new IdPage(new long[0], 0, null);
+
+    static IdPage of(long[] ids, int count) {
+        return new IdPage(ids, count, count < ids.length ? null : Long.valueOf(ids[count - 1]));
+    }
+}
@@ -0,0 +1,104 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.engine.EngineClock;
+import com.trading.engine.FixedPoint;
+import com.trading.engine.ListedInstrument;
+import com.trading.engine.OrderStore;
+import com.trading.engine.OrderStyle;
+import com.trading.engine.Side;
+import com.trading.engine.TradeStore;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes order and trade listings as JSON arrays straight from the stores' columns to the response
+ * stream, one row at a time, instead of building {@code Order}/{@code Trade} views and a list for
+ * the message converter to buffer. The output is the same JSON those views serialize to.
+ */
+@Component
+public class ListingWriter {
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+    private final JsonFactory jsonFactory;
+
+    public ListingWriter(TradingService tradingService, ObjectMapper objectMapper) {
+        this.orderStore = tradingService.getOrderStore();
+        this.tradeStore = tradingService.getTradeStore();
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public void writeOrders(IdPage page, OutputStream out) throws IOException {
+        try (JsonGenerator json = generator(out)) {
+            json.writeStartArray();
+            for (int i = 0; i < page.count(); i++) {
+                long orderId = page.ids()[i];
+                ListedInstrument instrument = orderStore.getInstrument(orderId);
+                OrderStyle style = orderStore.getStyle(orderId);
+                json.writeStartObject();
+                json.writeStringField("orderId", Long.toString(orderId));
+                json.writeStringField("account", orderStore.getAccountName(orderId));
+                json.writeStringField("symbol", instrument.getSymbol());
+                json.writeStringField("orderType", orderStore.getSide(orderId).name());
+                json.writeStringField("orderStyle", style.name());
+                json.writeNumberField("quantity", FixedPoint.toDouble(orderStore.getQuantity(orderId)));
+                if (style == OrderStyle.LIMIT) {
+                    json.writeNumberField("price", FixedPoint.toDouble(orderStore.getPrice(orderId)));
+                }
+                json.writeNumberField("filledQuantity", FixedPoint.toDouble(orderStore.getFilledQuantity(orderId)));
+                json.writeStringField("status", orderStore.getStatus(orderId).name());
+                writeTimestamp(json, orderStore.getTimestamp(orderId));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    public void writeTrades(IdPage page, OutputStream out) throws IOException {
+        try (JsonGenerator json = generator(out)) {
+            json.writeStartArray();
+            TradeStore.RowVisitor row = (tradeId, orderId, contraOrderId, instrument, side, price, quantity,
+                                         timestamp) -> writeTrade(json, tradeId, orderId, contraOrderId, instrument,
+                    side, price, quantity, timestamp);
+            for (int i = 0; i < page.count(); i++) {
+                tradeStore.visit(page.ids()[i], row);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private void writeTrade(JsonGenerator json, long tradeId, long orderId, long contraOrderId,
+                            ListedInstrument instrument, Side side, long price, long quantity, long timestamp)
+            throws IOException {
+        json.writeStartObject();
+        json.writeStringField("tradeId", Long.toString(tradeId));
+        json.writeStringField("orderId", Long.toString(orderId));
+        json.writeStringField("account", orderStore.getAccountName(orderId));
+        if (contraOrderId != 0) {
+            json.writeStringField("contraOrderId", Long.toString(contraOrderId));
+            json.writeStringField("contraAccount", orderStore.getAccountName(contraOrderId));
+        }
+        json.writeStringField("symbol", instrument.getSymbol());
+        json.writeNumberField("quantity", FixedPoint.toDouble(quantity));
+        json.writeNumberField("price", FixedPoint.toDouble(price));
+        json.writeStringField("side", side.name());
+        writeTimestamp(json, timestamp);
+        json.writeEndObject();
+    }
+
+    // As the JSR-310 module writes LocalDateTime with write-dates-as-timestamps off
+    private static void writeTimestamp(JsonGenerator json, long epochNanos) throws IOException {
+        json.writeStringField("timestamp",
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(EngineClock.toLocalDateTime(epochNanos)));
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        // The servlet container owns the stream
+        return jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
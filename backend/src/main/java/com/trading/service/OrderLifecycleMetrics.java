@@ -0,0 +1,165 @@
+package com.trading.service;
+
+import com.trading.engine.EngineMetrics;
+import com.trading.engine.ListedInstrument;
+import com.trading.engine.OrderStatus;
+import com.trading.model.QuoteLevel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for the order lifecycle, tagged by symbol and outcome, and for response
+ * serialization, tagged by body type. Only one operation in {@code trading.metrics.sample-every} is
+ * timed, so timer counts are sample counts, not order counts. Percentiles and histograms are
+ * configured through {@code management.metrics.distribution.*}.
+ * <p>
+ * A symbol's timers are registered the first time one of its orders is timed; its book gauges when
+ * it is listed or restored.
+ */
+@Component
+public class OrderLifecycleMetrics implements EngineMetrics {
+    private static final String UNKNOWN_SYMBOL = "unknown";
+    private static final String REJECTED = "rejected";
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final MeterRegistry registry;
+    private final int sampleEvery;
+    private final Map<String, SymbolMeters> symbols = new ConcurrentHashMap<>();
+    private final Map<String, Timer> serialization = new ConcurrentHashMap<>();
+
+    public OrderLifecycleMetrics(MeterRegistry registry,
+                                 @Value("${trading.metrics.sample-every:64}") int sampleEvery) {
+        if (sampleEvery < 0) {
+            throw new IllegalArgumentException("trading.metrics.sample-every must not be negative");
+        }
+        this.registry = registry;
+        this.sampleEvery = sampleEvery;
+    }
+
+    @Override
+    public int sampleEvery() {
+        return sampleEvery;
+    }
+
+    @Override
+    public void recordValidation(ListedInstrument instrument, boolean accepted, long nanos) {
+        SymbolMeters meters = meters(instrument);
+        int index = accepted ? 1 : 0;
+        Timer timer = meters.validation[index];
+        if (timer == null) {
+            timer = meters.validation[index] = timer("trading.order.validation",
+                    "Order validation on the request thread", meters.symbol, accepted ? "accepted" : REJECTED);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordMatching(ListedInstrument instrument, OrderStatus outcome, long nanos) {
+        SymbolMeters meters = meters(instrument);
+        int index = outcome != null ? outcome.ordinal() : STATUSES.length;
+        Timer timer = meters.matching[index];
+        if (timer == null) {
+            timer = meters.matching[index] = timer("trading.order.matching",
+                    "Pre-trade risk check and matching on the shard's match stage", meters.symbol,
+                    outcome != null ? outcome.name().toLowerCase() : REJECTED);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordJournaling(ListedInstrument instrument, long nanos) {
+        SymbolMeters meters = meters(instrument);
+        Timer timer = meters.journaling;
+        if (timer == null) {
+            timer = meters.journaling = timer("trading.order.journaling",
+                    "Appending an order and its trades to the journal", meters.symbol, null);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordPositions(ListedInstrument instrument, long nanos) {
+        SymbolMeters meters = meters(instrument);
+        Timer timer = meters.positions;
+        if (timer == null) {
+            timer = meters.positions = timer("trading.order.positions",
+                    "Applying an order's fills to the positions", meters.symbol, null);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param type simple name of the response body's type
+     */
+    public void recordSerialization(String type, long nanos) {
+        serialization.computeIfAbsent(type, key -> Timer.builder("trading.response.serialization")
+                        .description("Writing a JSON response body")
+                        .tag("type", key)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private SymbolMeters meters(ListedInstrument instrument) {
+        return symbols.computeIfAbsent(instrument != null ? instrument.getSymbol() : UNKNOWN_SYMBOL, SymbolMeters::new);
+    }
+
+    /**
+     * Book gauges are registered per instrument up front, so they read from startup rather than from
+     * the first timed order; registering a relisted instrument again returns the existing gauges.
+     */
+    @Override
+    public void instrumentListed(ListedInstrument instrument) {
+        String symbol = instrument.getSymbol();
+        Gauge.builder("trading.book.orders", instrument, listed -> listed.getQuote().getRestingOrders())
+                .description("Orders resting on the book")
+                .tag("symbol", symbol)
+                .register(registry);
+        Gauge.builder("trading.book.depth", instrument, listed -> depth(listed.getQuote().read(symbol).getBids()))
+                .description("Quantity resting in the top levels of the book")
+                .tags("symbol", symbol, "side", "bid")
+                .register(registry);
+        Gauge.builder("trading.book.depth", instrument, listed -> depth(listed.getQuote().read(symbol).getAsks()))
+                .description("Quantity resting in the top levels of the book")
+                .tags("symbol", symbol, "side", "ask")
+                .register(registry);
+    }
+
+    private static double depth(List<QuoteLevel> levels) {
+        double quantity = 0;
+        if (levels != null) {
+            for (QuoteLevel level : levels) {
+                quantity += level.getQuantity();
+            }
+        }
+        return quantity;
+    }
+
+    // Racing registrations are harmless: the registry hands out the meter registered first
+    private Timer timer(String name, String description, String symbol, String outcome) {
+        Timer.Builder builder = Timer.builder(name).description(description).tag("symbol", symbol);
+        if (outcome != null) {
+            builder.tag("outcome", outcome);
+        }
+        return builder.register(registry);
+    }
+
+    private static final class SymbolMeters {
+        private final String symbol;
+        private final Timer[] validation = new Timer[2]; // Rejected, accepted
+        private final Timer[] matching = new Timer[STATUSES.length + 1]; // By status, then rejected
+        private Timer journaling;
+        private Timer positions;
+
+        private SymbolMeters(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * The JSON message converter, timing the serialization of a sample of response bodies. Being a
+ * {@link MappingJackson2HttpMessageConverter} bean, it replaces the one Spring Boot would configure.
+ * Listings streamed by {@link ListingWriter} do not go through a converter and are not timed.
+ */
+@Component
+public class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+    private final OrderLifecycleMetrics metrics;
+
+    public TimedJsonConverter(ObjectMapper objectMapper, OrderLifecycleMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (!metrics.sample()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = System.nanoTime();
+        super.writeInternal(object, type, outputMessage);
+        metrics.recordSerialization(typeName(object), System.nanoTime() - start);
+    }
+
+    // Collections are named by their first element, so a list of orders and a list of trades differ
+    private static String typeName(Object object) {
+        if (object instanceof Collection<?> collection && !collection.isEmpty()) {
+            Object first = collection.iterator().next();
+            return "List<" + (first == null ? "Object" : first.getClass().getSimpleName()) + ">";
+        }
+        return object.getClass().getSimpleName();
+    }
+}
@@ -1,195 +1,705 @@
 package com.trading.service;
 
+import com.trading.engine.*;
 import com.trading.model.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TradingService {
+    private static final Logger log = LoggerFactory.getLogger(TradingService.class);
     
-    private final List<Instrument> instruments;
-    private final Map<String, Order> orders;
-    private final List<Trade> trades;
-    private final Map<String, PortfolioHolding> portfolio;
-
-    public TradingService() {
-        // Initialize with sample instruments
-        this.instruments = new ArrayList<>(Arrays.asList(
-            new Instrument("AAPL", "NASDAQ", "STOCK", 175.50),
-            new Instrument("GOOGL", "NASDAQ", "STOCK", 142.30),
-            new Instrument("MSFT", "NASDAQ", "STOCK", 378.85),
-            new Instrument("TSLA", "NASDAQ", "STOCK", 248.42),
-            new Instrument("BTC-USD", "CRYPTO", "CRYPTO", 43250.00)
-        ));
-        
-        this.orders = new ConcurrentHashMap<>();
-        this.trades = new ArrayList<>();
-        this.portfolio = new ConcurrentHashMap<>();
+    private final InstrumentRegistry instruments = new InstrumentRegistry();
+    private final AccountRegistry accounts = new AccountRegistry();
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+    private final ShardedSequencer sequencer;
+    private final EventFeed eventFeed;
+    private final EngineMetrics metrics;
+    private final EngineRecovery recovery; // null when journaling is disabled
+    private final Snapshotter snapshotter;
+    private final long snapshotIntervalSeconds;
+    private final ScheduledExecutorService snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+    private volatile RecoveryStats recoveryStats;
+
+    public TradingService(@Value("${trading.engine.shards:4}") int shardCount,
+                          @Value("${trading.engine.ring-size:16384}") int ringSize,
+                          @Value("${trading.engine.max-batch:256}") int maxBatch,
+                          @Value("${trading.journal.enabled:true}") boolean journalEnabled,
+                          @Value("${trading.journal.dir:data/journal}") String journalDir,
+                          @Value("${trading.journal.segment-size:67108864}") int segmentSize,
+                          @Value("${trading.journal.sync-every-events:1024}") int syncEveryEvents,
+                          @Value("${trading.journal.sync-interval-micros:1000}") long syncIntervalMicros,
+                          @Value("${trading.snapshot.dir:data/snapshots}") String snapshotDir,
+                          @Value("${trading.snapshot.interval-seconds:60}") long snapshotIntervalSeconds,
+                          @Value("${trading.trades.dir:data/trades}") String tradesDir,
+                          @Value("${trading.trades.hot-capacity:1048576}") int tradesHotCapacity,
+                          @Value("${trading.api.default-page-size:100}") int defaultPageSize,
+                          @Value("${trading.api.max-page-size:1000}") int maxPageSize,
+                          @Value("${trading.api.max-batch-size:1000}") int maxBatchSize,
+                          @Value("${trading.stream.feed-ring-size:65536}") int feedRingSize,
+                          @Value("${trading.risk.max-order-quantity:1000000}") double maxOrderQuantity,
+                          @Value("${trading.risk.max-order-notional:100000000}") double maxOrderNotional,
+                          @Value("${trading.risk.max-position:0}") double maxPosition,
+                          @Value("${trading.risk.price-collar-bps:1000}") long priceCollarBps,
+                          @Value("${trading.risk.max-orders-per-second:0}") long maxOrdersPerSecond,
+                          EngineMetrics metrics) {
+        this.metrics = metrics;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+        this.orderStore = new OrderStore(accounts);
+        this.tradeStore = new TradeStore(instruments, orderStore, Path.of(tradesDir), tradesHotCapacity);
+        JournalSettings journal = journalEnabled
+                ? new JournalSettings(Path.of(journalDir), segmentSize, syncEveryEvents, syncIntervalMicros)
+                : null;
+        this.eventFeed = new EventFeed(feedRingSize, maxBatch);
+        RiskLimits riskLimits = new RiskLimits(FixedPoint.fromDouble(maxOrderQuantity),
+                FixedPoint.fromDouble(maxOrderNotional), FixedPoint.fromDouble(maxPosition), priceCollarBps,
+                maxOrdersPerSecond);
+        this.sequencer = new ShardedSequencer(shardCount, ringSize, maxBatch, instruments, accounts, orderStore,
+                tradeStore, journal, eventFeed, riskLimits, metrics);
+        this.recovery = journalEnabled
+                ? new EngineRecovery(Path.of(snapshotDir), Path.of(journalDir), sequencer, instruments, accounts,
+                        orderStore, tradeStore)
+                : null;
+        this.snapshotter = journalEnabled
+                ? new Snapshotter(Path.of(snapshotDir), Path.of(journalDir), sequencer, instruments, accounts,
+                        orderStore, tradeStore)
+                : null;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        sequencer.start();
+    }
+
+    /**
+     * Bring the engine back to its state before the last shutdown or crash: load the latest snapshot,
+     * replay the journal tail, then snapshot periodically. A first start lists the sample instruments.
+     * Requests must not reach the engine until this has returned; {@link #getRecoveryStats()} is null
+     * until then.
+     */
+    public RecoveryStats recover() {
+        RecoveryStats stats = recovery != null ? recovery.recover() : new RecoveryStats(null, 0, 0);
+        for (int id = 0; id < instruments.size(); id++) {
+            ListedInstrument restored = instruments.get(id);
+            if (restored != null) {
+                metrics.instrumentListed(restored);
+            }
+        }
+        if (instruments.size() == 0) {
+            // Initialize with sample instruments
+            Arrays.asList(
+                new Instrument("AAPL", "NASDAQ", "STOCK", 175.50, 0.01, 1.0),
+                new Instrument("GOOGL", "NASDAQ", "STOCK", 142.30, 0.01, 1.0),
+                new Instrument("MSFT", "NASDAQ", "STOCK", 378.85, 0.01, 1.0),
+                new Instrument("TSLA", "NASDAQ", "STOCK", 248.42, 0.01, 1.0),
+                new Instrument("BTC-USD", "CRYPTO", "CRYPTO", 43250.00, 0.01, 0.0001)
+            ).forEach(this::listInstrument);
+        }
+        recoveryStats = stats;
+
+        if (snapshotter != null && snapshotIntervalSeconds > 0) {
+            // Snapshot right away after a replay so the next start does not replay the same tail again
+            long initialDelay = stats.getJournalEventsReplayed() > 0 ? 0 : snapshotIntervalSeconds;
+            snapshotScheduler.scheduleWithFixedDelay(this::takeSnapshot, initialDelay, snapshotIntervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+        return stats;
+    }
+
+    public RecoveryStats getRecoveryStats() {
+        return recoveryStats;
+    }
+
+    public void recordStartupTime(long startupMillis) {
+        recoveryStats.setStartupMillis(startupMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotScheduler.shutdown();
+        if (snapshotter != null && recoveryStats != null) {
+            // A final snapshot makes a clean restart replay nothing
+            takeSnapshot();
+        }
+        sequencer.stop();
+    }
+
+    private void takeSnapshot() {
+        try {
+            snapshotter.takeSnapshot();
+        } catch (RuntimeException e) {
+            log.error("Snapshot failed", e);
+        }
     }
 
+    /**
+     * @return shared immutable snapshot of the listed instruments
+     */
     public List<Instrument> getAllInstruments() {
-        return new ArrayList<>(instruments);
+        return instruments.getListedInstruments();
     }
 
     public Instrument getInstrumentBySymbol(String symbol) {
-        return instruments.stream()
-                .filter(inst -> inst.getSymbol().equals(symbol))
-                .findFirst()
-                .orElse(null);
+        ListedInstrument instrument = instruments.get(symbol);
+        return instrument != null ? instrument.getView() : null;
+    }
+
+    /**
+     * Latest market data of a listed instrument. Read straight from the instrument's quote buffer,
+     * without going through its shard.
+     */
+    public Quote getQuote(String symbol) {
+        ListedInstrument instrument = instruments.get(symbol);
+        return instrument != null ? instrument.getQuote().read(instrument.getSymbol()) : null;
+    }
+
+    /**
+     * List a new instrument, or re-list a delisted one under its original id. The instrument's book
+     * exists on its shard before it becomes visible to order placement.
+     */
+    public synchronized Instrument listInstrument(Instrument instrument) {
+        if (instrument.getSymbol() == null || instrument.getSymbol().isBlank()) {
+            throw new IllegalArgumentException("symbol is required");
+        }
+        // Symbols travel as a length byte and ASCII on the binary protocol
+        if (!InstrumentRegistry.validSymbol(instrument.getSymbol())) {
+            throw new IllegalArgumentException("symbol must be 1 to " + InstrumentRegistry.MAX_SYMBOL_LENGTH
+                    + " printable ASCII characters without spaces");
+        }
+        if (instrument.getExchange() == null || instrument.getExchange().isBlank()) {
+            throw new IllegalArgumentException("exchange is required");
+        }
+        if (instrument.getInstrumentType() == null || instrument.getInstrumentType().isBlank()) {
+            throw new IllegalArgumentException("instrumentType is required");
+        }
+        if (instrument.getLastTradedPrice() <= 0) {
+            throw new IllegalArgumentException("lastTradedPrice must be greater than 0");
+        }
+        if (instrument.getTickSize() <= 0) {
+            throw new IllegalArgumentException("tickSize must be greater than 0");
+        }
+        if (instrument.getLotSize() <= 0) {
+            throw new IllegalArgumentException("lotSize must be greater than 0");
+        }
+
+        ListedInstrument listed = instruments.register(instrument);
+        metrics.instrumentListed(listed);
+        sequencer.shardFor(listed).listInstrument(listed).join();
+        instruments.setListed(listed, true);
+        return listed.getView();
+    }
+
+    /**
+     * Stop accepting orders for the instrument and cancel everything resting in its book.
+     * Holdings, orders and trades in the instrument are kept.
+     */
+    public synchronized Instrument delistInstrument(String symbol) {
+        ListedInstrument listed = instruments.get(symbol);
+        if (listed == null) {
+            throw new IllegalArgumentException("Instrument " + symbol + " not found");
+        }
+
+        instruments.setListed(listed, false);
+        // Orders validated before the flag flipped are rejected by the shard once the book is gone
+        sequencer.shardFor(listed).delistInstrument(listed).join();
+        return listed.getView();
+    }
+
+    /**
+     * Validate the request on the calling thread and enqueue the order on the shard owning its symbol.
+     * @return future completed with the order id by the shard's publish stage once the order has been
+     *         matched and booked
+     */
+    public CompletableFuture<Long> placeOrder(OrderRequest request) {
+        NewOrder order = newOrder(request);
+        return sequencer.shardFor(order.instrument()).place(order.orderId(), order.account(), order.instrument(),
+                order.side(), order.style(), order.price(), order.quantity(), order.timestamp());
+    }
+
+    /**
+     * Validate a basket of orders in one pass and enqueue the valid ones, grouped by shard and, within a
+     * shard, by symbol, so each group reaches its shard's matcher back to back. Orders in the same
+     * symbol keep their relative order.
+     * @return one future per request, in request order, completed as by {@link #placeOrder}; a request
+     *         that failed validation has a future completed exceptionally with the reason
+     */
+    public List<CompletableFuture<Long>> placeOrders(List<OrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one order is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " orders can be placed at once");
+        }
+
+        List<CompletableFuture<Long>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<Integer> accepted = new ArrayList<>(requests.size());
+        NewOrder[] orders = new NewOrder[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                orders[i] = newOrder(requests.get(i));
+                accepted.add(i);
+            } catch (IllegalArgumentException e) {
+                results.set(i, CompletableFuture.failedFuture(e));
+            }
+        }
+
+        // Stable sort: same-symbol orders stay in request order
+        int shardCount = sequencer.getShardCount();
+        accepted.sort(Comparator.<Integer>comparingInt(i -> orders[i].instrument().getId() % shardCount)
+                .thenComparingInt(i -> orders[i].instrument().getId()));
+        for (int start = 0; start < accepted.size(); ) {
+            EngineShard shard = sequencer.shardFor(orders[accepted.get(start)].instrument());
+            int end = start;
+            List<NewOrder> group = new ArrayList<>();
+            while (end < accepted.size() && sequencer.shardFor(orders[accepted.get(end)].instrument()) == shard) {
+                group.add(orders[accepted.get(end++)]);
+            }
+            try {
+                List<CompletableFuture<Long>> futures = shard.placeAll(group);
+                for (int i = 0; i < futures.size(); i++) {
+                    results.set(accepted.get(start + i), futures.get(i));
+                }
+            } catch (RuntimeException e) {
+                // Fails this shard's group only; the groups already enqueued are still reported
+                for (int i = start; i < end; i++) {
+                    results.set(accepted.get(i), CompletableFuture.failedFuture(e));
+                }
+            }
+            start = end;
+        }
+        return results;
+    }
+
+    // Validate on the calling thread and record the order, ready to be enqueued
+    private NewOrder newOrder(OrderRequest request) {
+        if (!metrics.sample()) {
+            return validate(request);
+        }
+        long start = System.nanoTime();
+        NewOrder order = null;
+        try {
+            order = validate(request);
+            return order;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            ListedInstrument instrument = order != null ? order.instrument()
+                    : request != null ? instruments.get(request.getSymbol()) : null;
+            metrics.recordValidation(instrument, order != null, nanos);
+        }
     }
 
-    public Order placeOrder(OrderRequest request) {
+    private NewOrder validate(OrderRequest request) {
+        // Bean validation covers single orders but not the items of a batch
+        if (request == null) {
+            throw new IllegalArgumentException("order is required");
+        }
+        if (request.getOrderType() == null) {
+            throw new IllegalArgumentException("orderType is required");
+        }
+        if (request.getOrderStyle() == null) {
+            throw new IllegalArgumentException("orderStyle is required");
+        }
+        if (request.getSymbol() == null) {
+            throw new IllegalArgumentException("symbol is required");
+        }
+        if (request.getQuantity() == null) {
+            throw new IllegalArgumentException("quantity is required");
+        }
+
         // Validate symbol exists
-        Instrument instrument = getInstrumentBySymbol(request.getSymbol());
+        ListedInstrument instrument = instruments.get(request.getSymbol());
         if (instrument == null) {
             throw new IllegalArgumentException("Instrument " + request.getSymbol() + " not found");
         }
 
         // Validate order type
-        String orderType = request.getOrderType().toUpperCase();
-        if (!orderType.equals("BUY") && !orderType.equals("SELL")) {
+        Side side = Side.parse(request.getOrderType());
+        if (side == null) {
             throw new IllegalArgumentException("orderType must be BUY or SELL");
         }
 
         // Validate order style
-        String orderStyle = request.getOrderStyle().toUpperCase();
-        if (!orderStyle.equals("MARKET") && !orderStyle.equals("LIMIT")) {
+        OrderStyle style = OrderStyle.parse(request.getOrderStyle());
+        if (style == null) {
             throw new IllegalArgumentException("orderStyle must be MARKET or LIMIT");
         }
 
         // Validate price for LIMIT orders
-        if (orderStyle.equals("LIMIT") && request.getPrice() == null) {
+        if (style == OrderStyle.LIMIT && request.getPrice() == null) {
             throw new IllegalArgumentException("price is required for LIMIT orders");
         }
 
-        if (orderStyle.equals("LIMIT") && request.getPrice() != null && request.getPrice() <= 0) {
+        return newOrder(request.getAccount(), instrument, side, style,
+                style == OrderStyle.LIMIT ? FixedPoint.fromDouble(request.getPrice()) : 0,
+                FixedPoint.fromDouble(request.getQuantity()));
+    }
+
+    private NewOrder newOrder(String accountName, ListedInstrument instrument, Side side, OrderStyle style, long price,
+                              long quantity) {
+        if (style == OrderStyle.LIMIT && price <= 0) {
             throw new IllegalArgumentException("price must be greater than 0");
         }
 
-        // Create order
-        Order order = new Order();
-        order.setSymbol(request.getSymbol());
-        order.setOrderType(orderType);
-        order.setOrderStyle(orderStyle);
-        order.setQuantity(request.getQuantity());
-        order.setPrice(request.getPrice());
-        order.setStatus("PLACED");
-
-        // Try to execute order
-        Trade trade = executeOrder(order, instrument);
-        if (trade != null) {
-            order.setStatus("EXECUTED");
-        }
-
-        orders.put(order.getOrderId(), order);
-        return order;
-    }
-
-    private Trade executeOrder(Order order, Instrument instrument) {
-        String orderType = order.getOrderType();
-        String orderStyle = order.getOrderStyle();
-        Double quantity = order.getQuantity();
-        Double limitPrice = order.getPrice();
-        Double currentPrice = instrument.getLastTradedPrice();
-
-        // Determine execution price
-        Double executionPrice;
-        if (orderStyle.equals("MARKET")) {
-            executionPrice = currentPrice;
-        } else { // LIMIT
-            executionPrice = limitPrice;
-            
-            // Check if limit order can execute
-            if (orderType.equals("BUY") && limitPrice < currentPrice) {
-                return null; // Limit buy price too low
-            }
-            if (orderType.equals("SELL") && limitPrice > currentPrice) {
-                return null; // Limit sell price too high
-            }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be greater than 0");
+        }
+
+        // Validate tick and lot size so only book-able prices and quantities reach the engine
+        if (style == OrderStyle.LIMIT && !FixedPoint.isMultipleOf(price, instrument.getTickSize())) {
+            throw new IllegalArgumentException("price must be a multiple of tick size "
+                    + instrument.getView().getTickSize());
         }
 
-        // Check if we can execute the sell order (have enough holdings)
-        if (orderType.equals("SELL")) {
-            PortfolioHolding holding = portfolio.get(order.getSymbol());
-            if (holding == null || holding.getQuantity() < quantity) {
-                return null; // Insufficient holdings
+        if (!FixedPoint.isMultipleOf(quantity, instrument.getLotSize())) {
+            throw new IllegalArgumentException("quantity must be a multiple of lot size "
+                    + instrument.getView().getLotSize());
+        }
+
+        // Validated last, so a rejected order does not open an account
+        int account = accounts.intern(accountName);
+
+        // Sequence the order and record it; the caller enqueues it on the owning shard's ingress ring
+        long orderId = orderStore.nextId();
+        long timestamp = EngineClock.epochNanos();
+        orderStore.create(orderId, account, instrument, side, style, price, quantity, timestamp);
+        return new NewOrder(orderId, account, instrument, side, style, price, quantity, timestamp);
+    }
+
+    /**
+     * Order entry with the fields already decoded, as used by the binary protocol: the same
+     * validation and sequencing as {@link #placeOrder(OrderRequest)}.
+     * @param account null for the default account
+     * @param price fixed point, ignored for MARKET orders
+     * @param quantity fixed point
+     */
+    public CompletableFuture<Long> placeOrder(String account, String symbol, Side side, OrderStyle style, long price,
+                                              long quantity) {
+        boolean sampled = metrics.sample();
+        long start = sampled ? System.nanoTime() : 0;
+        ListedInstrument instrument = instruments.get(symbol);
+        NewOrder order = null;
+        try {
+            if (instrument == null) {
+                throw new IllegalArgumentException("Instrument " + symbol + " not found");
+            }
+            order = newOrder(account, instrument, side, style, style == OrderStyle.LIMIT ? price : 0, quantity);
+        } finally {
+            if (sampled) {
+                metrics.recordValidation(instrument, order != null, System.nanoTime() - start);
             }
         }
+        return sequencer.shardFor(instrument).place(order.orderId(), order.account(), instrument, side, style,
+                order.price(), quantity, order.timestamp());
+    }
+
+    public Order getOrderById(String orderId) {
+        long id = parseOrderId(orderId);
+        return id > 0 ? getOrderById(id) : null;
+    }
+
+    public Order getOrderById(long orderId) {
+        return orderStore.toOrder(orderId);
+    }
 
-        // Create trade
-        Trade trade = new Trade(order.getOrderId(), order.getSymbol(), quantity, executionPrice, orderType);
-        trades.add(trade);
+    public Trade getTradeById(long tradeId) {
+        return tradeStore.toTrade(tradeId);
+    }
 
-        // Update portfolio
-        updatePortfolio(trade, instrument);
+    /**
+     * Order state by column, for edges that encode orders without building {@link Order} views.
+     */
+    public OrderStore getOrderStore() {
+        return orderStore;
+    }
 
-        return trade;
+    /**
+     * Trade rows by column, for edges that encode trades without building {@link Trade} views.
+     */
+    public TradeStore getTradeStore() {
+        return tradeStore;
     }
 
-    private void updatePortfolio(Trade trade, Instrument instrument) {
-        String symbol = trade.getSymbol();
-        PortfolioHolding holding = portfolio.computeIfAbsent(symbol, k -> new PortfolioHolding(symbol));
+    /**
+     * Trades, order-state changes and quote changes published by the shards, for streaming to clients.
+     */
+    public EventFeed getEventFeed() {
+        return eventFeed;
+    }
 
-        if (trade.getSide().equals("BUY")) {
-            // Buy: update average price and quantity
-            Double totalCost = (holding.getQuantity() * holding.getAveragePrice()) + 
-                             (trade.getQuantity() * trade.getPrice());
-            holding.setQuantity(holding.getQuantity() + trade.getQuantity());
-            holding.setAveragePrice(totalCost / holding.getQuantity());
-        } else {
-            // Sell: reduce quantity
-            holding.setQuantity(holding.getQuantity() - trade.getQuantity());
-            if (holding.getQuantity() <= 0) {
-                holding.setQuantity(0.0);
-                holding.setAveragePrice(0.0);
+    /**
+     * Ids of the orders matching every given filter, newest first; null filters match everything.
+     * @param from inclusive
+     * @param to exclusive
+     * @param before order id cursor from the previous page, null for the first page
+     * @param limit page size, null for the default
+     */
+    public IdPage getOrders(String symbol, String status, String side, LocalDateTime from, LocalDateTime to,
+                            Long before, Integer limit) {
+        int pageSize = pageSize(limit);
+        OrderStatus orderStatus = null;
+        if (status != null) {
+            orderStatus = OrderStatus.parse(status);
+            if (orderStatus == null) {
+                throw new IllegalArgumentException("Unknown order status " + status);
+            }
+        }
+        Side orderSide = parseSide(side);
+        ListedInstrument instrument = null;
+        if (symbol != null) {
+            // Delisted instruments keep their orders
+            instrument = instruments.find(symbol);
+            if (instrument == null) {
+                return IdPage.EMPTY;
             }
         }
+        long[] ids = new long[pageSize];
+        return IdPage.of(ids, orderStore.findIds(instrument, orderStatus, orderSide, fromNanos(from), toNanos(to),
+                before != null ? before : Long.MAX_VALUE, ids));
+    }
 
-        // Update current value
-        holding.setCurrentValue(holding.getQuantity() * instrument.getLastTradedPrice());
+    /**
+     * @return future completed with the order id once the shard has taken the order off the book
+     */
+    public CompletableFuture<Long> cancelOrder(String orderId) {
+        return cancelOrder(parseOrderId(orderId));
     }
 
-    public Order getOrderById(String orderId) {
-        return orders.get(orderId);
+    public CompletableFuture<Long> cancelOrder(long id) {
+        ListedInstrument instrument = id > 0 ? orderStore.getInstrument(id) : null;
+        if (instrument == null) {
+            throw new IllegalArgumentException("Order not found");
+        }
+
+        // Status is checked on the shard so a concurrent fill cannot be cancelled over
+        return sequencer.shardFor(instrument).cancel(id, instrument);
     }
 
-    public List<Order> getAllOrders() {
-        return new ArrayList<>(orders.values());
+    /**
+     * Cancel every resting order matching the given filters; null filters match everything. Each shard
+     * involved takes the orders off its books in one pass, so the cancels cost one ring slot per shard.
+     * @param account null for every account
+     * @return future completed with the number of orders cancelled
+     */
+    public CompletableFuture<Long> cancelOrders(String symbol, String side, String account) {
+        Side orderSide = parseSide(side);
+        int accountId = account != null ? accounts.find(account) : EngineShard.ANY_ACCOUNT;
+        ListedInstrument instrument = symbol != null ? instruments.find(symbol) : null;
+        if (account != null && accountId < 0 || symbol != null && instrument == null) {
+            // Nothing can be resting for an account or instrument the engine has never seen
+            return CompletableFuture.completedFuture(0L);
+        }
+        if (instrument != null) {
+            return sequencer.shardFor(instrument).massCancel(instrument, orderSide, accountId);
+        }
+        List<CompletableFuture<Long>> cancels = new ArrayList<>();
+        for (EngineShard shard : sequencer.getShards()) {
+            cancels.add(shard.massCancel(null, orderSide, accountId));
+        }
+        return CompletableFuture.allOf(cancels.toArray(CompletableFuture[]::new))
+                .thenApply(done -> cancels.stream().mapToLong(CompletableFuture::join).sum());
     }
 
-    public Order cancelOrder(String orderId) {
-        Order order = orders.get(orderId);
-        if (order == null) {
+    /**
+     * Validate the new terms on the calling thread and amend the resting order on its shard.
+     * @param price new limit price, or null to keep it
+     * @param quantity new total quantity, filled part included, or null to keep it
+     * @return future completed with the order id once the amendment has been matched and booked
+     */
+    public CompletableFuture<Long> amendOrder(String orderId, Double price, Double quantity) {
+        long id = parseOrderId(orderId);
+        ListedInstrument instrument = id > 0 ? orderStore.getInstrument(id) : null;
+        if (instrument == null) {
             throw new IllegalArgumentException("Order not found");
         }
+        if (price == null && quantity == null) {
+            throw new IllegalArgumentException("price or quantity is required");
+        }
+        if (price != null && orderStore.getStyle(id) != OrderStyle.LIMIT) {
+            throw new IllegalArgumentException("price can only be amended on LIMIT orders");
+        }
 
-        if (order.getStatus().equals("EXECUTED") || order.getStatus().equals("CANCELLED")) {
-            throw new IllegalArgumentException("Cannot cancel order with status " + order.getStatus());
+        long amendedPrice = price != null ? FixedPoint.fromDouble(price) : 0;
+        if (price != null && amendedPrice <= 0) {
+            throw new IllegalArgumentException("price must be greater than 0");
+        }
+        if (price != null && !FixedPoint.isMultipleOf(amendedPrice, instrument.getTickSize())) {
+            throw new IllegalArgumentException("price must be a multiple of tick size "
+                    + instrument.getView().getTickSize());
+        }
+        long amendedQuantity = quantity != null ? FixedPoint.fromDouble(quantity) : 0;
+        if (quantity != null && amendedQuantity <= 0) {
+            throw new IllegalArgumentException("quantity must be greater than 0");
+        }
+        if (quantity != null && !FixedPoint.isMultipleOf(amendedQuantity, instrument.getLotSize())) {
+            throw new IllegalArgumentException("quantity must be a multiple of lot size "
+                    + instrument.getView().getLotSize());
         }
 
-        order.setStatus("CANCELLED");
-        return order;
+        // Whether the order still rests, and its filled quantity, are checked on the shard
+        return sequencer.shardFor(instrument).amend(id, instrument, amendedPrice, amendedQuantity,
+                EngineClock.epochNanos());
     }
 
-    public List<Trade> getAllTrades() {
-        return new ArrayList<>(trades);
+    /**
+     * Ids of the trades matching every given filter, newest first; null filters match everything.
+     * @param orderId matches either side of a trade
+     * @param side aggressor side
+     * @param from inclusive
+     * @param to exclusive
+     * @param before trade id cursor from the previous page, null for the first page
+     * @param limit page size, null for the default
+     */
+    public IdPage getTrades(String symbol, String orderId, String side, LocalDateTime from, LocalDateTime to,
+                            Long before, Integer limit) {
+        int pageSize = pageSize(limit);
+        Side tradeSide = parseSide(side);
+        ListedInstrument instrument = null;
+        if (symbol != null) {
+            // Delisted instruments keep their trades
+            instrument = instruments.find(symbol);
+            if (instrument == null) {
+                return IdPage.EMPTY;
+            }
+        }
+        long id = 0;
+        if (orderId != null) {
+            id = parseOrderId(orderId);
+            if (id <= 0) {
+                return IdPage.EMPTY;
+            }
+        }
+        long[] ids = new long[pageSize];
+        return IdPage.of(ids, tradeStore.findIds(instrument, id, tradeSide, fromNanos(from), toNanos(to),
+                before != null ? before : Long.MAX_VALUE, ids));
+    }
+
+    /**
+     * Holdings of one account, valued at the current price. Each shard's positions are read in place,
+     * touching only the account's own positions and never waiting on fills.
+     * @param account null for the default account
+     */
+    public List<PortfolioHolding> getPortfolio(String account) {
+        int id = accounts.find(account);
+        List<PortfolioHolding> result = new ArrayList<>();
+        if (id < 0) {
+            return result;
+        }
+        sequencer.getShards().forEach(shard -> shard.holdings(id, result));
+        return result;
+    }
+
+    /**
+     * Totals of one account's positions. Each shard keeps its accounts' totals current as fills and
+     * prices arrive, so this sums one entry per shard rather than valuing positions.
+     * @param account null for the default account
+     */
+    public PortfolioSummary getPortfolioSummary(String account) {
+        int id = accounts.find(account);
+        PortfolioSummary summary = new PortfolioSummary(id < 0 ? account : accounts.name(id));
+        if (id < 0) {
+            return summary;
+        }
+        long[] totals = new long[3]; // Market value, cost basis, realized PnL
+        sequencer.getShards().forEach(shard -> shard.totals(id, totals));
+        summary.setMarketValue(FixedPoint.toDouble(totals[0]));
+        summary.setCostBasis(FixedPoint.toDouble(totals[1]));
+        summary.setUnrealizedPnl(FixedPoint.toDouble(totals[0] - totals[1]));
+        summary.setRealizedPnl(FixedPoint.toDouble(totals[2]));
+        return summary;
     }
 
-    public List<PortfolioHolding> getPortfolio() {
-        // Update current values for all holdings
-        portfolio.values().forEach(holding -> {
-            Instrument instrument = getInstrumentBySymbol(holding.getSymbol());
-            if (instrument != null) {
-                holding.setCurrentValue(holding.getQuantity() * instrument.getLastTradedPrice());
+    /**
+     * Pre-trade risk checks across all shards: checks run, rejections per rule and the mean time of
+     * the sampled checks.
+     */
+    public RiskStats getRiskStats() {
+        long checks = 0;
+        long samples = 0;
+        long sampleNanos = 0;
+        Map<String, Long> rejections = new LinkedHashMap<>();
+        for (RiskRule rule : RiskRule.values()) {
+            rejections.put(rule.name(), 0L);
+        }
+        for (EngineShard shard : sequencer.getShards()) {
+            PreTradeRisk risk = shard.getRisk();
+            checks += risk.getChecks();
+            samples += risk.getSampledChecks();
+            sampleNanos += risk.getSampledNanos();
+            for (RiskRule rule : RiskRule.values()) {
+                rejections.merge(rule.name(), risk.getRejections(rule), Long::sum);
             }
-        });
+        }
+        return new RiskStats(checks, rejections, samples == 0 ? null : (double) sampleNanos / samples);
+    }
+
+    /**
+     * The engine's shards, for gauges that read their live state.
+     */
+    public List<EngineShard> getShards() {
+        return sequencer.getShards();
+    }
 
-        // Return only holdings with quantity > 0
-        return portfolio.values().stream()
-                .filter(h -> h.getQuantity() > 0)
-                .collect(Collectors.toList());
+    public List<ShardStats> getEngineStats() {
+        List<ShardStats> stats = new ArrayList<>();
+        for (EngineShard shard : sequencer.getShards()) {
+            stats.add(new ShardStats(shard.getIndex(), shard.getIngressDepth(), shard.getExecutionDepth(),
+                    shard.getRingSize(), shard.getMaxBatch()));
+        }
+        return stats;
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        return limit;
+    }
+
+    private static Side parseSide(String side) {
+        if (side == null) {
+            return null;
+        }
+        Side parsed = Side.parse(side);
+        if (parsed == null) {
+            throw new IllegalArgumentException("side must be BUY or SELL");
+        }
+        return parsed;
+    }
+
+    private static long fromNanos(LocalDateTime from) {
+        return from != null ? EngineClock.toEpochNanos(from) : Long.MIN_VALUE;
+    }
+
+    private static long toNanos(LocalDateTime to) {
+        return to != null ? EngineClock.toEpochNanos(to) : Long.MAX_VALUE;
+    }
+
+    private static long parseOrderId(String orderId) {
+        try {
+            return Long.parseLong(orderId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.trading.wire;
+
+/**
+ * Binary order entry protocol: length-prefixed frames over a plain TCP connection.
+ * <p>
+ * Every frame is a big-endian {@code int} body length followed by the body, whose first byte is the
+ * message type. Prices and quantities are fixed point with six decimals (see
+ * {@link com.trading.engine.FixedPoint}), enums are ordinals and timestamps are epoch nanoseconds.
+ * Symbols and accounts are a length byte followed by ASCII. Requests carry a client-chosen correlation id that
+ * the response echoes, so a client may pipeline requests; responses to orders in different
+ * symbols may arrive in a different order than the requests.
+ * <pre>
+ *   NEW_ORDER         correlationId:long side:byte style:byte price:long quantity:long symbol [account]
+ *   CANCEL_ORDER      correlationId:long orderId:long
+ *   EXECUTION_REPORT  correlationId:long orderId:long status:byte side:byte style:byte price:long
+ *                     quantity:long filledQuantity:long timestamp:long symbol account
+ *   REJECT            correlationId:long messageLength:short message:UTF-8
+ * </pre>
+ * A new order without an account, or with an empty one, is placed for the default account.
+ * An execution report carries the order's state once the engine has processed the request, as
+ * {@code POST /api/v1/orders} and {@code DELETE /api/v1/orders/{id}} return it.
+ */
+public final class WireProtocol {
+    public static final byte NEW_ORDER = 1;
+    public static final byte CANCEL_ORDER = 2;
+    public static final byte EXECUTION_REPORT = 11;
+    public static final byte REJECT = 12;
+
+    /**
+     * Largest frame body accepted; a connection sending a larger one is closed.
+     */
+    public static final int MAX_FRAME_LENGTH = 1024;
+
+    private WireProtocol() {
+    }
+}
@@ -0,0 +1,379 @@
+package com.trading.wire;
+
+import com.trading.engine.InstrumentRegistry;
+import com.trading.engine.OrderStatus;
+import com.trading.engine.OrderStore;
+import com.trading.engine.OrderStyle;
+import com.trading.engine.Side;
+import com.trading.service.TradingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * TCP endpoint for the {@link WireProtocol}, an alternative to the JSON order endpoints that feeds
+ * the same engine through {@link TradingService}.
+ * <p>
+ * One NIO selector thread accepts connections, decodes requests and validates and enqueues them
+ * on the shards. The shards' publish stages only hand completed order ids back to the connection;
+ * the selector thread encodes the execution reports straight from the order store's columns, so
+ * neither direction builds JSON or {@code Order} objects.
+ */
+@Component
+public class WireServer {
+    private static final Logger log = LoggerFactory.getLogger(WireServer.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Largest response: report with the longest symbol and a 64-byte account, or reject with its message cut to fit
+    private static final int MAX_RESPONSE_LENGTH = Math.max(4 + 1 + 8 * 8 + 3 + 1
+            + InstrumentRegistry.MAX_SYMBOL_LENGTH + 1 + 64, 4 + 1 + 8 + 2 + 255);
+
+    private final TradingService tradingService;
+    private final OrderStore orderStore;
+    private final boolean enabled;
+    private final String host;
+    private final int port;
+    private final Queue<Connection> flushQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread thread;
+
+    public WireServer(TradingService tradingService,
+                      @Value("${trading.wire.enabled:false}") boolean enabled,
+                      @Value("${trading.wire.host:0.0.0.0}") String host,
+                      @Value("${trading.wire.port:9090}") int port) {
+        this.tradingService = tradingService;
+        this.orderStore = tradingService.getOrderStore();
+        this.enabled = enabled;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Open the port; called once recovery has finished, as frames go straight to the engine.
+     */
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(host, port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        thread = new Thread(this::run, "wire-server");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Binary order entry listening on {}:{}", host, port);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        thread.join();
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException e) {
+                        connection.close();
+                    } catch (RuntimeException e) {
+                        // A bad connection must not take the selector thread, and every other connection, with it
+                        log.error("Closing binary connection after an unexpected error", e);
+                        connection.close();
+                    }
+                }
+                for (Connection connection; (connection = flushQueue.poll()) != null; ) {
+                    try {
+                        connection.flush();
+                    } catch (IOException e) {
+                        connection.close();
+                    } catch (RuntimeException e) {
+                        log.error("Closing binary connection after an unexpected error", e);
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Binary order entry stopped", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException e) {
+                    // Closing anyway
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    /**
+     * Outcome of one request, handed from the engine back to the selector thread.
+     */
+    private record Completion(long correlationId, long orderId, Throwable error) {
+    }
+
+    private final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean flushQueued = new AtomicBoolean();
+        final byte[] symbol = new byte[255];
+        final byte[] account = new byte[255];
+        SelectionKey key;
+        volatile boolean closed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            out.flip(); // Nothing to write yet
+        }
+
+        // Selector thread
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            while (in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < 1 || length > WireProtocol.MAX_FRAME_LENGTH) {
+                    log.warn("Closing binary connection {}: invalid frame length {}", channel.getRemoteAddress(),
+                            length);
+                    close();
+                    return;
+                }
+                if (in.remaining() < 4 + length) {
+                    break;
+                }
+                int limit = in.limit();
+                int end = in.position() + 4 + length;
+                in.position(in.position() + 4).limit(end);
+                try {
+                    handle(in.get());
+                } catch (BufferUnderflowException e) {
+                    log.warn("Closing binary connection {}: truncated message", channel.getRemoteAddress());
+                    close();
+                    return;
+                }
+                in.limit(limit).position(end);
+            }
+            in.compact();
+        }
+
+        private void handle(byte type) {
+            long correlationId = in.getLong();
+            if (type == WireProtocol.NEW_ORDER) {
+                int side = in.get();
+                int style = in.get();
+                long price = in.getLong();
+                long quantity = in.getLong();
+                int symbolLength = in.get() & 0xFF;
+                in.get(symbol, 0, symbolLength);
+                int accountLength = in.hasRemaining() ? in.get() & 0xFF : 0;
+                in.get(account, 0, accountLength);
+                if (side < 0 || side > 1 || style < 0 || style > 1) {
+                    complete(correlationId, 0, new IllegalArgumentException("Invalid side or style"));
+                    return;
+                }
+                submit(correlationId, () -> tradingService.placeOrder(
+                        accountLength > 0 ? new String(account, 0, accountLength, StandardCharsets.US_ASCII) : null,
+                        new String(symbol, 0, symbolLength, StandardCharsets.US_ASCII), Side.fromOrdinal(side),
+                        OrderStyle.fromOrdinal(style), price, quantity));
+            } else if (type == WireProtocol.CANCEL_ORDER) {
+                long orderId = in.getLong();
+                submit(correlationId, () -> tradingService.cancelOrder(orderId));
+            } else {
+                complete(correlationId, 0, new IllegalArgumentException("Unknown message type " + type));
+            }
+        }
+
+        private void submit(long correlationId, Supplier<CompletableFuture<Long>> request) {
+            CompletableFuture<Long> future;
+            try {
+                future = request.get();
+            } catch (IllegalArgumentException e) {
+                complete(correlationId, 0, e);
+                return;
+            }
+            future.whenComplete((orderId, error) -> complete(correlationId, orderId == null ? 0 : orderId, error));
+        }
+
+        void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            while (true) {
+                if (!out.hasRemaining()) {
+                    out.clear();
+                    encode();
+                    out.flip();
+                    if (!out.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                }
+                channel.write(out);
+                if (out.hasRemaining()) {
+                    // Socket buffer full: continue once it drains
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        }
+
+        private void encode() {
+            // Completions added from here on queue the connection again
+            flushQueued.set(false);
+            while (true) {
+                if (out.remaining() < MAX_RESPONSE_LENGTH) {
+                    // Out of room; flush() comes back for the rest once this is written
+                    flushQueued.set(true);
+                    return;
+                }
+                Completion completion = completions.poll();
+                if (completion == null) {
+                    return;
+                }
+                if (completion.error() != null) {
+                    encodeReject(completion.correlationId(), completion.error());
+                } else if (!InstrumentRegistry.validSymbol(orderStore.getInstrument(completion.orderId()).getSymbol())) {
+                    // Listed before symbols were restricted to what the protocol can carry
+                    encodeReject(completion.correlationId(), new IllegalArgumentException(
+                            "Symbol of order " + completion.orderId() + " cannot be encoded; use the HTTP API"));
+                } else {
+                    encodeReport(completion.correlationId(), completion.orderId());
+                }
+            }
+        }
+
+        private void encodeReport(long correlationId, long orderId) {
+            int start = out.position();
+            out.position(start + 4);
+            out.put(WireProtocol.EXECUTION_REPORT);
+            out.putLong(correlationId);
+            out.putLong(orderId);
+            OrderStatus status = orderStore.getStatus(orderId);
+            out.put((byte) status.ordinal());
+            out.put((byte) orderStore.getSide(orderId).ordinal());
+            out.put((byte) orderStore.getStyle(orderId).ordinal());
+            out.putLong(orderStore.getPrice(orderId));
+            out.putLong(orderStore.getQuantity(orderId));
+            out.putLong(orderStore.getFilledQuantity(orderId));
+            out.putLong(orderStore.getTimestamp(orderId));
+            putAscii(orderStore.getInstrument(orderId).getSymbol());
+            putAscii(orderStore.getAccountName(orderId));
+            out.putInt(start, out.position() - start - 4);
+        }
+
+        private void putAscii(String value) {
+            out.put((byte) value.length());
+            for (int i = 0; i < value.length(); i++) {
+                out.put((byte) value.charAt(i));
+            }
+        }
+
+        private void encodeReject(long correlationId, Throwable error) {
+            String message = error instanceof IllegalArgumentException ? error.getMessage() : "Internal error";
+            byte[] bytes = (message == null ? "" : message).getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, 255);
+            while (length < bytes.length && (bytes[length] & 0xC0) == 0x80) {
+                length--; // Back off to a character boundary: the cut byte continues a multibyte character
+            }
+            out.putInt(1 + 8 + 2 + length);
+            out.put(WireProtocol.REJECT);
+            out.putLong(correlationId);
+            out.putShort((short) length);
+            out.put(bytes, 0, length);
+        }
+
+        void close() {
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+
+        // Any thread: engine publish stages and the selector thread itself
+
+        void complete(long correlationId, long orderId, Throwable error) {
+            if (closed) {
+                return;
+            }
+            completions.add(new Completion(correlationId, orderId, error));
+            if (flushQueued.compareAndSet(false, true)) {
+                flushQueue.add(this);
+                if (Thread.currentThread() != thread && wakeupPending.compareAndSet(false, true)) {
+                    selector.wakeup();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.trading.benchmarks;
+
+import com.trading.engine.EngineMetrics;
+import com.trading.model.OrderRequest;
+import com.trading.service.TradingService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A trading engine wired as the application wires it, minus Spring, journaling and snapshots, so
+ * benchmarks measure matching and booking rather than disk. Trades are still archived, to a temporary
+ * directory removed on close. The sample instruments are listed.
+ */
+final class BenchmarkEngine implements AutoCloseable {
+    // Keeps each holdings buy within the notional limit at prices up to 1000
+    private static final long MAX_HOLDINGS_ORDER = 100_000;
+
+    final TradingService service;
+    private final Path tradesDir;
+
+    BenchmarkEngine(int shards) {
+        try {
+            tradesDir = Files.createTempDirectory("trading-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        service = new TradingService(shards, 16384, 256, false, null, 0, 0, 0, null, 0,
+                tradesDir.toString(), 1 << 20, 100, 1000, 1000, 65536,
+                1_000_000, 100_000_000, 0, 1000, 0, EngineMetrics.NONE);
+        service.recover();
+    }
+
+    /**
+     * Give the account holdings to sell: MARKET buys that meet an empty book and fill at the last
+     * price, split to stay within the order limits. Call before anything rests on the symbol's book.
+     */
+    void buyHoldings(String account, String symbol, long quantity) {
+        for (long left = quantity; left > 0; left -= MAX_HOLDINGS_ORDER) {
+            service.placeOrder(order("BUY", "MARKET", symbol, Math.min(left, MAX_HOLDINGS_ORDER), null, account))
+                    .join();
+        }
+    }
+
+    static OrderRequest order(String side, String style, String symbol, double quantity, Double price,
+                              String account) {
+        OrderRequest request = new OrderRequest();
+        request.setOrderType(side);
+        request.setOrderStyle(style);
+        request.setSymbol(symbol);
+        request.setQuantity(quantity);
+        request.setPrice(price);
+        request.setAccount(account);
+        return request;
+    }
+
+    @Override
+    public void close() {
+        service.shutdown();
+        try (Stream<Path> files = Files.walk(tradesDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
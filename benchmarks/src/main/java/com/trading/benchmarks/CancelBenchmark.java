@@ -0,0 +1,49 @@
+package com.trading.benchmarks;
+
+import com.trading.model.OrderRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancel of a resting order through {@code TradingService.cancelOrder}. Each operation rests a LIMIT
+ * buy below the market and cancels it; the placement alone is the non-crossing LIMIT case of
+ * {@link OrderPlacementBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CancelBenchmark {
+    private BenchmarkEngine engine;
+    private OrderRequest resting;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new BenchmarkEngine(4);
+        resting = BenchmarkEngine.order("BUY", "LIMIT", "AAPL", 1, 170.00, "resting");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public Long placeAndCancel() {
+        return cancelOne();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Long placeAndCancelContended() {
+        return cancelOne();
+    }
+
+    private Long cancelOne() {
+        long orderId = engine.service.placeOrder(resting).join();
+        return engine.service.cancelOrder(orderId).join();
+    }
+}
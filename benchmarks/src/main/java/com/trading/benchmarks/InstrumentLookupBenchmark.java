@@ -0,0 +1,56 @@
+package com.trading.benchmarks;
+
+import com.trading.model.Instrument;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Symbol lookup through {@code TradingService.getInstrumentBySymbol}, as every order and quote
+ * request does, with 10, 10k and 100k instruments listed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentLookupBenchmark {
+
+    @Param({"10", "10000", "100000"})
+    public int instruments;
+
+    private BenchmarkEngine engine;
+    private String[] symbols;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new BenchmarkEngine(4);
+        symbols = new String[instruments];
+        for (int i = 0; i < instruments; i++) {
+            symbols[i] = "SYM" + i;
+            engine.service.listInstrument(new Instrument(symbols[i], "BENCH", "STOCK", 100.0, 0.01, 1.0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public Instrument lookup() {
+        return engine.service.getInstrumentBySymbol(randomSymbol());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Instrument lookupContended() {
+        return engine.service.getInstrumentBySymbol(randomSymbol());
+    }
+
+    private String randomSymbol() {
+        return symbols[ThreadLocalRandom.current().nextInt(symbols.length)];
+    }
+}
@@ -0,0 +1,106 @@
+package com.trading.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trading.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the API models with a mapper configured as the application's (ISO dates,
+ * unknown properties ignored). The models are read from an engine that has traded, so they carry the
+ * values the API returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private Order order;
+    private Trade trade;
+    private Quote quote;
+    private Instrument instrument;
+    private List<PortfolioHolding> portfolio;
+    private String orderRequestJson;
+    private String orderJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        try (BenchmarkEngine engine = new BenchmarkEngine(1)) {
+            engine.buyHoldings("maker", "AAPL", 25);
+            for (int i = 0; i < 5; i++) {
+                engine.service.placeOrder(BenchmarkEngine.order("SELL", "LIMIT", "AAPL", 5, 176.00 + i, "maker"))
+                        .join();
+            }
+            long orderId = engine.service.placeOrder(BenchmarkEngine.order("BUY", "LIMIT", "AAPL", 7, 177.00,
+                    "taker")).join();
+            order = engine.service.getOrderById(orderId);
+            trade = engine.service.getTradeById(2); // The first between two orders; 1 bought the holdings
+            quote = engine.service.getQuote("AAPL");
+            instrument = engine.service.getInstrumentBySymbol("AAPL");
+            portfolio = engine.service.getPortfolio("taker");
+        }
+        orderRequestJson = mapper.writeValueAsString(
+                BenchmarkEngine.order("BUY", "LIMIT", "AAPL", 10, 175.50, "desk-1"));
+        orderJson = mapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String writeOrder() throws JsonProcessingException {
+        return mapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String writeOrderContended() throws JsonProcessingException {
+        return mapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String writeTrade() throws JsonProcessingException {
+        return mapper.writeValueAsString(trade);
+    }
+
+    @Benchmark
+    public String writeQuote() throws JsonProcessingException {
+        return mapper.writeValueAsString(quote);
+    }
+
+    @Benchmark
+    public String writeInstrument() throws JsonProcessingException {
+        return mapper.writeValueAsString(instrument);
+    }
+
+    @Benchmark
+    public String writePortfolio() throws JsonProcessingException {
+        return mapper.writeValueAsString(portfolio);
+    }
+
+    @Benchmark
+    public OrderRequest readOrderRequest() throws JsonProcessingException {
+        return mapper.readValue(orderRequestJson, OrderRequest.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OrderRequest readOrderRequestContended() throws JsonProcessingException {
+        return mapper.readValue(orderRequestJson, OrderRequest.class);
+    }
+
+    @Benchmark
+    public Order readOrder() throws JsonProcessingException {
+        return mapper.readValue(orderJson, Order.class);
+    }
+}
@@ -0,0 +1,329 @@
+package com.trading.benchmarks;
+
+import com.trading.TradingApiApplication;
+import com.trading.sdk.client.TradingApiClient;
+import com.trading.sdk.exception.TradingApiException;
+import com.trading.sdk.model.Instrument;
+import com.trading.sdk.model.Order;
+import com.trading.sdk.model.OrderRequest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Open-loop load generator: drives a mix of order placements, cancels and status requests through
+ * the SDK's {@link TradingApiClient} at a fixed rate, and reports latency percentiles per request
+ * type. With no {@code --url} it starts the backend in-process on a free port, with its journal,
+ * snapshots and trade archive in a temporary directory, so a run needs nothing else.
+ * <p>
+ * Requests are scheduled at fixed intervals whatever the responses do, and a request's latency is
+ * measured from when it was scheduled to be sent, not from when a client thread got to send it. A
+ * stall therefore shows up in the latency of every request that should have been sent during it,
+ * as it would for clients that do not wait for each other (no coordinated omission).
+ * <p>
+ * Sells must be covered by holdings, so before the load each account buys 100 times the largest
+ * order quantity of every symbol at market, in smaller amounts where that breaks the server's order limits.
+ * <p>
+ * Errors count requests the API refused, including cancels of orders that filled before the cancel
+ * arrived. Exits with status 1 if a {@code --max-p99-ms} or {@code --max-p999-ms} gate is exceeded.
+ * <pre>
+ *   java -cp target/benchmarks.jar com.trading.benchmarks.LoadGenerator --rate=5000 --max-p99-ms=5
+ * </pre>
+ */
+public final class LoadGenerator {
+    private static final int RECENT_ORDERS = 4096;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private enum Request {
+        PLACE,
+        CANCEL,
+        STATUS
+    }
+
+    private final LoadOptions options;
+    private final TradingApiClient client;
+    private final List<Instrument> instruments;
+    private final Recorder[] recorders = new Recorder[Request.values().length];
+    private final LongAdder[] errors = new LongAdder[Request.values().length];
+    // Order ids of recently placed orders left resting, 0 for an empty slot; cancels take them out
+    private final AtomicLongArray restingOrders = new AtomicLongArray(RECENT_ORDERS);
+    private final AtomicLong restingCount = new AtomicLong();
+
+    LoadGenerator(LoadOptions options, TradingApiClient client) throws TradingApiException {
+        this.options = options;
+        this.client = client;
+        this.instruments = client.getInstruments().stream()
+                .filter(instrument -> options.symbols().isEmpty() || options.symbols().contains(instrument.getSymbol()))
+                .toList();
+        if (instruments.isEmpty()) {
+            throw new IllegalArgumentException("None of the symbols " + options.symbols() + " is listed");
+        }
+        for (Request request : Request.values()) {
+            recorders[request.ordinal()] = new Recorder(3);
+            errors[request.ordinal()] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Path dataDir = null;
+        ConfigurableApplicationContext backend = null;
+        String url = options.url();
+        if (url == null) {
+            dataDir = Files.createTempDirectory("trading-load");
+            backend = startBackend(options, dataDir);
+            url = "http://localhost:" + backend.getEnvironment().getProperty("local.server.port");
+        }
+        boolean passed;
+        try {
+            passed = new LoadGenerator(options, new TradingApiClient(url)).run(System.out);
+        } finally {
+            if (backend != null) {
+                backend.close();
+                delete(dataDir);
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Apply the load and print the report.
+     * @return false if a latency gate was exceeded
+     */
+    boolean run(PrintStream out) throws InterruptedException, IOException {
+        buyHoldings();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService senders = Executors.newFixedThreadPool(options.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "load-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmupSeconds() * NANOS_PER_SECOND;
+        long end = measureFrom + options.durationSeconds() * NANOS_PER_SECOND;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long scheduled = 0;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * NANOS_PER_SECOND / options.rate());
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+            senders.execute(nextRequest(random, intended, intended >= measureFrom));
+            scheduled += intended >= measureFrom ? 1 : 0;
+        }
+        senders.shutdown();
+        boolean drained = senders.awaitTermination(60, TimeUnit.SECONDS);
+
+        return report(out, scheduled, drained);
+    }
+
+    private void buyHoldings() {
+        for (int account = 0; account < options.accounts(); account++) {
+            for (Instrument instrument : instruments) {
+                double lot = instrument.getLotSize();
+                for (double quantity = options.maxQuantity() * 100.0; quantity >= lot;
+                     quantity = Math.floor(quantity / 2 / lot) * lot) {
+                    OrderRequest order = new OrderRequest("BUY", "MARKET", instrument.getSymbol(), quantity);
+                    order.setAccount("load-" + account);
+                    try {
+                        client.placeOrder(order);
+                        break;
+                    } catch (TradingApiException e) {
+                        // Over a limit: try half as much
+                    }
+                }
+            }
+        }
+    }
+
+    // Choose on the scheduling thread, so sender threads only send and record
+    private Runnable nextRequest(ThreadLocalRandom random, long intended, boolean measured) {
+        int pick = random.nextInt(options.placeWeight() + options.cancelWeight() + options.statusWeight());
+        if (pick >= options.placeWeight()) {
+            int slot = random.nextInt((int) Math.min(restingCount.get(), RECENT_ORDERS) + 1) - 1;
+            long orderId = slot >= 0 ? restingOrders.get(slot) : 0;
+            if (orderId != 0 && pick < options.placeWeight() + options.cancelWeight()) {
+                if (restingOrders.compareAndSet(slot, orderId, 0)) {
+                    String id = Long.toString(orderId);
+                    return () -> send(Request.CANCEL, intended, measured, () -> client.cancelOrder(id));
+                }
+            } else if (orderId != 0) {
+                String id = Long.toString(orderId);
+                return () -> send(Request.STATUS, intended, measured, () -> client.getOrderStatus(id));
+            }
+            // Nothing resting to cancel or look up yet: place instead
+        }
+
+        OrderRequest order = newOrder(random);
+        return () -> send(Request.PLACE, intended, measured, () -> {
+            Order placed = client.placeOrder(order);
+            if ("PLACED".equals(placed.getStatus()) || "PARTIALLY_FILLED".equals(placed.getStatus())) {
+                int slot = (int) (restingCount.getAndIncrement() % RECENT_ORDERS);
+                restingOrders.set(slot, Long.parseLong(placed.getOrderId()));
+            }
+            return placed;
+        });
+    }
+
+    private OrderRequest newOrder(ThreadLocalRandom random) {
+        Instrument instrument = instruments.get(random.nextInt(instruments.size()));
+        String side = random.nextBoolean() ? "BUY" : "SELL";
+        double quantity = Math.ceil(random.nextInt(1, options.maxQuantity() + 1) / instrument.getLotSize())
+                * instrument.getLotSize();
+        OrderRequest order;
+        if (random.nextDouble() < options.marketRatio()) {
+            order = new OrderRequest(side, "MARKET", instrument.getSymbol(), quantity);
+        } else {
+            double offset = random.nextDouble(-1, 1) * options.spreadBps() / 10_000;
+            double price = Math.max(1, Math.round(instrument.getLastTradedPrice() * (1 + offset)
+                    / instrument.getTickSize())) * instrument.getTickSize();
+            order = new OrderRequest(side, "LIMIT", instrument.getSymbol(), quantity, price);
+        }
+        order.setAccount("load-" + random.nextInt(options.accounts()));
+        return order;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object call() throws TradingApiException;
+    }
+
+    private void send(Request request, long intended, boolean measured, Call call) {
+        boolean failed = false;
+        try {
+            call.call();
+        } catch (TradingApiException | RuntimeException e) {
+            failed = true;
+        }
+        if (measured) {
+            recorders[request.ordinal()].recordValue(System.nanoTime() - intended);
+            if (failed) {
+                errors[request.ordinal()].increment();
+            }
+        }
+    }
+
+    private boolean report(PrintStream out, long scheduled, boolean drained) throws IOException {
+        out.printf("%n%.0f requests/s scheduled for %d s after %d s warmup, %d client threads, %d symbols, "
+                        + "%d accounts%n", options.rate(), options.durationSeconds(), options.warmupSeconds(),
+                options.threads(), instruments.size(), options.accounts());
+        out.printf("%-8s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "request", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms");
+        boolean passed = true;
+        long completed = 0;
+        List<String> failures = new ArrayList<>();
+        for (Request request : Request.values()) {
+            Histogram histogram = recorders[request.ordinal()].getIntervalHistogram();
+            completed += histogram.getTotalCount();
+            out.printf("%-8s %10d %8d %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n", request, histogram.getTotalCount(),
+                    errors[request.ordinal()].sum(), millis(histogram, 50), millis(histogram, 90),
+                    millis(histogram, 99), millis(histogram, 99.9), millis(histogram, 99.99),
+                    histogram.getMaxValue() / 1e6);
+            if (histogram.getTotalCount() > 0) {
+                gate(failures, request, "p99", millis(histogram, 99), options.maxP99Millis());
+                gate(failures, request, "p99.9", millis(histogram, 99.9), options.maxP999Millis());
+            }
+            if (options.histogramDir() != null) {
+                writeDistribution(histogram, Path.of(options.histogramDir(), request.name().toLowerCase() + ".hgrm"));
+            }
+        }
+        out.printf("Completed %d of %d measured requests, %.0f requests/s%n", completed, scheduled,
+                (double) completed / options.durationSeconds());
+        if (!drained) {
+            failures.add("requests still outstanding 60 s after the load stopped");
+        }
+        for (String failure : failures) {
+            out.println("FAILED: " + failure);
+            passed = false;
+        }
+        return passed;
+    }
+
+    private static void gate(List<String> failures, Request request, String percentile, double millis,
+                             Double limit) {
+        if (limit != null && millis > limit) {
+            failures.add(request + " " + percentile + " " + millis + " ms > " + limit + " ms");
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    // HdrHistogram's percentile distribution format, in milliseconds, for plotting
+    private static void writeDistribution(Histogram histogram, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream stream = new PrintStream(file.toFile())) {
+            histogram.outputPercentileDistribution(stream, 1e6);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startBackend(LoadOptions options, Path dataDir) {
+        // Later arguments replace earlier ones with the same name
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : List.of("--server.port=0", "--logging.level.root=WARN",
+                "--trading.journal.dir=" + dataDir.resolve("journal"),
+                "--trading.snapshot.dir=" + dataDir.resolve("snapshots"),
+                "--trading.trades.dir=" + dataDir.resolve("trades"))) {
+            args.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        for (String arg : options.backendArgs()) {
+            int equals = arg.indexOf('=');
+            args.put(equals < 0 ? arg : arg.substring(0, equals), arg);
+        }
+        return SpringApplication.run(TradingApiApplication.class, args.values().toArray(String[]::new));
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
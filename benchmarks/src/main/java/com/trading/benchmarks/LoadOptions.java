@@ -0,0 +1,101 @@
+package com.trading.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of a {@link LoadGenerator} run, parsed from {@code --name=value} arguments. Arguments
+ * starting with {@code --trading.}, {@code --server.} or {@code --logging.} are passed to the embedded
+ * backend instead.
+ */
+record LoadOptions(String url, double rate, int warmupSeconds, int durationSeconds, int threads,
+                   int placeWeight, int cancelWeight, int statusWeight, double marketRatio, int spreadBps,
+                   int maxQuantity, List<String> symbols, int accounts, String histogramDir, Double maxP99Millis,
+                   Double maxP999Millis, List<String> backendArgs) {
+
+    static final String USAGE = """
+            Options (--name=value):
+              url                 backend to load, e.g. http://localhost:8080; an embedded backend if absent
+              rate                requests per second, scheduled at fixed intervals (default 1000)
+              warmup-seconds      load before measuring (default 5)
+              duration-seconds    measured load (default 30)
+              threads             client threads sending requests (default 64)
+              mix                 relative weights of place, cancel and status requests (default 70,20,10)
+              market-ratio        share of orders that are MARKET (default 0.1)
+              spread-bps          LIMIT prices within this many basis points of the last price (default 50)
+              max-quantity        order quantities from 1 to this (default 10)
+              symbols             comma-separated symbols (default: every listed instrument)
+              accounts            number of accounts orders are spread over (default 100)
+              histogram-dir       also write each request type's full percentile distribution here
+              max-p99-ms          fail (exit 1) if any request type's p99 is above this
+              max-p999-ms         fail (exit 1) if any request type's p99.9 is above this
+            Arguments starting with --trading., --server. or --logging. configure the embedded backend.
+            """;
+
+    static LoadOptions parse(String[] args) {
+        String url = null;
+        double rate = 1000;
+        int warmupSeconds = 5;
+        int durationSeconds = 30;
+        int threads = 64;
+        int[] mix = {70, 20, 10};
+        double marketRatio = 0.1;
+        int spreadBps = 50;
+        int maxQuantity = 10;
+        List<String> symbols = List.of();
+        int accounts = 100;
+        String histogramDir = null;
+        Double maxP99Millis = null;
+        Double maxP999Millis = null;
+        List<String> backendArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--trading.") || arg.startsWith("--server.") || arg.startsWith("--logging.")) {
+                backendArgs.add(arg);
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String value = arg.substring(equals + 1);
+            switch (arg.substring(2, equals)) {
+                case "url" -> url = value;
+                case "rate" -> rate = Double.parseDouble(value);
+                case "warmup-seconds" -> warmupSeconds = Integer.parseInt(value);
+                case "duration-seconds" -> durationSeconds = Integer.parseInt(value);
+                case "threads" -> threads = Integer.parseInt(value);
+                case "mix" -> mix = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                case "market-ratio" -> marketRatio = Double.parseDouble(value);
+                case "spread-bps" -> spreadBps = Integer.parseInt(value);
+                case "max-quantity" -> maxQuantity = Integer.parseInt(value);
+                case "symbols" -> symbols = List.of(value.split(","));
+                case "accounts" -> accounts = Integer.parseInt(value);
+                case "histogram-dir" -> histogramDir = value;
+                case "max-p99-ms" -> maxP99Millis = Double.parseDouble(value);
+                case "max-p999-ms" -> maxP999Millis = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be greater than 0");
+        }
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("duration-seconds must be greater than 0");
+        }
+        if (warmupSeconds < 0) {
+            throw new IllegalArgumentException("warmup-seconds must not be negative");
+        }
+        if (threads <= 0 || accounts <= 0 || maxQuantity <= 0) {
+            throw new IllegalArgumentException("threads, accounts and max-quantity must be greater than 0");
+        }
+        if (mix.length != 3 || mix[0] <= 0 || mix[1] < 0 || mix[2] < 0) {
+            throw new IllegalArgumentException("mix must be three weights, place, cancel and status, with place > 0");
+        }
+        return new LoadOptions(url, rate, warmupSeconds, durationSeconds, threads, mix[0], mix[1], mix[2],
+                marketRatio, spreadBps, maxQuantity, symbols, accounts, histogramDir, maxP99Millis, maxP999Millis,
+                List.copyOf(backendArgs));
+    }
+}
@@ -0,0 +1,69 @@
+package com.trading.benchmarks;
+
+import com.trading.model.OrderRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order placement through {@code TradingService.placeOrder}, from validation to the acknowledgement
+ * after matching and booking. A crossing operation first rests a sell from another account, which
+ * is given enough holdings for every iteration's sells up front, and then places the order that
+ * takes it, so it costs two placements and one trade; a non-crossing LIMIT buy rests below the
+ * market, and a non-crossing MARKET buy meets an empty book and fills at the last price.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPlacementBenchmark {
+
+    @Param({"MARKET", "LIMIT"})
+    public String style;
+
+    @Param({"false", "true"})
+    public boolean crossing;
+
+    private BenchmarkEngine engine;
+    private OrderRequest maker;
+    private OrderRequest taker;
+
+    // A new engine per iteration: the order store and resting orders grow with every operation
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new BenchmarkEngine(4);
+        if (crossing) {
+            engine.buyHoldings("maker", "AAPL", 20_000_000);
+        }
+        maker = BenchmarkEngine.order("SELL", "LIMIT", "AAPL", 1, 175.50, "maker");
+        Double price = style.equals("LIMIT") ? (crossing ? 175.50 : 170.00) : null;
+        taker = BenchmarkEngine.order("BUY", style, "AAPL", 1, price, "taker");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public Long place() {
+        return placeOne();
+    }
+
+    // Four threads placing in the same symbol, so on the same shard; a crossing taker may meet
+    // another thread's sell
+    @Benchmark
+    @Threads(4)
+    public Long placeContended() {
+        return placeOne();
+    }
+
+    private Long placeOne() {
+        if (crossing) {
+            engine.service.placeOrder(maker).join();
+        }
+        return engine.service.placeOrder(taker).join();
+    }
+}
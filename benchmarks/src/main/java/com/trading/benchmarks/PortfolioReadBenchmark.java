@@ -0,0 +1,94 @@
+package com.trading.benchmarks;
+
+import com.trading.model.OrderRequest;
+import com.trading.model.PortfolioHolding;
+import com.trading.model.PortfolioSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Portfolio reads of an account holding every sample instrument, alone and while another thread
+ * trades one of those instruments, so every trade revalues a position being read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class PortfolioReadBenchmark {
+    private static final String[] SYMBOLS = {"AAPL", "GOOGL", "MSFT", "TSLA", "BTC-USD"};
+    private static final double[] PRICES = {175.50, 142.30, 378.85, 248.42, 43250.00};
+
+    private BenchmarkEngine engine;
+    private OrderRequest maker;
+    private OrderRequest taker;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new BenchmarkEngine(4);
+        // Enough AAPL for the maker's sells in every trade of the iteration
+        engine.buyHoldings("maker", "AAPL", 20_000_000);
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            if (i > 0) {
+                engine.buyHoldings("maker", SYMBOLS[i], 10);
+            }
+            engine.service.placeOrder(BenchmarkEngine.order("SELL", "LIMIT", SYMBOLS[i], 10, PRICES[i], "maker"))
+                    .join();
+            engine.service.placeOrder(BenchmarkEngine.order("BUY", "MARKET", SYMBOLS[i], 10, null, "reader"))
+                    .join();
+        }
+        maker = BenchmarkEngine.order("SELL", "LIMIT", "AAPL", 1, 175.50, "maker");
+        taker = BenchmarkEngine.order("BUY", "LIMIT", "AAPL", 1, 175.50, "taker");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @Group("portfolio")
+    public List<PortfolioHolding> readPortfolio() {
+        return engine.service.getPortfolio("reader");
+    }
+
+    @Benchmark
+    @Group("summary")
+    public PortfolioSummary readSummary() {
+        return engine.service.getPortfolioSummary("reader");
+    }
+
+    @Benchmark
+    @Group("portfolioUnderLoad")
+    @GroupThreads(3)
+    public List<PortfolioHolding> readPortfolioUnderLoad() {
+        return engine.service.getPortfolio("reader");
+    }
+
+    @Benchmark
+    @Group("portfolioUnderLoad")
+    public Long tradeAlongsidePortfolio() {
+        return trade();
+    }
+
+    @Benchmark
+    @Group("summaryUnderLoad")
+    @GroupThreads(3)
+    public PortfolioSummary readSummaryUnderLoad() {
+        return engine.service.getPortfolioSummary("reader");
+    }
+
+    @Benchmark
+    @Group("summaryUnderLoad")
+    public Long tradeAlongsideSummary() {
+        return trade();
+    }
+
+    private Long trade() {
+        engine.service.placeOrder(maker).join();
+        return engine.service.placeOrder(taker).join();
+    }
+}
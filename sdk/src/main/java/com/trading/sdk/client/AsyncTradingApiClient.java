@@ -0,0 +1,475 @@
+package com.trading.sdk.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trading.sdk.exception.TradingApiException;
+import com.trading.sdk.model.*;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking client for the Trading System REST API. Every call returns at once with a
+ * {@link CompletableFuture} completed from {@link HttpClient#sendAsync}, so a single thread can keep
+ * many requests in flight; API failures complete the future exceptionally with a
+ * {@link TradingApiException}.
+ * <p>
+ * Requests are sent over HTTP/2 when the server supports it, multiplexed on one connection, and
+ * over HTTP/1.1 otherwise. At most {@code maxInFlight} requests are outstanding at a time; further
+ * calls are queued in the client and sent as responses come back. With micro-batching enabled,
+ * orders placed within the batch window are sent together through the batch endpoint.
+ */
+public class AsyncTradingApiClient implements AutoCloseable {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final Duration batchWindow; // null when micro-batching is off
+    private final int maxBatchSize;
+    private final ScheduledExecutorService batchTimer; // null when micro-batching is off
+    private List<PendingOrder> batch = new ArrayList<>(); // Guarded by this
+    private long batchNumber; // Guarded by this
+    private volatile CompletableFuture<Void> connected;
+    private volatile boolean closed;
+
+    /**
+     * Create a client with the default options: up to 256 requests in flight, no micro-batching
+     * @param baseUrl Base URL of the API (e.g., "http://localhost:8080")
+     */
+    public AsyncTradingApiClient(String baseUrl) {
+        this(builder(baseUrl));
+    }
+
+    private AsyncTradingApiClient(Builder builder) {
+        this.baseUrl = builder.baseUrl.endsWith("/")
+                ? builder.baseUrl.substring(0, builder.baseUrl.length() - 1)
+                : builder.baseUrl;
+        HttpClient.Builder httpBuilder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10));
+        if (builder.executor != null) {
+            httpBuilder.executor(builder.executor);
+        }
+        this.httpClient = httpBuilder.build();
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.maxInFlight = builder.maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+        this.batchWindow = builder.batchWindow;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.batchTimer = batchWindow == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trading-sdk-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param baseUrl Base URL of the API (e.g., "http://localhost:8080")
+     * @return Builder for a client with non-default options
+     */
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    /**
+     * Fetch list of tradable instruments
+     */
+    public CompletableFuture<List<Instrument>> getInstruments() {
+        return get("/api/v1/instruments", new TypeReference<List<Instrument>>() {});
+    }
+
+    /**
+     * Place a new order. With micro-batching enabled the order is sent in the next batch, and the
+     * future fails with status 400 if the server rejects that order.
+     * @return Future of the created order
+     */
+    public CompletableFuture<Order> placeOrder(OrderRequest request) {
+        return batchWindow != null ? enqueue(request) : post("/api/v1/orders", request, new TypeReference<Order>() {});
+    }
+
+    public CompletableFuture<Order> placeOrder(String orderType, String orderStyle, String symbol, Double quantity,
+                                               Double price) {
+        return placeOrder(new OrderRequest(orderType, orderStyle, symbol, quantity, price));
+    }
+
+    public CompletableFuture<Order> placeMarketOrder(String orderType, String symbol, Double quantity) {
+        return placeOrder(orderType, "MARKET", symbol, quantity, null);
+    }
+
+    public CompletableFuture<Order> placeLimitOrder(String orderType, String symbol, Double quantity, Double price) {
+        return placeOrder(orderType, "LIMIT", symbol, quantity, price);
+    }
+
+    /**
+     * Place a basket of orders through the batch endpoint (several requests for more than the
+     * server's batch limit), bypassing micro-batching
+     * @return Future of one result per request, in request order
+     */
+    public CompletableFuture<List<BatchOrderResult>> placeOrders(List<OrderRequest> requests) {
+        List<CompletableFuture<List<BatchOrderResult>>> parts = new ArrayList<>();
+        for (int start = 0; start < requests.size(); start += TradingApiClient.MAX_BATCH_SIZE) {
+            parts.add(postBatch(requests.subList(start,
+                    Math.min(requests.size(), start + TradingApiClient.MAX_BATCH_SIZE))));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<BatchOrderResult> results = new ArrayList<>(requests.size());
+            parts.forEach(part -> results.addAll(part.join()));
+            return results;
+        });
+    }
+
+    public CompletableFuture<Order> getOrderStatus(String orderId) {
+        return get("/api/v1/orders/" + orderId, new TypeReference<Order>() {});
+    }
+
+    /**
+     * Fetch one page of orders, newest first
+     * @param before Cursor from the previous page, null for the first page
+     */
+    public CompletableFuture<Page<Order>> getOrders(OrderQuery query, Long before) {
+        return getPage("/api/v1/orders" + TradingApiClient.queryString(
+                "symbol", query.getSymbol(),
+                "status", query.getStatus(),
+                "side", query.getSide(),
+                "from", query.getFrom(),
+                "to", query.getTo(),
+                "limit", query.getLimit(),
+                "before", before), new TypeReference<List<Order>>() {});
+    }
+
+    /**
+     * Amend a resting order's price or total quantity, as {@link TradingApiClient#amendOrder}
+     */
+    public CompletableFuture<Order> amendOrder(String orderId, Double price, Double quantity) {
+        return send("PATCH", "/api/v1/orders/" + orderId, new AmendOrderRequest(price, quantity),
+                new TypeReference<Order>() {});
+    }
+
+    public CompletableFuture<Order> cancelOrder(String orderId) {
+        return send(request("/api/v1/orders/" + orderId).DELETE().build(),
+                response -> objectMapper.readValue(response.body(), Order.class));
+    }
+
+    /**
+     * Cancel every resting order matching the filters, as {@link TradingApiClient#cancelOrders}
+     * @return future completed with the number of orders cancelled
+     */
+    public CompletableFuture<Long> cancelOrders(String symbol, String side, String account) {
+        String query = TradingApiClient.queryString("symbol", symbol, "side", side, "account", account);
+        return send(request("/api/v1/orders" + query).DELETE().build(),
+                response -> objectMapper.readValue(response.body(), MassCancelResult.class).getCancelled());
+    }
+
+    /**
+     * Fetch one page of trades, newest first
+     * @param before Cursor from the previous page, null for the first page
+     */
+    public CompletableFuture<Page<Trade>> getTrades(TradeQuery query, Long before) {
+        return getPage("/api/v1/trades" + TradingApiClient.queryString(
+                "symbol", query.getSymbol(),
+                "orderId", query.getOrderId(),
+                "side", query.getSide(),
+                "from", query.getFrom(),
+                "to", query.getTo(),
+                "limit", query.getLimit(),
+                "before", before), new TypeReference<List<Trade>>() {});
+    }
+
+    public CompletableFuture<List<PortfolioHolding>> getPortfolio() {
+        return getPortfolio(null);
+    }
+
+    /**
+     * @param account Account name, null for the default account
+     */
+    public CompletableFuture<List<PortfolioHolding>> getPortfolio(String account) {
+        return get("/api/v1/portfolio" + TradingApiClient.queryString("account", account),
+                new TypeReference<List<PortfolioHolding>>() {});
+    }
+
+    /**
+     * @param account Account name, null for the default account
+     */
+    public CompletableFuture<PortfolioSummary> getPortfolioSummary(String account) {
+        return get("/api/v1/portfolio/summary" + TradingApiClient.queryString("account", account),
+                new TypeReference<PortfolioSummary>() {});
+    }
+
+    /**
+     * Number of requests sent and not yet answered
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Send any orders still waiting for their batch and stop accepting calls. Requests already sent
+     * still complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (batchTimer != null) {
+            List<PendingOrder> pending;
+            synchronized (this) {
+                pending = batch;
+                batch = new ArrayList<>();
+                batchNumber++;
+            }
+            if (!pending.isEmpty()) {
+                sendBatch(pending);
+            }
+            batchTimer.shutdown();
+        }
+    }
+
+    // Private helper methods
+
+    private <T> CompletableFuture<T> get(String path, TypeReference<T> typeRef) {
+        return send(request(path).GET().build(), response -> objectMapper.readValue(response.body(), typeRef));
+    }
+
+    private <T> CompletableFuture<Page<T>> getPage(String path, TypeReference<List<T>> typeRef) {
+        return send(request(path).GET().build(), response -> new Page<>(objectMapper.readValue(response.body(), typeRef),
+                response.headers().firstValue(TradingApiClient.NEXT_CURSOR_HEADER).map(Long::valueOf).orElse(null)));
+    }
+
+    private <T> CompletableFuture<T> post(String path, Object body, TypeReference<T> typeRef) {
+        return send("POST", path, body, typeRef);
+    }
+
+    private <T> CompletableFuture<T> send(String method, String path, Object body, TypeReference<T> typeRef) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new TradingApiException(500,
+                    "Error serializing request: " + e.getMessage()));
+        }
+        return send(request(path).method(method, HttpRequest.BodyPublishers.ofByteArray(json)).build(),
+                response -> objectMapper.readValue(response.body(), typeRef));
+    }
+
+    private CompletableFuture<List<BatchOrderResult>> postBatch(List<OrderRequest> requests) {
+        return post("/api/v1/orders/batch", requests, new TypeReference<List<BatchOrderResult>>() {});
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(REQUEST_TIMEOUT);
+    }
+
+    private interface ResponseReader<T> {
+        T read(HttpResponse<byte[]> response) throws IOException;
+    }
+
+    // Queue the request and send it once it fits under the in-flight limit
+    private <T> CompletableFuture<T> send(HttpRequest request, ResponseReader<T> reader) {
+        if (closed) {
+            throw new IllegalStateException("Client is closed");
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> connect()
+                .thenCompose(ignored -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .whenComplete((received, error) -> {
+                    // Free the slot before completing, so callbacks that send again are not queued behind it
+                    permits.release();
+                    sendWaiting();
+                    complete(result, received, error, reader);
+                }));
+        sendWaiting();
+        return result;
+    }
+
+    // Cleartext HTTP/2 is negotiated by upgrading a request, and servers only upgrade requests without
+    // a body: a GET goes first and opens the connection later requests are multiplexed on
+    private CompletableFuture<Void> connect() {
+        CompletableFuture<Void> current = connected;
+        if (current == null) {
+            synchronized (this) {
+                if (connected == null) {
+                    connected = httpClient.sendAsync(request("/health").GET().build(),
+                            HttpResponse.BodyHandlers.discarding()).handle((response, error) -> null);
+                }
+                current = connected;
+            }
+        }
+        return current;
+    }
+
+    // Both callers add work or free a permit before calling, so no queued request is left behind
+    private void sendWaiting() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+
+    private <T> void complete(CompletableFuture<T> result, HttpResponse<byte[]> response, Throwable error,
+                              ResponseReader<T> reader) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            result.completeExceptionally(new TradingApiException(500, "Error executing request: " + cause));
+            return;
+        }
+        try {
+            if (response.statusCode() == HttpURLConnection.HTTP_OK
+                    || response.statusCode() == HttpURLConnection.HTTP_CREATED) {
+                result.complete(reader.read(response));
+            } else {
+                result.completeExceptionally(TradingApiClient.parseError(objectMapper, response.statusCode(),
+                        new String(response.body(), StandardCharsets.UTF_8)));
+            }
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(new TradingApiException(500, "Error reading response: " + e.getMessage()));
+        }
+    }
+
+    // Micro-batching
+
+    private record PendingOrder(OrderRequest request, CompletableFuture<Order> future) {
+    }
+
+    private CompletableFuture<Order> enqueue(OrderRequest request) {
+        if (closed) {
+            throw new IllegalStateException("Client is closed");
+        }
+        CompletableFuture<Order> future = new CompletableFuture<>();
+        List<PendingOrder> full = null;
+        synchronized (this) {
+            batch.add(new PendingOrder(request, future));
+            if (batch.size() >= maxBatchSize) {
+                full = batch;
+                batch = new ArrayList<>();
+                batchNumber++;
+            } else if (batch.size() == 1) {
+                long number = batchNumber;
+                batchTimer.schedule(() -> flush(number), batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            sendBatch(full);
+        }
+        return future;
+    }
+
+    // Timer: send the batch that scheduled it, unless it already went out full
+    private void flush(long number) {
+        List<PendingOrder> pending;
+        synchronized (this) {
+            if (number != batchNumber || batch.isEmpty()) {
+                return;
+            }
+            pending = batch;
+            batch = new ArrayList<>();
+            batchNumber++;
+        }
+        sendBatch(pending);
+    }
+
+    private void sendBatch(List<PendingOrder> pending) {
+        List<OrderRequest> requests = new ArrayList<>(pending.size());
+        pending.forEach(order -> requests.add(order.request()));
+        postBatch(requests).whenComplete((results, error) -> {
+            for (int i = 0; i < pending.size(); i++) {
+                CompletableFuture<Order> future = pending.get(i).future();
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else if (results.get(i).isSuccess()) {
+                    future.complete(results.get(i).getOrder());
+                } else {
+                    future.completeExceptionally(new TradingApiException(HttpURLConnection.HTTP_BAD_REQUEST,
+                            results.get(i).getError()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Options for an {@link AsyncTradingApiClient}
+     */
+    public static final class Builder {
+        private final String baseUrl;
+        private int maxInFlight = 256;
+        private Duration batchWindow;
+        private int maxBatchSize = TradingApiClient.MAX_BATCH_SIZE;
+        private Executor executor;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /**
+         * @param maxInFlight Most requests sent and not yet answered; further calls wait in the client
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("maxInFlight must be greater than 0");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Send single orders through the batch endpoint: an order waits at most window for others
+         * to join it, and a batch is sent as soon as it holds maxBatchSize orders
+         */
+        public Builder microBatching(Duration window, int maxBatchSize) {
+            if (window == null || window.isNegative() || window.isZero()) {
+                throw new IllegalArgumentException("window must be positive");
+            }
+            if (maxBatchSize <= 0 || maxBatchSize > TradingApiClient.MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("maxBatchSize must be between 1 and "
+                        + TradingApiClient.MAX_BATCH_SIZE);
+            }
+            this.batchWindow = window;
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param executor Runs response handling and the futures' dependent stages; the HTTP
+         *                 client's default pool if not set
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public AsyncTradingApiClient build() {
+            return new AsyncTradingApiClient(this);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.trading.sdk.client;
+
+import com.trading.sdk.exception.TradingApiException;
+import com.trading.sdk.model.Order;
+import com.trading.sdk.model.OrderRequest;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order entry over the server's binary TCP protocol (enabled with {@code trading.wire.enabled}),
+ * which skips HTTP and JSON for placing and cancelling orders.
+ * <p>
+ * Requests are pipelined on one connection: every call returns at once with a future that the
+ * connection's reader thread completes when the matching execution report arrives. Rejections
+ * complete the future exceptionally with a {@link TradingApiException} with status 400, as the REST
+ * API would; a lost connection fails every outstanding request with status 500.
+ */
+public class BinaryTransport implements AutoCloseable {
+    private static final byte NEW_ORDER = 1;
+    private static final byte CANCEL_ORDER = 2;
+    private static final byte EXECUTION_REPORT = 11;
+    private static final byte REJECT = 12;
+    private static final int MAX_FRAME_LENGTH = 1024;
+    private static final double SCALE = 1_000_000d;
+    private static final String[] SIDES = {"BUY", "SELL"};
+    private static final String[] STYLES = {"MARKET", "LIMIT"};
+    private static final String[] STATUSES = {"NEW", "PLACED", "PARTIALLY_FILLED", "EXECUTED", "CANCELLED"};
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocate(MAX_FRAME_LENGTH + 4); // Guarded by itself
+    private final Map<Long, CompletableFuture<Order>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong correlationIds = new AtomicLong();
+    private final Thread reader;
+    private volatile boolean closed;
+
+    /**
+     * Connect to the server's binary order entry port
+     * @param host Server host (e.g., "localhost")
+     * @param port Binary order entry port (9090 by default)
+     * @throws IOException if the connection cannot be opened
+     */
+    public BinaryTransport(String host, int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.reader = new Thread(this::read, "trading-sdk-binary-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Place a new order
+     * @return Future of the order as the server reports it once placed
+     */
+    public CompletableFuture<Order> placeOrder(OrderRequest request) {
+        if (request.getSymbol() == null || request.getQuantity() == null) {
+            return reject(request.getSymbol() == null ? "symbol is required" : "quantity is required");
+        }
+        int side = indexOf(SIDES, request.getOrderType());
+        if (side < 0) {
+            return reject("orderType must be BUY or SELL");
+        }
+        int style = indexOf(STYLES, request.getOrderStyle());
+        if (style < 0) {
+            return reject("orderStyle must be MARKET or LIMIT");
+        }
+        if (style == 1 && request.getPrice() == null) {
+            return reject("price is required for LIMIT orders");
+        }
+        byte[] symbol = request.getSymbol().getBytes(StandardCharsets.US_ASCII);
+        if (symbol.length > 255) {
+            return reject("Instrument " + request.getSymbol() + " not found");
+        }
+        byte[] account = request.getAccount() == null ? new byte[0]
+                : request.getAccount().getBytes(StandardCharsets.US_ASCII);
+        if (account.length > 255) {
+            return reject("account must be 1 to 64 letters, digits, '.', '_' or '-'");
+        }
+
+        long correlationId = correlationIds.incrementAndGet();
+        CompletableFuture<Order> future = register(correlationId);
+        synchronized (out) {
+            out.clear();
+            out.putInt(1 + 8 + 1 + 1 + 8 + 8 + 1 + symbol.length + 1 + account.length);
+            out.put(NEW_ORDER);
+            out.putLong(correlationId);
+            out.put((byte) side);
+            out.put((byte) style);
+            out.putLong(style == 1 ? toFixed(request.getPrice()) : 0);
+            out.putLong(toFixed(request.getQuantity()));
+            out.put((byte) symbol.length);
+            out.put(symbol);
+            out.put((byte) account.length);
+            out.put(account);
+            write(correlationId);
+        }
+        return future;
+    }
+
+    /**
+     * Cancel an order
+     * @return Future of the order as the server reports it once cancelled
+     */
+    public CompletableFuture<Order> cancelOrder(String orderId) {
+        long id;
+        try {
+            id = Long.parseLong(orderId);
+        } catch (NumberFormatException e) {
+            return reject("Order not found");
+        }
+        long correlationId = correlationIds.incrementAndGet();
+        CompletableFuture<Order> future = register(correlationId);
+        synchronized (out) {
+            out.clear();
+            out.putInt(1 + 8 + 8);
+            out.put(CANCEL_ORDER);
+            out.putLong(correlationId);
+            out.putLong(id);
+            write(correlationId);
+        }
+        return future;
+    }
+
+    /**
+     * Number of requests sent and not yet answered
+     */
+    public int getInFlight() {
+        return pending.size();
+    }
+
+    /**
+     * Close the connection; requests not yet answered fail
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        failAll("Connection closed");
+    }
+
+    // Private helper methods
+
+    private CompletableFuture<Order> register(long correlationId) {
+        CompletableFuture<Order> future = new CompletableFuture<>();
+        pending.put(correlationId, future);
+        if (closed) {
+            failAll("Connection closed");
+        }
+        return future;
+    }
+
+    // Called holding the out lock
+    private void write(long correlationId) {
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            CompletableFuture<Order> future = pending.remove(correlationId);
+            if (future != null) {
+                future.completeExceptionally(new TradingApiException(500, "Error sending request: " + e.getMessage()));
+            }
+        }
+    }
+
+    private void read() {
+        ByteBuffer in = ByteBuffer.allocate(1 << 16);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= 4) {
+                    int length = in.getInt(in.position());
+                    if (length < 1 || length > MAX_FRAME_LENGTH) {
+                        // The stream is out of step with the protocol; no later frame can be trusted
+                        throw new IOException("Invalid frame length " + length);
+                    }
+                    if (in.remaining() < 4 + length) {
+                        break;
+                    }
+                    int end = in.position() + 4 + in.getInt();
+                    byte type = in.get();
+                    long correlationId = in.getLong();
+                    CompletableFuture<Order> future = pending.remove(correlationId);
+                    if (type == EXECUTION_REPORT) {
+                        Order order = decodeOrder(in);
+                        if (future != null) {
+                            future.complete(order);
+                        }
+                    } else if (type == REJECT && future != null) {
+                        byte[] message = new byte[in.getShort() & 0xFFFF];
+                        in.get(message);
+                        future.completeExceptionally(new TradingApiException(HttpURLConnection.HTTP_BAD_REQUEST,
+                                new String(message, StandardCharsets.UTF_8)));
+                    }
+                    in.position(end);
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            // Connection lost or closed
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        failAll(closed ? "Connection closed" : "Connection lost");
+    }
+
+    private static Order decodeOrder(ByteBuffer in) {
+        Order order = new Order();
+        order.setOrderId(Long.toString(in.getLong()));
+        order.setStatus(STATUSES[in.get() & 0xFF]);
+        order.setOrderType(SIDES[in.get() & 0xFF]);
+        String style = STYLES[in.get() & 0xFF];
+        order.setOrderStyle(style);
+        long price = in.getLong();
+        order.setPrice(style.equals("LIMIT") ? price / SCALE : null);
+        order.setQuantity(in.getLong() / SCALE);
+        order.setFilledQuantity(in.getLong() / SCALE);
+        long timestamp = in.getLong();
+        order.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochSecond(0, timestamp), ZoneId.systemDefault()));
+        order.setSymbol(getAscii(in));
+        order.setAccount(getAscii(in));
+        return order;
+    }
+
+    private static String getAscii(ByteBuffer in) {
+        byte[] value = new byte[in.get() & 0xFF];
+        in.get(value);
+        return new String(value, StandardCharsets.US_ASCII);
+    }
+
+    private void failAll(String message) {
+        for (Long correlationId : pending.keySet()) {
+            CompletableFuture<Order> future = pending.remove(correlationId);
+            if (future != null) {
+                future.completeExceptionally(new TradingApiException(500, message));
+            }
+        }
+    }
+
+    private static CompletableFuture<Order> reject(String message) {
+        return CompletableFuture.failedFuture(new TradingApiException(HttpURLConnection.HTTP_BAD_REQUEST, message));
+    }
+
+    private static int indexOf(String[] values, String value) {
+        if (value != null) {
+            String upper = value.toUpperCase(Locale.ROOT);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equals(upper)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long toFixed(double value) {
+        return Math.round(value * SCALE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.trading.sdk.client;
+
+import com.trading.sdk.exception.TradingApiException;
+import com.trading.sdk.exception.UncheckedTradingApiException;
+import com.trading.sdk.model.Page;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates a paginated listing, fetching the next page only once the current one is used up
+ */
+class PageIterator<T> implements Iterator<T> {
+
+    interface PageFetcher<T> {
+        Page<T> fetch(Long before) throws TradingApiException;
+    }
+
+    private final PageFetcher<T> fetcher;
+    private Iterator<T> current;
+    private Long nextCursor;
+    private boolean lastPage;
+
+    PageIterator(PageFetcher<T> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while ((current == null || !current.hasNext()) && !lastPage) {
+            Page<T> page;
+            try {
+                page = fetcher.fetch(nextCursor);
+            } catch (TradingApiException e) {
+                throw new UncheckedTradingApiException(e);
+            }
+            current = page.getItems().iterator();
+            nextCursor = page.getNextCursor();
+            lastPage = !page.hasNext();
+        }
+        return current.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+}
@@ -4,24 +4,40 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.trading.sdk.exception.TradingApiException;
+import com.trading.sdk.exception.UncheckedTradingApiException;
 import com.trading.sdk.model.*;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Trading API Client - SDK wrapper for Trading System REST API
  */
 public class TradingApiClient {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Largest page the server accepts by default
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Most orders the server accepts in one batch by default
+    static final int MAX_BATCH_SIZE = 1000;
+
     private final String baseUrl;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final BinaryTransport binaryTransport; // null to place and cancel orders over HTTP
 
     /**
      * Create a new TradingApiClient with default base URL (http://localhost:8080)
@@ -35,6 +51,17 @@ public class TradingApiClient {
      * @param baseUrl Base URL of the API (e.g., "http://localhost:8080")
      */
     public TradingApiClient(String baseUrl) {
+        this(baseUrl, null);
+    }
+
+    /**
+     * Create a new TradingApiClient that places and cancels orders over the binary protocol and
+     * makes every other call over HTTP
+     * @param baseUrl Base URL of the API (e.g., "http://localhost:8080")
+     * @param binaryTransport Open connection to the server's binary order entry port, or null
+     */
+    public TradingApiClient(String baseUrl, BinaryTransport binaryTransport) {
+        this.binaryTransport = binaryTransport;
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
@@ -64,8 +91,37 @@ public class TradingApiClient {
      */
     public Order placeOrder(String orderType, String orderStyle, String symbol, Double quantity, Double price) 
             throws TradingApiException {
-        OrderRequest request = new OrderRequest(orderType, orderStyle, symbol, quantity, price);
-        return executePost("/api/v1/orders", request, Order.class);
+        return placeOrder(new OrderRequest(orderType, orderStyle, symbol, quantity, price));
+    }
+
+    /**
+     * Place a new order, e.g. for a specific account
+     * @param request Order to place
+     * @return Created order
+     * @throws TradingApiException if API call fails or validation fails
+     */
+    public Order placeOrder(OrderRequest request) throws TradingApiException {
+        if (binaryTransport != null) {
+            return awaitBinary(binaryTransport.placeOrder(request));
+        }
+        return executePost("/api/v1/orders", request, new TypeReference<Order>() {});
+    }
+
+    /**
+     * Place a basket of orders in one round trip (several for more than the server's batch limit).
+     * Orders are validated independently, so some may be placed while others are rejected.
+     * @param requests Orders to place
+     * @return One result per request, in request order, holding the order or the rejection reason
+     * @throws TradingApiException if API call fails
+     */
+    public List<BatchOrderResult> placeOrders(List<OrderRequest> requests) throws TradingApiException {
+        List<BatchOrderResult> results = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += MAX_BATCH_SIZE) {
+            results.addAll(executePost("/api/v1/orders/batch",
+                    requests.subList(start, Math.min(requests.size(), start + MAX_BATCH_SIZE)),
+                    new TypeReference<List<BatchOrderResult>>() {}));
+        }
+        return results;
     }
 
     /**
@@ -105,12 +161,70 @@ public class TradingApiClient {
     }
 
     /**
-     * Fetch all orders
+     * Fetch all orders, oldest first, paging through the whole history
      * @return List of all orders
      * @throws TradingApiException if API call fails
      */
     public List<Order> getAllOrders() throws TradingApiException {
-        return executeGet("/api/v1/orders", new TypeReference<List<Order>>() {});
+        return collectAll(this::iterateOrders, new OrderQuery().limit(MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Fetch one page of orders, newest first
+     * @param query Filters and page size
+     * @param before Cursor from the previous page, null for the first page
+     * @return Page of orders with the cursor for the next page
+     * @throws TradingApiException if API call fails or a filter is invalid
+     */
+    public Page<Order> getOrders(OrderQuery query, Long before) throws TradingApiException {
+        return executeGetPage("/api/v1/orders" + queryString(
+                "symbol", query.getSymbol(),
+                "status", query.getStatus(),
+                "side", query.getSide(),
+                "from", query.getFrom(),
+                "to", query.getTo(),
+                "limit", query.getLimit(),
+                "before", before), new TypeReference<List<Order>>() {});
+    }
+
+    /**
+     * Iterate all orders matching the query, newest first. Pages are fetched lazily as the
+     * iterator advances; API failures surface as {@link UncheckedTradingApiException}.
+     * @param query Filters and page size
+     * @return Lazily paging iterator
+     */
+    public Iterator<Order> iterateOrders(OrderQuery query) {
+        return new PageIterator<>(before -> getOrders(query, before));
+    }
+
+    /**
+     * Amend a resting order in the book. Lowering only the quantity keeps the order's priority; a new
+     * price or a larger quantity re-queues it, and a new price that crosses the book matches first.
+     * Sent over HTTP even when a binary transport is configured.
+     * @param orderId Order ID to amend
+     * @param price New limit price, or null to keep it
+     * @param quantity New total quantity, filled part included, or null to keep it
+     * @return Amended order
+     * @throws TradingApiException if API call fails or the order cannot be amended
+     */
+    public Order amendOrder(String orderId, Double price, Double quantity) throws TradingApiException {
+        return executeWithBody("PATCH", "/api/v1/orders/" + orderId, new AmendOrderRequest(price, quantity),
+                new TypeReference<Order>() {});
+    }
+
+    /**
+     * Cancel every resting order matching the filters in one request; null filters match everything,
+     * so passing only nulls cancels all resting orders. Sent over HTTP even when a binary transport
+     * is configured.
+     * @param symbol Only this instrument's orders, or null
+     * @param side Only BUY or SELL orders, or null
+     * @param account Only this account's orders, or null
+     * @return Number of orders cancelled
+     * @throws TradingApiException if API call fails or a filter is invalid
+     */
+    public long cancelOrders(String symbol, String side, String account) throws TradingApiException {
+        return executeDelete("/api/v1/orders" + queryString("symbol", symbol, "side", side, "account", account),
+                new TypeReference<MassCancelResult>() {}).getCancelled();
     }
 
     /**
@@ -120,6 +234,9 @@ public class TradingApiClient {
      * @throws TradingApiException if API call fails or order cannot be cancelled
      */
     public Order cancelOrder(String orderId) throws TradingApiException {
+        if (binaryTransport != null) {
+            return awaitBinary(binaryTransport.cancelOrder(orderId));
+        }
         try {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(baseUrl + "/api/v1/orders/" + orderId))
@@ -141,21 +258,71 @@ public class TradingApiClient {
     }
 
     /**
-     * Fetch list of executed trades
+     * Fetch all executed trades, oldest first, paging through the whole history
      * @return List of trades
      * @throws TradingApiException if API call fails
      */
     public List<Trade> getTrades() throws TradingApiException {
-        return executeGet("/api/v1/trades", new TypeReference<List<Trade>>() {});
+        return collectAll(this::iterateTrades, new TradeQuery().limit(MAX_PAGE_SIZE));
     }
 
     /**
-     * Fetch current portfolio holdings
+     * Fetch one page of trades, newest first
+     * @param query Filters and page size
+     * @param before Cursor from the previous page, null for the first page
+     * @return Page of trades with the cursor for the next page
+     * @throws TradingApiException if API call fails or a filter is invalid
+     */
+    public Page<Trade> getTrades(TradeQuery query, Long before) throws TradingApiException {
+        return executeGetPage("/api/v1/trades" + queryString(
+                "symbol", query.getSymbol(),
+                "orderId", query.getOrderId(),
+                "side", query.getSide(),
+                "from", query.getFrom(),
+                "to", query.getTo(),
+                "limit", query.getLimit(),
+                "before", before), new TypeReference<List<Trade>>() {});
+    }
+
+    /**
+     * Iterate all trades matching the query, newest first. Pages are fetched lazily as the
+     * iterator advances; API failures surface as {@link UncheckedTradingApiException}.
+     * @param query Filters and page size
+     * @return Lazily paging iterator
+     */
+    public Iterator<Trade> iterateTrades(TradeQuery query) {
+        return new PageIterator<>(before -> getTrades(query, before));
+    }
+
+    /**
+     * Fetch current portfolio holdings of the default account
      * @return List of portfolio holdings
      * @throws TradingApiException if API call fails
      */
     public List<PortfolioHolding> getPortfolio() throws TradingApiException {
-        return executeGet("/api/v1/portfolio", new TypeReference<List<PortfolioHolding>>() {});
+        return getPortfolio(null);
+    }
+
+    /**
+     * Fetch current portfolio holdings of an account
+     * @param account Account name, null for the default account
+     * @return List of portfolio holdings, empty for an account that never placed an order
+     * @throws TradingApiException if API call fails
+     */
+    public List<PortfolioHolding> getPortfolio(String account) throws TradingApiException {
+        return executeGet("/api/v1/portfolio" + queryString("account", account),
+                new TypeReference<List<PortfolioHolding>>() {});
+    }
+
+    /**
+     * Fetch the totals of an account's holdings: market value, cost basis, unrealized and realized PnL
+     * @param account Account name, null for the default account
+     * @return Portfolio summary, all zero for an account that never placed an order
+     * @throws TradingApiException if API call fails
+     */
+    public PortfolioSummary getPortfolioSummary(String account) throws TradingApiException {
+        return executeGet("/api/v1/portfolio/summary" + queryString("account", account),
+                new TypeReference<PortfolioSummary>() {});
     }
 
     // Private helper methods
@@ -169,25 +336,104 @@ public class TradingApiClient {
                     .timeout(Duration.ofSeconds(10))
                     .build();
 
+            // Parsed as it arrives, so the body is never held as one string
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    return objectMapper.readValue(body, typeRef);
+                } else {
+                    throw parseErrorResponse(response.statusCode(), body);
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            throw new TradingApiException(500, "Error executing GET request: " + e.getMessage());
+        }
+    }
+
+    private <T> Page<T> executeGetPage(String path, TypeReference<List<T>> typeRef) throws TradingApiException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + path))
+                    .GET()
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    Long nextCursor = response.headers().firstValue(NEXT_CURSOR_HEADER).map(Long::valueOf).orElse(null);
+                    return new Page<>(objectMapper.readValue(body, typeRef), nextCursor);
+                } else {
+                    throw parseErrorResponse(response.statusCode(), body);
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            throw new TradingApiException(500, "Error executing GET request: " + e.getMessage());
+        }
+    }
+
+    // Query string of the non-null parameters, given as name/value pairs
+    static String queryString(Object... parameters) {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < parameters.length; i += 2) {
+            if (parameters[i + 1] != null) {
+                query.append(query.length() == 0 ? '?' : '&')
+                        .append(parameters[i])
+                        .append('=')
+                        .append(URLEncoder.encode(parameters[i + 1].toString(), StandardCharsets.UTF_8));
+            }
+        }
+        return query.toString();
+    }
+
+    private interface Listing<Q, T> {
+        Iterator<T> iterate(Q query);
+    }
+
+    private static <Q, T> List<T> collectAll(Listing<Q, T> listing, Q query) throws TradingApiException {
+        List<T> result = new ArrayList<>();
+        try {
+            listing.iterate(query).forEachRemaining(result::add);
+        } catch (UncheckedTradingApiException e) {
+            throw e.getCause();
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private <T> T executeDelete(String path, TypeReference<T> typeRef) throws TradingApiException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + path))
+                    .DELETE()
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            
             if (response.statusCode() == HttpURLConnection.HTTP_OK) {
                 return objectMapper.readValue(response.body(), typeRef);
             } else {
                 throw parseErrorResponse(response);
             }
         } catch (IOException | InterruptedException e) {
-            throw new TradingApiException(500, "Error executing GET request: " + e.getMessage());
+            throw new TradingApiException(500, "Error executing DELETE request: " + e.getMessage());
         }
     }
 
-    private <T> T executePost(String path, Object requestBody, Class<T> responseClass) throws TradingApiException {
+    private <T> T executePost(String path, Object requestBody, TypeReference<T> typeRef) throws TradingApiException {
+        return executeWithBody("POST", path, requestBody, typeRef);
+    }
+
+    private <T> T executeWithBody(String method, String path, Object requestBody, TypeReference<T> typeRef)
+            throws TradingApiException {
         try {
             String requestBodyJson = objectMapper.writeValueAsString(requestBody);
             
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(baseUrl + path))
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBodyJson))
+                    .method(method, HttpRequest.BodyPublishers.ofString(requestBodyJson))
                     .header("Content-Type", "application/json")
                     .timeout(Duration.ofSeconds(10))
                     .build();
@@ -196,22 +442,40 @@ public class TradingApiClient {
             
             if (response.statusCode() == HttpURLConnection.HTTP_CREATED || 
                 response.statusCode() == HttpURLConnection.HTTP_OK) {
-                return objectMapper.readValue(response.body(), responseClass);
+                return objectMapper.readValue(response.body(), typeRef);
             } else {
                 throw parseErrorResponse(response);
             }
         } catch (IOException | InterruptedException e) {
-            throw new TradingApiException(500, "Error executing POST request: " + e.getMessage());
+            throw new TradingApiException(500, "Error executing " + method + " request: " + e.getMessage());
+        }
+    }
+
+    private static Order awaitBinary(CompletableFuture<Order> future) throws TradingApiException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TradingApiException cause) {
+                throw cause;
+            }
+            throw new TradingApiException(500, "Error executing request: " + e.getCause());
         }
     }
 
     private TradingApiException parseErrorResponse(HttpResponse<String> response) throws IOException {
+        return parseError(objectMapper, response.statusCode(), response.body());
+    }
+
+    private TradingApiException parseErrorResponse(int statusCode, InputStream body) throws IOException {
+        return parseError(objectMapper, statusCode, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    static TradingApiException parseError(ObjectMapper objectMapper, int statusCode, String body) {
         try {
-            ErrorResponse errorResponse = objectMapper.readValue(response.body(), ErrorResponse.class);
-            return new TradingApiException(response.statusCode(), errorResponse.getError());
+            ErrorResponse errorResponse = objectMapper.readValue(body, ErrorResponse.class);
+            return new TradingApiException(statusCode, errorResponse.getError());
         } catch (Exception e) {
-            return new TradingApiException(response.statusCode(), 
-                    "API Error: " + response.statusCode() + " - " + response.body());
+            return new TradingApiException(statusCode, "API Error: " + statusCode + " - " + body);
         }
     }
 
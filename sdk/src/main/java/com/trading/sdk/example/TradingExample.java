@@ -4,6 +4,7 @@ import com.trading.sdk.client.TradingApiClient;
 import com.trading.sdk.exception.TradingApiException;
 import com.trading.sdk.model.*;
 
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -51,6 +52,21 @@ public class TradingExample {
             List<Order> allOrders = client.getAllOrders();
             allOrders.forEach(System.out::println);
 
+            // 8. Page through recent AAPL trades, newest first
+            System.out.println("\n=== Iterating AAPL Trades ===");
+            Iterator<Trade> aaplTrades = client.iterateTrades(new TradeQuery().symbol("AAPL").limit(50));
+            aaplTrades.forEachRemaining(System.out::println);
+
+            // 9. Place a basket of limit orders in one request
+            System.out.println("\n=== Placing Order Basket ===");
+            List<BatchOrderResult> basket = client.placeOrders(List.of(
+                    new OrderRequest("BUY", "LIMIT", "MSFT", 2.0, 370.0),
+                    new OrderRequest("BUY", "LIMIT", "GOOGL", 3.0, 140.0),
+                    new OrderRequest("SELL", "LIMIT", "TSLA", 1.0, 260.0)));
+            basket.forEach(result -> System.out.println(result.isSuccess()
+                    ? "Order placed: " + result.getOrder()
+                    : "Order rejected: " + result.getError()));
+
         } catch (TradingApiException e) {
             System.err.println("API Error: " + e.getStatusCode() + " - " + e.getErrorMessage());
         }
@@ -0,0 +1,17 @@
+package com.trading.sdk.exception;
+
+/**
+ * Wraps a {@link TradingApiException} thrown where checked exceptions are not allowed, such as
+ * while a paging iterator fetches its next page.
+ */
+public class UncheckedTradingApiException extends RuntimeException {
+
+    public UncheckedTradingApiException(TradingApiException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public TradingApiException getCause() {
+        return (TradingApiException) super.getCause();
+    }
+}
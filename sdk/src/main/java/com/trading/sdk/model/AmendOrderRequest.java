@@ -0,0 +1,36 @@
+package com.trading.sdk.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * New terms for a resting order; null fields keep their current value.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AmendOrderRequest {
+    private Double price;
+    private Double quantity; // Total quantity, filled part included
+
+    public AmendOrderRequest() {
+    }
+
+    public AmendOrderRequest(Double price, Double quantity) {
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+}
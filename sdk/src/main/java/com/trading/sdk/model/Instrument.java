@@ -10,6 +10,8 @@ public class Instrument {
     private String exchange;
     private String instrumentType;
     private Double lastTradedPrice;
+    private Double tickSize; // Minimum price increment
+    private Double lotSize; // Minimum quantity increment
 
     public Instrument() {
     }
@@ -46,6 +48,22 @@ public class Instrument {
         this.lastTradedPrice = lastTradedPrice;
     }
 
+    public Double getTickSize() {
+        return tickSize;
+    }
+
+    public void setTickSize(Double tickSize) {
+        this.tickSize = tickSize;
+    }
+
+    public Double getLotSize() {
+        return lotSize;
+    }
+
+    public void setLotSize(Double lotSize) {
+        this.lotSize = lotSize;
+    }
+
     @Override
     public String toString() {
         return "Instrument{" +
@@ -53,6 +71,8 @@ public class Instrument {
                 ", exchange='" + exchange + '\'' +
                 ", instrumentType='" + instrumentType + '\'' +
                 ", lastTradedPrice=" + lastTradedPrice +
+                ", tickSize=" + tickSize +
+                ", lotSize=" + lotSize +
                 '}';
     }
 }
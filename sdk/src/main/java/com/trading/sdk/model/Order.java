@@ -8,11 +8,13 @@ import java.time.LocalDateTime;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Order {
     private String orderId;
+    private String account;
     private String symbol;
     private String orderType;
     private String orderStyle;
     private Double quantity;
     private Double price;
+    private Double filledQuantity;
     private String status;
     private LocalDateTime timestamp;
 
@@ -27,6 +29,14 @@ public class Order {
         this.orderId = orderId;
     }
 
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -67,6 +77,14 @@ public class Order {
         this.price = price;
     }
 
+    public Double getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    public void setFilledQuantity(Double filledQuantity) {
+        this.filledQuantity = filledQuantity;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -87,11 +105,13 @@ public class Order {
     public String toString() {
         return "Order{" +
                 "orderId='" + orderId + '\'' +
+                ", account='" + account + '\'' +
                 ", symbol='" + symbol + '\'' +
                 ", orderType='" + orderType + '\'' +
                 ", orderStyle='" + orderStyle + '\'' +
                 ", quantity=" + quantity +
                 ", price=" + price +
+                ", filledQuantity=" + filledQuantity +
                 ", status='" + status + '\'' +
                 ", timestamp=" + timestamp +
                 '}';
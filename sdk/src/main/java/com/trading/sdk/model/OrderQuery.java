@@ -0,0 +1,72 @@
+package com.trading.sdk.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and page size for listing orders; unset filters match everything.
+ * <pre>
+ * new OrderQuery().symbol("AAPL").status("PLACED").limit(500)
+ * </pre>
+ */
+public class OrderQuery {
+    private String symbol;
+    private String status; // NEW, PLACED, PARTIALLY_FILLED, EXECUTED or CANCELLED
+    private String side; // BUY or SELL
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to; // exclusive
+    private Integer limit; // page size, server default if unset
+
+    public OrderQuery symbol(String symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+
+    public OrderQuery status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public OrderQuery side(String side) {
+        this.side = side;
+        return this;
+    }
+
+    public OrderQuery from(LocalDateTime from) {
+        this.from = from;
+        return this;
+    }
+
+    public OrderQuery to(LocalDateTime to) {
+        this.to = to;
+        return this;
+    }
+
+    public OrderQuery limit(Integer limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+}
@@ -9,6 +9,7 @@ public class OrderRequest {
     private String symbol;
     private Double quantity;
     private Double price; // Required for LIMIT orders
+    private String account; // Optional, the default account if null
 
     public OrderRequest() {
     }
@@ -64,4 +65,12 @@ public class OrderRequest {
     public void setPrice(Double price) {
         this.price = price;
     }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
 }
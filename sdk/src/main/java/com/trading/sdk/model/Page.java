@@ -0,0 +1,31 @@
+package com.trading.sdk.model;
+
+import java.util.List;
+
+/**
+ * One page of orders or trades, newest first
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public Page(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return cursor to pass as {@code before} for the next page, or null if this is the last page
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -10,6 +10,8 @@ public class PortfolioHolding {
     private Double quantity;
     private Double averagePrice;
     private Double currentValue;
+    private Double unrealizedPnl;
+    private Double realizedPnl;
 
     public PortfolioHolding() {
     }
@@ -46,6 +48,22 @@ public class PortfolioHolding {
         this.currentValue = currentValue;
     }
 
+    public Double getUnrealizedPnl() {
+        return unrealizedPnl;
+    }
+
+    public void setUnrealizedPnl(Double unrealizedPnl) {
+        this.unrealizedPnl = unrealizedPnl;
+    }
+
+    public Double getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(Double realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+
     @Override
     public String toString() {
         return "PortfolioHolding{" +
@@ -53,6 +71,8 @@ public class PortfolioHolding {
                 ", quantity=" + quantity +
                 ", averagePrice=" + averagePrice +
                 ", currentValue=" + currentValue +
+                ", unrealizedPnl=" + unrealizedPnl +
+                ", realizedPnl=" + realizedPnl +
                 '}';
     }
 }
@@ -0,0 +1,68 @@
+package com.trading.sdk.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PortfolioSummary {
+    private String account;
+    private Double marketValue;
+    private Double costBasis;
+    private Double unrealizedPnl;
+    private Double realizedPnl;
+
+    public PortfolioSummary() {
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public Double getMarketValue() {
+        return marketValue;
+    }
+
+    public void setMarketValue(Double marketValue) {
+        this.marketValue = marketValue;
+    }
+
+    public Double getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(Double costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public Double getUnrealizedPnl() {
+        return unrealizedPnl;
+    }
+
+    public void setUnrealizedPnl(Double unrealizedPnl) {
+        this.unrealizedPnl = unrealizedPnl;
+    }
+
+    public Double getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(Double realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+
+    @Override
+    public String toString() {
+        return "PortfolioSummary{" +
+                "account='" + account + '\'' +
+                ", marketValue=" + marketValue +
+                ", costBasis=" + costBasis +
+                ", unrealizedPnl=" + unrealizedPnl +
+                ", realizedPnl=" + realizedPnl +
+                '}';
+    }
+}
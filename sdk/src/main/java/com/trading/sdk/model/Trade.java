@@ -9,6 +9,9 @@ import java.time.LocalDateTime;
 public class Trade {
     private String tradeId;
     private String orderId;
+    private String account;
+    private String contraOrderId;
+    private String contraAccount;
     private String symbol;
     private Double quantity;
     private Double price;
@@ -34,6 +37,30 @@ public class Trade {
         this.orderId = orderId;
     }
 
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public String getContraOrderId() {
+        return contraOrderId;
+    }
+
+    public void setContraOrderId(String contraOrderId) {
+        this.contraOrderId = contraOrderId;
+    }
+
+    public String getContraAccount() {
+        return contraAccount;
+    }
+
+    public void setContraAccount(String contraAccount) {
+        this.contraAccount = contraAccount;
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -79,6 +106,9 @@ public class Trade {
         return "Trade{" +
                 "tradeId='" + tradeId + '\'' +
                 ", orderId='" + orderId + '\'' +
+                ", account='" + account + '\'' +
+                ", contraOrderId='" + contraOrderId + '\'' +
+                ", contraAccount='" + contraAccount + '\'' +
                 ", symbol='" + symbol + '\'' +
                 ", quantity=" + quantity +
                 ", price=" + price +
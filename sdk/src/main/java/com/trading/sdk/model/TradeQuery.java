@@ -0,0 +1,72 @@
+package com.trading.sdk.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and page size for listing trades; unset filters match everything.
+ * <pre>
+ * new TradeQuery().symbol("AAPL").from(LocalDateTime.now().minusHours(1))
+ * </pre>
+ */
+public class TradeQuery {
+    private String symbol;
+    private String orderId; // matches either side of a trade
+    private String side; // aggressor side, BUY or SELL
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to; // exclusive
+    private Integer limit; // page size, server default if unset
+
+    public TradeQuery symbol(String symbol) {
+        this.symbol = symbol;
+        return this;
+    }
+
+    public TradeQuery orderId(String orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+
+    public TradeQuery side(String side) {
+        this.side = side;
+        return this;
+    }
+
+    public TradeQuery from(LocalDateTime from) {
+        this.from = from;
+        return this;
+    }
+
+    public TradeQuery to(LocalDateTime to) {
+        this.to = to;
+        return this;
+    }
+
+    public TradeQuery limit(Integer limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+}